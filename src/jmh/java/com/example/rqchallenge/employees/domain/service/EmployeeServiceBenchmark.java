@@ -0,0 +1,106 @@
+package com.example.rqchallenge.employees.domain.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
+import com.example.rqchallenge.employees.infrastructure.service.EmployeeApi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EmployeeService hot paths against a stub EmployeeApi. With snapshot=true the stub hands back the same
+ * EmployeeSnapshot every call, as the caching EmployeeApi does once warm, so indexes are reused. With snapshot=false
+ * it hands back a plain list, as an uncached EmployeeApi does, so every call pays for building what it needs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmployeeServiceBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Tiger", "Garrett", "Ashton", "Cedric", "Airi", "Brielle", "Herrod", "Rhona", "Colleen",
+                                                 "Sonya", "Jena", "Quinn", "Charde", "Haley", "Tatyana", "Michael", "Paul", "Gloria"};
+    private static final String[] LAST_NAMES = {"Nixon", "Winters", "Cox", "Kelly", "Satou", "Williamson", "Chandler", "Davidson", "Hurst",
+                                                "Frost", "Gaines", "Flynn", "Marshall", "Kennedy", "Fitzpatrick", "Silva", "Byrd", "Little"};
+
+    @Param({"1000", "100000", "1000000"})
+    private int employees;
+
+    @Param({"true", "false"})
+    private boolean snapshot;
+
+    private EmployeeService employeeService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<Employee> employeeList = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + i;
+            employeeList.add(new Employee(i, name, 20000 + random.nextInt(480000), 18 + random.nextInt(50), ""));
+        }
+        List<Employee> served = snapshot ? EmployeeSnapshot.of(employeeList) : Collections.unmodifiableList(employeeList);
+        employeeService = new EmployeeService(new StubEmployeeApi(served));
+    }
+
+    @Benchmark
+    public List<Employee> getByName() {
+        return employeeService.getByName("Nixon 12");
+    }
+
+    @Benchmark
+    public List<Employee> getByNameShort() {
+        return employeeService.getByName("Ni");
+    }
+
+    @Benchmark
+    public Optional<Integer> getHighestSalary() {
+        return employeeService.getHighestSalary();
+    }
+
+    @Benchmark
+    public List<String> getTopTenHighestEarnersByName() {
+        return employeeService.getTopTenHighestEarnersByName();
+    }
+
+    private static final class StubEmployeeApi implements EmployeeApi {
+        private final List<Employee> employees;
+
+        private StubEmployeeApi(List<Employee> employees) {
+            this.employees = employees;
+        }
+
+        @Override
+        public List<Employee> findAll() {
+            return employees;
+        }
+
+        @Override
+        public Optional<Employee> findById(String id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Employee> create(String name, String salary, String age) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<String> delete(String id) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.rqchallenge.employees.infrastructure.model;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson deserialization of /employees payloads, using the same ObjectMapper configuration Spring gives the
+ * RestTemplate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmployeeListResponseBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int employees;
+
+    private ObjectMapper objectMapper;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                                                  .build();
+        List<Employee> employeeList = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            employeeList.add(new Employee(i, "Tiger Nixon " + i, 320800 + i, 61, ""));
+        }
+        payload = objectMapper.writeValueAsBytes(Map.of("status", "success", "data", employeeList));
+    }
+
+    @Benchmark
+    public EmployeeListResponse deserialize() throws IOException {
+        return objectMapper.readValue(payload, EmployeeListResponse.class);
+    }
+}
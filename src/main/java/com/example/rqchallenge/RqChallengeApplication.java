@@ -1,10 +1,13 @@
 package com.example.rqchallenge;
 
+import com.example.rqchallenge.employees.infrastructure.support.RateLimitingInterceptor;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @SpringBootApplication
@@ -20,13 +23,18 @@ public class RqChallengeApplication {
     /**
      * Build a RestTemplate for accessing RestApiExample's API. User-Agent required to get around 429 Too many request errors
      *
-     * @param builder RestTemplateBuilder from spring
+     * @param builder                         RestTemplateBuilder from spring
+     * @param employeeRequestFactory          the pooled request factory from HttpClientConfiguration
+     * @param employeeRateLimitingInterceptor the rate limiting and retry interceptor from HttpClientConfiguration
      * @return A RestTemplate to call RestApiExample's APIs
      */
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public RestTemplate restTemplate(RestTemplateBuilder builder, ClientHttpRequestFactory employeeRequestFactory,
+                                     RateLimitingInterceptor employeeRateLimitingInterceptor) {
         return builder.rootUri(uri)
                 .defaultHeader("User-Agent", "RqChallenge/1.0")
+                      .requestFactory(() -> employeeRequestFactory)
+                      .additionalInterceptors(employeeRateLimitingInterceptor)
                       .build();
     }
 }
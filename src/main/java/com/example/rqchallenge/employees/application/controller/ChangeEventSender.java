@@ -0,0 +1,109 @@
+package com.example.rqchallenge.employees.application.controller;
+
+import com.example.rqchallenge.employees.domain.model.EmployeeDelta;
+import com.example.rqchallenge.employees.domain.service.EmployeeChangeListener;
+import com.example.rqchallenge.employees.domain.service.IEmployeeChangeFeed;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends the change feed to one event stream client. The feed's poll thread only queues each change, the blocking
+ * servlet writes happen on a virtual thread of the client's own, so a slow or stalled client holds up nobody but
+ * itself. A client that falls more than backlog changes behind is unsubscribed and its stream ended, it reconnects
+ * and starts again from the next change rather than the feed holding on to changes for it.
+ */
+@Slf4j
+final class ChangeEventSender implements EmployeeChangeListener {
+
+    private final IEmployeeChangeFeed employeeChangeFeed;
+    private final SseEmitter emitter;
+    private final BlockingQueue<Change> changes;
+    private final Thread sender;
+    private volatile boolean closed;
+    private volatile boolean dropped;
+
+    private ChangeEventSender(IEmployeeChangeFeed employeeChangeFeed, SseEmitter emitter, int backlog) {
+        this.employeeChangeFeed = employeeChangeFeed;
+        this.emitter = emitter;
+        this.changes = new ArrayBlockingQueue<>(backlog);
+        this.sender = Thread.ofVirtual()
+                            .name("employee-changes-sender")
+                            .unstarted(this::send);
+    }
+
+    /**
+     * Subscribes a sender for the emitter to the feed, until the emitter completes, times out or fails
+     *
+     * @param employeeChangeFeed the feed to subscribe to
+     * @param emitter            the client's event stream
+     * @param backlog            how many changes the client can fall behind before it is dropped
+     * @return the sender
+     */
+    static ChangeEventSender start(IEmployeeChangeFeed employeeChangeFeed, SseEmitter emitter, int backlog) {
+        ChangeEventSender changeEventSender = new ChangeEventSender(employeeChangeFeed, emitter, backlog);
+        emitter.onCompletion(changeEventSender::close);
+        emitter.onTimeout(changeEventSender::close);
+        emitter.onError(error -> changeEventSender.close());
+        changeEventSender.sender.start();
+        employeeChangeFeed.subscribe(changeEventSender);
+        return changeEventSender;
+    }
+
+    /**
+     * Queues the change for the sender, dropping the client if it is too far behind. Never blocks.
+     */
+    @Override
+    public void onChange(long sequence, EmployeeDelta delta) {
+        if (closed || changes.offer(new Change(sequence, delta))) {
+            return;
+        }
+        log.warn("Dropping change stream client more than {} changes behind at change {}", changes.size(), sequence);
+        dropped = true;
+        close();
+    }
+
+    /**
+     * Unsubscribes and stops the sender, which ends the stream itself if the client was dropped
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        employeeChangeFeed.unsubscribe(this);
+        if (Thread.currentThread() != sender) {
+            sender.interrupt();
+        }
+    }
+
+    private void send() {
+        try {
+            while (!closed) {
+                Change change = changes.take();
+                emitter.send(SseEmitter.event()
+                                       .id(Long.toString(change.sequence()))
+                                       .name("change")
+                                       .data(change.delta(), MediaType.APPLICATION_JSON));
+            }
+        } catch (InterruptedException e) {
+            // closed while waiting for a change
+        } catch (IOException | RuntimeException e) {
+            close();
+            emitter.completeWithError(e);
+            return;
+        }
+        if (dropped) {
+            emitter.complete();
+        }
+    }
+
+    private record Change(long sequence, EmployeeDelta delta) {
+    }
+}
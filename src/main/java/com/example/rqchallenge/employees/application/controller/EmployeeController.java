@@ -1,28 +1,79 @@
 package com.example.rqchallenge.employees.application.controller;
 
+import com.example.rqchallenge.employees.application.model.BulkWriteRequest;
+import com.example.rqchallenge.employees.application.model.EmployeePageResponse;
+import com.example.rqchallenge.employees.domain.index.SortKey;
 import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeLookup;
+import com.example.rqchallenge.employees.domain.model.EmployeePage;
+import com.example.rqchallenge.employees.domain.model.EmployeeWrite;
+import com.example.rqchallenge.employees.domain.service.IEmployeeBatchService;
+import com.example.rqchallenge.employees.domain.service.IEmployeeChangeFeed;
 import com.example.rqchallenge.employees.domain.service.IEmployeeService;
+import com.example.rqchallenge.employees.domain.service.IEmployeeWriteService;
+import com.example.rqchallenge.employees.infrastructure.support.LogSampling;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * The Employee controller using the interface specified. Some possible improvements could be the use of WebFlux
  * components to make it completely reactive. There is also a difference from the README.md file for the creation of
  * an employee `createEmployee() should return string of the status (i.e. success)` but the interface had it return
  * an Employee. I do think the interface is correct/better in this case though and have kept it as such.
+ * Clients that Accept application/x-ndjson or the JSON_STREAM_VALUE media type get the employee list and searches
+ * streamed, written as the service produces them instead of being buffered up as one response. Passing limit pages
+ * the listing and search instead, with optional offset, sort (salary, age or name), order (asc or desc) and fields to
+ * project each employee down to. Bulk creates and deletes go through the write queue, each is acknowledged with a
+ * tracking id that can be polled at /writes/{trackingId} or reported to a callback URL. Many employees can be
+ * looked up by id in one call to /batch, which reports a status for each id. /changes is a server sent event stream
+ * of the employees added, changed and removed, one change event per change published by the change feed. Each client
+ * is written to from its own thread and dropped once it is rq.changes.client-backlog changes behind.
  */
 @Component
 public class EmployeeController implements IEmployeeController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BULK_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 1000;
+    // event stream clients reconnect by themselves once it times out
+    private static final Duration CHANGES_TIMEOUT = Duration.ofMinutes(30);
+
     private final IEmployeeService employeeService;
+    private final IEmployeeBatchService employeeBatchService;
+    private final IEmployeeWriteService employeeWriteService;
+    private final IEmployeeChangeFeed employeeChangeFeed;
+    private final ObjectMapper objectMapper;
+    private final WriteCallbacks writeCallbacks;
+    private final int changesBacklog;
 
-    public EmployeeController(IEmployeeService employeeService) {
+    public EmployeeController(IEmployeeService employeeService, IEmployeeBatchService employeeBatchService,
+                              IEmployeeWriteService employeeWriteService, IEmployeeChangeFeed employeeChangeFeed,
+                              ObjectMapper objectMapper, @Value("${rq.writes.callback-hosts:}") List<String> callbackHosts,
+                              @Value("${rq.changes.client-backlog:64}") int changesBacklog) {
         this.employeeService = employeeService;
+        this.employeeBatchService = employeeBatchService;
+        this.employeeWriteService = employeeWriteService;
+        this.employeeChangeFeed = employeeChangeFeed;
+        this.objectMapper = objectMapper;
+        this.writeCallbacks = new WriteCallbacks(objectMapper, callbackHosts);
+        this.changesBacklog = changesBacklog;
     }
 
     /**
@@ -34,6 +85,32 @@ public class EmployeeController implements IEmployeeController {
         return ResponseEntity.ok(employeeService.getAll());
     }
 
+    /**
+     * Get a page of Employees
+     * @param limit The maximum number of Employees to return, capped at 1000
+     * @param offset The position of the first Employee to return
+     * @param sort The field to sort on, salary, age or name
+     * @param order asc or desc
+     * @param fields A comma separated list of the fields to return
+     * @param version The version of the previous page, to be told if the listing has changed since
+     * @return A ResponseEntity of the page of Employees or badRequest if the parameters are invalid
+     */
+    @Override
+    public ResponseEntity<EmployeePageResponse> getEmployeesPage(int limit, int offset, String sort, String order, String fields,
+                                                                 Long version) {
+        return page(null, limit, offset, sort, order, fields, version);
+    }
+
+    /**
+     * Stream All Employees
+     * @param accept The Accept header choosing NDJSON or a streamed JSON array
+     * @return A ResponseEntity streaming the Employees
+     */
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamAllEmployees(String accept) {
+        return stream(accept, employeeService::streamAll);
+    }
+
     /**
      * Get Employees by name search
      * @param searchString The search string to match against Employee names
@@ -44,6 +121,34 @@ public class EmployeeController implements IEmployeeController {
         return ResponseEntity.ok(employeeService.getByName(searchString));
     }
 
+    /**
+     * Get a page of Employees by name search
+     * @param searchString The search string to match against Employee names
+     * @param limit The maximum number of Employees to return, capped at 1000
+     * @param offset The position of the first Employee to return
+     * @param sort The field to sort on, salary, age or name
+     * @param order asc or desc
+     * @param fields A comma separated list of the fields to return
+     * @param version The version of the previous page, to be told if the listing has changed since
+     * @return A ResponseEntity of the page of Employees that match or badRequest if the parameters are invalid
+     */
+    @Override
+    public ResponseEntity<EmployeePageResponse> getEmployeesByNameSearchPage(String searchString, int limit, int offset, String sort,
+                                                                             String order, String fields, Long version) {
+        return page(searchString, limit, offset, sort, order, fields, version);
+    }
+
+    /**
+     * Stream Employees by name search
+     * @param searchString The search string to match against Employee names
+     * @param accept The Accept header choosing NDJSON or a streamed JSON array
+     * @return A ResponseEntity streaming the Employees that match
+     */
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamEmployeesByNameSearch(String searchString, String accept) {
+        return stream(accept, consumer -> employeeService.streamByName(searchString, consumer));
+    }
+
     /**
      * Get Employee by id
      * @param id the Employee id
@@ -54,6 +159,20 @@ public class EmployeeController implements IEmployeeController {
         return ResponseEntity.of(employeeService.getById(id));
     }
 
+    /**
+     * Get Employees by id
+     * @param ids The Employee ids, duplicates are only returned once
+     * @return A ResponseEntity of the lookup for each id, found or not, or badRequest if there are no ids or over 1000
+     */
+    @Override
+    public ResponseEntity<List<EmployeeLookup>> getEmployeesByIds(List<String> ids) {
+        if (null == ids || ids.isEmpty() || ids.size() > MAX_BATCH_SIZE || ids.contains(null)) {
+            return ResponseEntity.badRequest()
+                                 .build();
+        }
+        return ResponseEntity.ok(employeeBatchService.getByIds(ids));
+    }
+
     /**
      * Get the highest salary
      * @return The highest salary
@@ -95,4 +214,117 @@ public class EmployeeController implements IEmployeeController {
                               .map(resp -> ResponseEntity.status(HttpStatus.ACCEPTED).body(resp))
                               .orElse(ResponseEntity.badRequest().build());
     }
+
+    /**
+     * Queue many creates and deletes
+     * @param bulkWriteRequest The employees to create, the ids to delete and an optional callback URL
+     * @return A ResponseEntity of the queued (or rejected) writes, creates first, or badRequest if the request is
+     * empty, over 1000 writes or has an invalid callback URL
+     */
+    @Override
+    public ResponseEntity<List<EmployeeWrite>> bulkWrite(BulkWriteRequest bulkWriteRequest) {
+        List<Map<String, Object>> creates = (null == bulkWriteRequest.getCreate()) ? Collections.emptyList() : bulkWriteRequest.getCreate();
+        List<String> deletes = (null == bulkWriteRequest.getDelete()) ? Collections.emptyList() : bulkWriteRequest.getDelete();
+        int size = creates.size() + deletes.size();
+        if (size == 0 || size > MAX_BULK_SIZE || creates.contains(null) || deletes.contains(null)) {
+            return ResponseEntity.badRequest()
+                                 .build();
+        }
+        Consumer<EmployeeWrite> callback = null;
+        if (null != bulkWriteRequest.getCallbackUrl()) {
+            try {
+                callback = writeCallbacks.to(bulkWriteRequest.getCallbackUrl());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                                     .build();
+            }
+        }
+
+        List<EmployeeWrite> writes = new ArrayList<>(size);
+        for (Map<String, Object> employeeInput : creates) {
+            writes.add(employeeWriteService.submitCreate(employeeInput, callback));
+        }
+        for (String id : deletes) {
+            writes.add(employeeWriteService.submitDelete(id, callback));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                             .body(writes);
+    }
+
+    /**
+     * Get the status of a queued write
+     * @param trackingId The tracking id the write was acknowledged with
+     * @return A ResponseEntity of the write or notFound if it is unknown or no longer retained
+     */
+    @Override
+    public ResponseEntity<EmployeeWrite> getWrite(String trackingId) {
+        return ResponseEntity.of(employeeWriteService.get(trackingId));
+    }
+
+    /**
+     * Stream Employee changes
+     * @param accept The Accept header, which has to allow text/event-stream
+     * @return A ResponseEntity of a server sent event stream with a change event per change, its id the change's
+     * sequence number and its data the added, changed and removed Employees as JSON, or notAcceptable. Mapped for any
+     * Accept header so that /changes never falls through to the id lookup.
+     */
+    @Override
+    public ResponseEntity<SseEmitter> streamChanges(String accept) {
+        boolean eventStream = MediaType.parseMediaTypes(accept)
+                                       .stream()
+                                       .anyMatch(MediaType.TEXT_EVENT_STREAM::isCompatibleWith);
+        if (!eventStream) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE)
+                                 .build();
+        }
+        SseEmitter emitter = new SseEmitter(CHANGES_TIMEOUT.toMillis());
+        ChangeEventSender.start(employeeChangeFeed, emitter, changesBacklog);
+        return ResponseEntity.ok(emitter);
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String accept, Consumer<Consumer<Employee>> employees) {
+        // the body is written on an async thread, which has no sampling decision of its own
+        boolean sampled = LogSampling.isSampled();
+        Consumer<Consumer<Employee>> sampledEmployees = consumer -> LogSampling.run(sampled, () -> employees.accept(consumer));
+        boolean ndjson = MediaType.parseMediaTypes(accept)
+                                  .stream()
+                                  .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        if (ndjson) {
+            return ResponseEntity.ok()
+                                 .contentType(MediaType.APPLICATION_NDJSON)
+                                 .body(EmployeeStreams.ndjson(objectMapper, sampledEmployees));
+        }
+        return ResponseEntity.ok()
+                             .contentType(MediaType.parseMediaType(JSON_STREAM_VALUE))
+                             .body(EmployeeStreams.jsonArray(objectMapper, sampledEmployees));
+    }
+
+    private ResponseEntity<EmployeePageResponse> page(String searchString, int limit, int offset, String sort, String order, String fields,
+                                                      Long version) {
+        Optional<SortKey> sortKey = (null == sort) ? Optional.empty() : SortKey.from(sort);
+        boolean descending = "desc".equalsIgnoreCase(order);
+        if (limit < 0 || offset < 0 || (null != sort && sortKey.isEmpty()) || !(descending || "asc".equalsIgnoreCase(order))) {
+            return ResponseEntity.badRequest()
+                                 .build();
+        }
+        List<String> projection;
+        try {
+            projection = EmployeeFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                                 .build();
+        }
+
+        EmployeePage page = employeeService.getPage(searchString, sortKey.orElse(null), descending, offset, Math.min(limit, MAX_PAGE_SIZE));
+        List<Map<String, Object>> data = page.getEmployees()
+                                             .stream()
+                                             .filter(Objects::nonNull)
+                                             .map(employee -> EmployeeFields.project(employee, projection))
+                                             .collect(Collectors.toList());
+        int next = page.getOffset() + page.getEmployees()
+                                          .size();
+        return ResponseEntity.ok(new EmployeePageResponse(data, page.getOffset(), page.getLimit(), page.getTotal(), page.getVersion(),
+                                                          (next < page.getTotal() && next > page.getOffset()) ? next : null,
+                                                          (null == version) ? null : version != page.getVersion()));
+    }
 }
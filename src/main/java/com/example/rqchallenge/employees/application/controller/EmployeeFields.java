@@ -0,0 +1,68 @@
+package com.example.rqchallenge.employees.application.controller;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The employee fields a listing can be projected down to with fields=, named as they are in the JSON
+ */
+final class EmployeeFields {
+
+    private static final Map<String, Function<Employee, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("id", Employee::getId);
+        FIELDS.put("name", Employee::getName);
+        FIELDS.put("salary", Employee::getSalary);
+        FIELDS.put("age", Employee::getAge);
+        FIELDS.put("profile_image", Employee::getProfile_image);
+    }
+
+    private EmployeeFields() {
+    }
+
+    /**
+     * Parses a comma separated list of field names
+     *
+     * @param fields the field names or null/blank for all of them
+     * @return the field names in the order given
+     * @throws IllegalArgumentException if any of the names isn't an employee field
+     */
+    static List<String> parse(String fields) {
+        if (null == fields || fields.isBlank()) {
+            return new ArrayList<>(FIELDS.keySet());
+        }
+        List<String> parsed = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!FIELDS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown employee field " + name);
+            }
+            if (!parsed.contains(name)) {
+                parsed.add(name);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Projects an employee down to the given fields
+     *
+     * @param employee the employee
+     * @param fields   the (parsed) field names
+     * @return the field values keyed by name, in the order given
+     */
+    static Map<String, Object> project(Employee employee, List<String> fields) {
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String field : fields) {
+            projected.put(field, FIELDS.get(field)
+                                       .apply(employee));
+        }
+        return projected;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.rqchallenge.employees.application.controller;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Response bodies that write employees as the service produces them rather than serializing a finished list. The
+ * first employee is flushed straight away so the client sees bytes as soon as there is something to send, after that
+ * output goes out whenever the buffers fill.
+ */
+final class EmployeeStreams {
+
+    private EmployeeStreams() {
+    }
+
+    /**
+     * Writes the employees as a single JSON array
+     *
+     * @param objectMapper the ObjectMapper to write employees with
+     * @param employees    hands each employee to the consumer it is given
+     * @return the response body
+     */
+    static StreamingResponseBody jsonArray(ObjectMapper objectMapper, Consumer<Consumer<Employee>> employees) {
+        return outputStream -> {
+            JsonGenerator generator = generator(objectMapper, outputStream);
+            generator.writeStartArray();
+            write(employees, generator, false);
+            generator.writeEndArray();
+            generator.close();
+        };
+    }
+
+    /**
+     * Writes the employees as newline delimited JSON, one employee per line
+     *
+     * @param objectMapper the ObjectMapper to write employees with
+     * @param employees    hands each employee to the consumer it is given
+     * @return the response body
+     */
+    static StreamingResponseBody ndjson(ObjectMapper objectMapper, Consumer<Consumer<Employee>> employees) {
+        return outputStream -> {
+            JsonGenerator generator = generator(objectMapper, outputStream);
+            generator.setRootValueSeparator(null);
+            write(employees, generator, true);
+            generator.close();
+        };
+    }
+
+    private static JsonGenerator generator(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+        // the servlet container owns the stream, closing the generator should only flush it
+        return objectMapper.getFactory()
+                           .createGenerator(outputStream)
+                           .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private static void write(Consumer<Consumer<Employee>> employees, JsonGenerator generator, boolean newlines) throws IOException {
+        int[] written = {0};
+        try {
+            employees.accept(employee -> {
+                try {
+                    generator.writeObject(employee);
+                    if (newlines) {
+                        generator.writeRaw('\n');
+                    }
+                    if (written[0]++ == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -1,9 +1,17 @@
 package com.example.rqchallenge.employees.application.controller;
 
+import com.example.rqchallenge.employees.application.model.BulkWriteRequest;
+import com.example.rqchallenge.employees.application.model.EmployeePageResponse;
 import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeLookup;
+import com.example.rqchallenge.employees.domain.model.EmployeeWrite;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.List;
@@ -12,15 +20,47 @@ import java.util.Map;
 @RestController
 public interface IEmployeeController {
 
+    /**
+     * Media type for a JSON array that is written out as it is produced, with chunked transfer encoding
+     */
+    String JSON_STREAM_VALUE = "application/vnd.rq.stream+json";
+
     @GetMapping()
     ResponseEntity<List<Employee>> getAllEmployees() throws IOException;
 
+    @GetMapping(params = "limit")
+    ResponseEntity<EmployeePageResponse> getEmployeesPage(@RequestParam int limit,
+                                                          @RequestParam(defaultValue = "0") int offset,
+                                                          @RequestParam(required = false) String sort,
+                                                          @RequestParam(defaultValue = "asc") String order,
+                                                          @RequestParam(required = false) String fields,
+                                                          @RequestParam(required = false) Long version);
+
+    @GetMapping(produces = {JSON_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    ResponseEntity<StreamingResponseBody> streamAllEmployees(@RequestHeader(HttpHeaders.ACCEPT) String accept);
+
     @GetMapping("/search/{searchString}")
     ResponseEntity<List<Employee>> getEmployeesByNameSearch(@PathVariable String searchString);
 
+    @GetMapping(value = "/search/{searchString}", params = "limit")
+    ResponseEntity<EmployeePageResponse> getEmployeesByNameSearchPage(@PathVariable String searchString,
+                                                                      @RequestParam int limit,
+                                                                      @RequestParam(defaultValue = "0") int offset,
+                                                                      @RequestParam(required = false) String sort,
+                                                                      @RequestParam(defaultValue = "asc") String order,
+                                                                      @RequestParam(required = false) String fields,
+                                                                      @RequestParam(required = false) Long version);
+
+    @GetMapping(value = "/search/{searchString}", produces = {JSON_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    ResponseEntity<StreamingResponseBody> streamEmployeesByNameSearch(@PathVariable String searchString,
+                                                                      @RequestHeader(HttpHeaders.ACCEPT) String accept);
+
     @GetMapping("/{id}")
     ResponseEntity<Employee> getEmployeeById(@PathVariable String id);
 
+    @PostMapping("/batch")
+    ResponseEntity<List<EmployeeLookup>> getEmployeesByIds(@RequestBody List<String> ids);
+
     @GetMapping("/highestSalary")
     ResponseEntity<Integer> getHighestSalaryOfEmployees();
 
@@ -33,4 +73,14 @@ public interface IEmployeeController {
     @DeleteMapping("/{id}")
     ResponseEntity<String> deleteEmployeeById(@PathVariable String id);
 
+    @PostMapping("/bulk")
+    ResponseEntity<List<EmployeeWrite>> bulkWrite(@RequestBody BulkWriteRequest bulkWriteRequest);
+
+    @GetMapping("/writes/{trackingId}")
+    ResponseEntity<EmployeeWrite> getWrite(@PathVariable String trackingId);
+
+    @GetMapping("/changes")
+    ResponseEntity<SseEmitter> streamChanges(@RequestHeader(value = HttpHeaders.ACCEPT,
+                                                            defaultValue = MediaType.ALL_VALUE) String accept);
+
 }
@@ -0,0 +1,116 @@
+package com.example.rqchallenge.employees.application.controller;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.service.IReactiveEmployeeService;
+import com.example.rqchallenge.employees.infrastructure.support.LogSampling;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive variant of the Employee controller under /reactive, enabled by rq.client.reactive.enabled. The servlet
+ * thread is handed back as soon as the Mono/Flux is returned so requests waiting on the upstream don't hold a
+ * Tomcat worker. Each chain carries the request's log sampling decision in its Reactor context, it is written while
+ * still on the request thread.
+ */
+@Component
+@ConditionalOnProperty(name = "rq.client.reactive.enabled", havingValue = "true")
+public class ReactiveEmployeeController implements IReactiveEmployeeController {
+
+    private final IReactiveEmployeeService employeeService;
+
+    public ReactiveEmployeeController(IReactiveEmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    /**
+     * Get All Employees
+     * @return A Flux of Employees
+     */
+    @Override
+    public Flux<Employee> getAllEmployees() {
+        return employeeService.getAll()
+                              .contextWrite(LogSampling.context());
+    }
+
+    /**
+     * Get Employees by name search
+     * @param searchString The search string to match against Employee names
+     * @return A Flux of Employees that match
+     */
+    @Override
+    public Flux<Employee> getEmployeesByNameSearch(String searchString) {
+        return employeeService.getByName(searchString)
+                              .contextWrite(LogSampling.context());
+    }
+
+    /**
+     * Get Employee by id
+     * @param id the Employee id
+     * @return A Mono of the ResponseEntity of the Employee or notFound
+     */
+    @Override
+    public Mono<ResponseEntity<Employee>> getEmployeeById(String id) {
+        return employeeService.getById(id)
+                              .map(ResponseEntity::ok)
+                              .defaultIfEmpty(ResponseEntity.notFound().build())
+                              .contextWrite(LogSampling.context());
+    }
+
+    /**
+     * Get the highest salary
+     * @return A Mono of the ResponseEntity of the highest salary or notFound
+     */
+    @Override
+    public Mono<ResponseEntity<Integer>> getHighestSalaryOfEmployees() {
+        return employeeService.getHighestSalary()
+                              .map(ResponseEntity::ok)
+                              .defaultIfEmpty(ResponseEntity.notFound().build())
+                              .contextWrite(LogSampling.context());
+    }
+
+    /**
+     * Get the top ten highest earners
+     * @return A Mono of the ResponseEntity of a list of top ten highest earning Employee names
+     */
+    @Override
+    public Mono<ResponseEntity<List<String>>> getTopTenHighestEarningEmployeeNames() {
+        return employeeService.getTopTenHighestEarnersByName()
+                              .map(ResponseEntity::ok)
+                              .contextWrite(LogSampling.context());
+    }
+
+    /**
+     * Create an employee
+     * @param employeeInput A json string with name, salary, and age fields
+     * @return A Mono of the ResponseEntity of the employee that was created or badRequest if failed
+     */
+    @Override
+    public Mono<ResponseEntity<Employee>> createEmployee(Map<String, Object> employeeInput) {
+        return employeeService.create(employeeInput)
+                              .map(resp -> ResponseEntity.status(HttpStatus.CREATED).body(resp))
+                              .defaultIfEmpty(ResponseEntity.badRequest().build())
+                              .contextWrite(LogSampling.context());
+    }
+
+    /**
+     * Delete an Employee
+     * @param id The Employee's id
+     * @return A Mono of the ResponseEntity of the status or badRequest if failed
+     */
+    @Override
+    public Mono<ResponseEntity<String>> deleteEmployeeById(String id) {
+        return employeeService.delete(id)
+                              .map(resp -> ResponseEntity.status(HttpStatus.ACCEPTED).body(resp))
+                              .defaultIfEmpty(ResponseEntity.badRequest().build())
+                              .contextWrite(LogSampling.context());
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.rqchallenge.employees.application.controller;
+
+import com.example.rqchallenge.employees.domain.model.EmployeeWrite;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * POSTs finished writes to the callback URL given with them. Uses its own HTTP client rather than the upstream
+ * RestTemplate so callbacks don't spend the upstream's rate limit, and sends without waiting for the response so a
+ * slow callback never holds up a write worker. Callbacks aren't retried. Anyone can submit a write, so callbacks only
+ * go to the configured hosts and never to a loopback, link local, private or multicast address, checked when the
+ * callback is given and again before each POST in case the host has since resolved somewhere else. Redirects aren't
+ * followed. With no hosts configured callbacks are turned off.
+ */
+@Slf4j
+final class WriteCallbacks {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final ObjectMapper objectMapper;
+    private final Set<String> allowedHosts;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+                                                    .connectTimeout(TIMEOUT)
+                                                    .followRedirects(HttpClient.Redirect.NEVER)
+                                                    .build();
+
+    /**
+     * @param objectMapper the mapper writes are POSTed with
+     * @param allowedHosts the host names callbacks may be sent to, matched ignoring case
+     */
+    WriteCallbacks(ObjectMapper objectMapper, Collection<String> allowedHosts) {
+        this.objectMapper = objectMapper;
+        this.allowedHosts = allowedHosts.stream()
+                                        .map(String::trim)
+                                        .filter(host -> !host.isEmpty())
+                                        .map(host -> host.toLowerCase(Locale.ROOT))
+                                        .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Creates a callback posting to a URL
+     *
+     * @param callbackUrl the http or https URL to post to
+     * @return the callback
+     * @throws IllegalArgumentException if the URL isn't an absolute http or https URL to an allowed host with a
+     *                                  public address
+     */
+    Consumer<EmployeeWrite> to(String callbackUrl) {
+        URI uri = URI.create(callbackUrl);
+        if (!("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme())) || null == uri.getHost()) {
+            throw new IllegalArgumentException("Callback URL must be an absolute http or https URL");
+        }
+        if (!allowedHosts.contains(uri.getHost()
+                                      .toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Callback host " + uri.getHost() + " is not allowed");
+        }
+        checkAddresses(uri.getHost());
+        return write -> post(uri, write);
+    }
+
+    /**
+     * Checks every address a host resolves to is a public one
+     *
+     * @throws IllegalArgumentException if the host doesn't resolve or any of its addresses isn't public
+     */
+    private static void checkAddresses(String host) {
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Callback host " + host + " does not resolve", e);
+        }
+        for (InetAddress address : addresses) {
+            if (address.isLoopbackAddress() || address.isLinkLocalAddress() || address.isSiteLocalAddress() || address.isAnyLocalAddress()
+                    || address.isMulticastAddress() || isUniqueLocal(address)) {
+                throw new IllegalArgumentException("Callback host " + host + " resolves to non public address " + address.getHostAddress());
+            }
+        }
+    }
+
+    /**
+     * IPv6 unique local addresses (fc00::/7), the IPv6 private range, which isSiteLocalAddress doesn't cover
+     */
+    private static boolean isUniqueLocal(InetAddress address) {
+        return address instanceof Inet6Address && (address.getAddress()[0] & 0xfe) == 0xfc;
+    }
+
+    private void post(URI uri, EmployeeWrite write) {
+        try {
+            checkAddresses(uri.getHost());
+        } catch (IllegalArgumentException e) {
+            log.warn("Not sending callback for write {} to {}, {}", write.getTrackingId(), uri, e.getMessage());
+            return;
+        }
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(write);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not write callback for write {}", write.getTrackingId(), e);
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                                         .timeout(TIMEOUT)
+                                         .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                         .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                                         .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                  .whenComplete((response, error) -> {
+                      if (null != error) {
+                          log.warn("Callback for write {} to {} failed", write.getTrackingId(), uri, error);
+                      } else if (response.statusCode() >= 400) {
+                          log.warn("Callback for write {} to {} returned {}", write.getTrackingId(), uri, response.statusCode());
+                      }
+                  });
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.rqchallenge.employees.application.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * Many creates and deletes in one request. Each create is the same name, salary and age map as a single create.
+ * callbackUrl, if given, is POSTed each write's status once it finishes. Its host has to be one of
+ * rq.writes.callback-hosts.
+ */
+@Getter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BulkWriteRequest {
+    private List<Map<String, Object>> create;
+    private List<String> delete;
+    private String callbackUrl;
+}
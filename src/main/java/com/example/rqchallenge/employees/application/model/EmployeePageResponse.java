@@ -0,0 +1,27 @@
+package com.example.rqchallenge.employees.application.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A page of employees, projected down to the requested fields. nextOffset is left out on the last page. version is
+ * the snapshot the page was cut from, versionChanged is only set when the request passed a version back and says
+ * whether the listing has changed since, in which case the offsets may have shifted.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmployeePageResponse {
+    private List<Map<String, Object>> data;
+    private int offset;
+    private int limit;
+    private int total;
+    private long version;
+    private Integer nextOffset;
+    private Boolean versionChanged;
+}
@@ -0,0 +1,41 @@
+package com.example.rqchallenge.employees.application.support;
+
+import com.example.rqchallenge.employees.infrastructure.support.LogSampling;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Samples rq.logging.sample-rate of requests for hot path logging, see LogSampling. A rate of 1 (the default) logs
+ * every request as before.
+ */
+@Component
+public class LogSamplingFilter extends OncePerRequestFilter {
+
+    private final double sampleRate;
+
+    public LogSamplingFilter(@Value("${rq.logging.sample-rate:1.0}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        LogSampling.sample(sampleRate >= 1 || ThreadLocalRandom.current()
+                                                               .nextDouble() < sampleRate);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            LogSampling.clear();
+        }
+    }
+}
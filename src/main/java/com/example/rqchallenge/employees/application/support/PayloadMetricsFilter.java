@@ -0,0 +1,146 @@
+package com.example.rqchallenge.employees.application.support;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Records request and response body sizes as rq.http.server.request.size and rq.http.server.response.size, tagged
+ * like Spring's http.server.requests timer (method, uri pattern and status) so the two can be lined up. Response
+ * bytes are counted as they are written rather than buffered, and streamed (async) responses are recorded once they
+ * complete. Request sizes come from Content-Length, so chunked requests aren't recorded.
+ */
+@Component
+public class PayloadMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public PayloadMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CountingResponse countingResponse = new CountingResponse(response);
+        try {
+            chain.doFilter(request, countingResponse);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext()
+                       .addListener(new AsyncListener() {
+                           @Override
+                           public void onComplete(AsyncEvent event) {
+                               record(request, countingResponse);
+                           }
+
+                           @Override
+                           public void onTimeout(AsyncEvent event) {
+                           }
+
+                           @Override
+                           public void onError(AsyncEvent event) {
+                           }
+
+                           @Override
+                           public void onStartAsync(AsyncEvent event) {
+                           }
+                       });
+            } else {
+                record(request, countingResponse);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, CountingResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = (null != pattern) ? pattern.toString() : "UNKNOWN";
+        String status = String.valueOf(response.getStatus());
+        if (request.getContentLengthLong() >= 0) {
+            summary("rq.http.server.request.size", "Request body sizes", request, uri, status).record(request.getContentLengthLong());
+        }
+        summary("rq.http.server.response.size", "Response body sizes", request, uri, status).record(response.written());
+    }
+
+    private DistributionSummary summary(String name, String description, HttpServletRequest request, String uri, String status) {
+        return DistributionSummary.builder(name)
+                                  .description(description)
+                                  .baseUnit("bytes")
+                                  .tag("method", request.getMethod())
+                                  .tag("uri", uri)
+                                  .tag("status", status)
+                                  .register(meterRegistry);
+    }
+
+    /**
+     * Counts the bytes written through the output stream. Writes through getWriter aren't counted, Spring's message
+     * converters and the streaming responses all use the output stream.
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+        private volatile long written;
+        private ServletOutputStream outputStream;
+
+        private CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        long written() {
+            return written;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (null == outputStream) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        written++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        written += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.rqchallenge.employees.domain.index;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeColumns;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
+
+import java.util.List;
+
+/**
+ * Immutable hash index from employee id to position in the snapshot. An open addressing table of positions (plus
+ * one, so zero marks an empty slot) probed linearly, the ids themselves are read back out of the snapshot's id column
+ * so the table costs eight bytes per employee at most and never boxes. Kept at most half full. When ids repeat the
+ * first position wins, the same as a scan would find. Carried over to snapshots derived from this one by copying the
+ * table and patching the one entry, O(n) for the copy and, on a removal, the pass moving later positions down.
+ * Appending past half full or removing while ids repeat rebuilds the table instead.
+ */
+public final class IdIndex {
+
+    private final EmployeeColumns columns;
+    private final int[] slots;
+    private final int mask;
+    private final boolean repeatedIds;
+
+    private IdIndex(EmployeeColumns columns, int[] slots, boolean repeatedIds) {
+        this.columns = columns;
+        this.slots = slots;
+        this.mask = slots.length - 1;
+        this.repeatedIds = repeatedIds;
+    }
+
+    /**
+     * Builds the index for a list of employees
+     *
+     * @param employeeList the employees to index, taken as a snapshot
+     * @return the id index
+     */
+    public static IdIndex of(List<Employee> employeeList) {
+        EmployeeColumns columns = EmployeeSnapshot.of(employeeList)
+                                                  .columns();
+        int count = columns.size();
+        int capacity = Integer.highestOneBit(Math.max(2, count) * 2 - 1) << 1;
+        int[] slots = new int[capacity];
+        boolean repeatedIds = false;
+        for (int i = 0; i < count; i++) {
+            repeatedIds |= !insert(slots, columns, i);
+        }
+        return new IdIndex(columns, slots, repeatedIds);
+    }
+
+    /**
+     * Creates the index for a snapshot that is this index's snapshot with one employee, whose id it didn't hold,
+     * appended
+     *
+     * @param appended the new snapshot
+     * @return the new index
+     */
+    public IdIndex withAppended(EmployeeSnapshot appended) {
+        EmployeeColumns appendedColumns = appended.columns();
+        int position = appendedColumns.size() - 1;
+        if ((position + 1) * 2 > slots.length) {
+            return of(appended);
+        }
+        int[] appendedSlots = slots.clone();
+        insert(appendedSlots, appendedColumns, position);
+        return new IdIndex(appendedColumns, appendedSlots, repeatedIds);
+    }
+
+    /**
+     * Creates the index for a snapshot that is this index's snapshot with an employee replaced by one with the same
+     * id, which shares this index's table
+     *
+     * @param replaced the new snapshot
+     * @return the new index
+     */
+    public IdIndex withReplaced(EmployeeSnapshot replaced) {
+        return new IdIndex(replaced.columns(), slots, repeatedIds);
+    }
+
+    /**
+     * Creates the index for a snapshot that is this index's snapshot with the employee at a position removed. The
+     * entry is deleted by shifting the rest of its probe run back, so no tombstones build up, then the later
+     * positions are moved down one.
+     *
+     * @param removed  the new snapshot
+     * @param position the position of the removed employee
+     * @return the new index
+     */
+    public IdIndex withRemoved(EmployeeSnapshot removed, int position) {
+        if (repeatedIds) {
+            // another employee with the same id may have to take its place
+            return of(removed);
+        }
+        int slot = slot(columns.id(position), mask);
+        while (slots[slot] != position + 1) {
+            if (slots[slot] == 0) {
+                // not where it should be, rebuild rather than carry over a broken index
+                return of(removed);
+            }
+            slot = (slot + 1) & mask;
+        }
+        int[] removedSlots = slots.clone();
+        int hole = slot;
+        for (int next = (hole + 1) & mask; removedSlots[next] != 0; next = (next + 1) & mask) {
+            int home = slot(columns.id(removedSlots[next] - 1), mask);
+            // the entry can only move back if the hole isn't before its home slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                removedSlots[hole] = removedSlots[next];
+                hole = next;
+            }
+        }
+        removedSlots[hole] = 0;
+        for (int i = 0; i < removedSlots.length; i++) {
+            if (removedSlots[i] > position + 1) {
+                removedSlots[i]--;
+            }
+        }
+        return new IdIndex(removed.columns(), removedSlots, false);
+    }
+
+    /**
+     * Finds the position of an employee by their id
+     *
+     * @param id the employee id
+     * @return the position of the employee or -1 if there is no employee with the id
+     */
+    public int indexOf(long id) {
+        int slot = slot(id, mask);
+        int position;
+        while ((position = slots[slot]) != 0) {
+            if (columns.id(position - 1) == id) {
+                return position - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Puts a position in the table unless its id is already there
+     *
+     * @return false if the id was already there
+     */
+    private static boolean insert(int[] slots, EmployeeColumns columns, int position) {
+        int mask = slots.length - 1;
+        long id = columns.id(position);
+        int slot = slot(id, mask);
+        while (slots[slot] != 0) {
+            if (columns.id(slots[slot] - 1) == id) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = position + 1;
+        return true;
+    }
+
+    /**
+     * Spreads the id's bits over the table, ids are usually consecutive so they are multiplied through by the golden
+     * ratio rather than used as they are
+     */
+    private static int slot(long id, int mask) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.rqchallenge.employees.domain.index;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeColumns;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable trigram index over employee names for substring search. Every three byte window of every UTF-8 name maps
+ * to the (ascending) snapshot positions of the employees whose names contain it. A search intersects the posting
+ * lists of the search string's trigrams and then confirms each candidate against the name's bytes, so results are
+ * exactly the same as a case-sensitive contains scan, in list order. Only the matches are turned into employees.
+ * Search strings under three bytes can't use the index and fall back to a scan of the name column. Carried over to
+ * snapshots derived from this one by copying the trigram map and patching just the posting lists of the changed
+ * name's trigrams. A removal also moves the positions after it down one, which scans every posting list (O(n) in the
+ * names' total length) though only the lists with later positions are copied.
+ */
+public final class NameIndex {
+
+    private static final int GRAM = 3;
+
+    private final EmployeeSnapshot source;
+    private final Map<Integer, int[]> postings;
+    private final long buildNanos;
+
+    private NameIndex(EmployeeSnapshot source, Map<Integer, int[]> postings, long buildNanos) {
+        this.source = source;
+        this.postings = postings;
+        this.buildNanos = buildNanos;
+    }
+
+    /**
+     * Builds the index for a list of employees, skipping any without a name
+     *
+     * @param employeeList the employees to index, taken as a snapshot
+     * @return the name index
+     */
+    public static NameIndex of(List<Employee> employeeList) {
+        long start = System.nanoTime();
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(employeeList);
+        EmployeeColumns columns = snapshot.columns();
+
+        Map<Integer, PostingsBuilder> builders = new HashMap<>();
+        for (int position = 0; position < columns.size(); position++) {
+            int current = position;
+            columns.forEachNameTrigram(position, trigram -> builders.computeIfAbsent(trigram, key -> new PostingsBuilder())
+                                                                    .add(current));
+        }
+
+        Map<Integer, int[]> postings = new HashMap<>(Math.max(16, (int) (builders.size() / 0.75f) + 1));
+        builders.forEach((key, builder) -> postings.put(key, builder.build()));
+        return new NameIndex(snapshot, postings, System.nanoTime() - start);
+    }
+
+    /**
+     * Creates the index for a snapshot that is this index's snapshot with one employee appended
+     *
+     * @param appended the new snapshot
+     * @return the new index
+     */
+    public NameIndex withAppended(EmployeeSnapshot appended) {
+        long start = System.nanoTime();
+        int position = appended.size() - 1;
+        Map<Integer, int[]> appendedPostings = new HashMap<>(postings);
+        for (int trigram : trigrams(appended.columns(), position)) {
+            appendedPostings.put(trigram, withPosition(appendedPostings.get(trigram), position));
+        }
+        return new NameIndex(appended, appendedPostings, System.nanoTime() - start);
+    }
+
+    /**
+     * Creates the index for a snapshot that is this index's snapshot with the employee at a position replaced
+     *
+     * @param replaced the new snapshot
+     * @param position the position of the replaced employee
+     * @return the new index
+     */
+    public NameIndex withReplaced(EmployeeSnapshot replaced, int position) {
+        long start = System.nanoTime();
+        Map<Integer, int[]> replacedPostings = new HashMap<>(postings);
+        removePosition(replacedPostings, trigrams(source.columns(), position), position);
+        for (int trigram : trigrams(replaced.columns(), position)) {
+            replacedPostings.put(trigram, withPosition(replacedPostings.get(trigram), position));
+        }
+        return new NameIndex(replaced, replacedPostings, System.nanoTime() - start);
+    }
+
+    /**
+     * Creates the index for a snapshot that is this index's snapshot with the employee at a position removed
+     *
+     * @param removed  the new snapshot
+     * @param position the position of the removed employee
+     * @return the new index
+     */
+    public NameIndex withRemoved(EmployeeSnapshot removed, int position) {
+        long start = System.nanoTime();
+        Map<Integer, int[]> removedPostings = new HashMap<>(postings);
+        removePosition(removedPostings, trigrams(source.columns(), position), position);
+        removedPostings.replaceAll((trigram, list) -> shiftedDown(list, position));
+        return new NameIndex(removed, removedPostings, System.nanoTime() - start);
+    }
+
+    /**
+     * Finds all the employees whose name contains the search string
+     *
+     * @param searchString the (case-sensitive) string to search for
+     * @return the matching employees in list order
+     */
+    public List<Employee> search(String searchString) {
+        byte[] search = EmployeeColumns.utf8(searchString);
+        EmployeeColumns columns = source.columns();
+        if (search.length < GRAM) {
+            return scan(columns, search);
+        }
+
+        List<int[]> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= search.length; i++) {
+            int[] list = postings.get(EmployeeColumns.trigram(search, i));
+            if (null == list) {
+                return Collections.emptyList();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.length));
+
+        int[] candidates = lists.get(0);
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            if (lists.get(i) != candidates) {
+                candidates = intersect(candidates, count, lists.get(i));
+                count = candidates.length;
+            }
+        }
+
+        List<Employee> matches = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (columns.nameContains(candidates[i], search)) {
+                matches.add(source.get(candidates[i]));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return how long the index took to build in nanoseconds
+     */
+    public long buildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * @return the number of distinct trigrams in the index
+     */
+    public int trigrams() {
+        return postings.size();
+    }
+
+    /**
+     * Rough heap footprint of the index, the postings plus the map entries holding them. Doesn't include the names
+     * themselves as they are in the snapshot's columns.
+     *
+     * @return the estimated size of the index in bytes
+     */
+    public long estimatedBytes() {
+        long bytes = 16L;
+        for (int[] list : postings.values()) {
+            // map entry + boxed key + array header + postings
+            bytes += 32L + 16L + 16L + 4L * list.length;
+        }
+        // map table
+        return bytes + 4L * Integer.highestOneBit(Math.max(1, postings.size()) * 2);
+    }
+
+    private List<Employee> scan(EmployeeColumns columns, byte[] search) {
+        List<Employee> matches = new ArrayList<>();
+        for (int position = 0; position < columns.size(); position++) {
+            if (columns.nameContains(position, search)) {
+                matches.add(source.get(position));
+            }
+        }
+        return matches;
+    }
+
+    private static Set<Integer> trigrams(EmployeeColumns columns, int position) {
+        Set<Integer> trigrams = new HashSet<>();
+        columns.forEachNameTrigram(position, trigrams::add);
+        return trigrams;
+    }
+
+    private static void removePosition(Map<Integer, int[]> postings, Set<Integer> trigrams, int position) {
+        for (int trigram : trigrams) {
+            int[] list = postings.get(trigram);
+            int at = (null == list) ? -1 : Arrays.binarySearch(list, position);
+            if (at < 0) {
+                continue;
+            }
+            if (list.length == 1) {
+                postings.remove(trigram);
+            } else {
+                int[] without = new int[list.length - 1];
+                System.arraycopy(list, 0, without, 0, at);
+                System.arraycopy(list, at + 1, without, at, list.length - at - 1);
+                postings.put(trigram, without);
+            }
+        }
+    }
+
+    /**
+     * Copies a posting list with a position added in order, or creates one for it
+     */
+    private static int[] withPosition(int[] list, int position) {
+        if (null == list) {
+            return new int[]{position};
+        }
+        int at = Arrays.binarySearch(list, position);
+        if (at >= 0) {
+            return list;
+        }
+        at = -at - 1;
+        int[] with = new int[list.length + 1];
+        System.arraycopy(list, 0, with, 0, at);
+        with[at] = position;
+        System.arraycopy(list, at, with, at + 1, list.length - at);
+        return with;
+    }
+
+    /**
+     * Moves the positions after a removed one down one, sharing the list when there are none
+     */
+    private static int[] shiftedDown(int[] list, int removed) {
+        int low = 0;
+        int high = list.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (list[mid] <= removed) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low == list.length) {
+            return list;
+        }
+        int[] shifted = list.clone();
+        for (int i = low; i < shifted.length; i++) {
+            shifted[i]--;
+        }
+        return shifted;
+    }
+
+    private static int[] intersect(int[] left, int leftCount, int[] right) {
+        int[] result = new int[Math.min(leftCount, right.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < leftCount && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Growable posting list, positions are added in ascending order so a repeat of the last one is the only duplicate
+     */
+    private static final class PostingsBuilder {
+        private int[] positions = new int[4];
+        private int size;
+
+        void add(int position) {
+            if (size > 0 && positions[size - 1] == position) {
+                return;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        int[] build() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.rqchallenge.employees.domain.index;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeColumns;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * Immutable index of employees ordered by salary, highest first. Salaries are kept in a primitive int array alongside
+ * the employees' positions in the snapshot so lookups never box and no employees are held, they are only created
+ * for the results. The highest salary and the top n earners are a prefix of the arrays and salary ranges are two
+ * binary searches. Employees on the same salary keep the order they had in the employee list.
+ */
+public final class SalaryIndex {
+
+    private final EmployeeSnapshot source;
+    private final int[] salaries;
+    private final int[] positions;
+
+    private SalaryIndex(EmployeeSnapshot source, int[] salaries, int[] positions) {
+        this.source = source;
+        this.salaries = salaries;
+        this.positions = positions;
+    }
+
+    /**
+     * Builds the index for a list of employees. Sorts packed salary/position keys rather than the employees
+     * themselves so there is no comparator or boxing involved.
+     *
+     * @param employeeList the employees to index, taken as a snapshot
+     * @return the salary index
+     */
+    public static SalaryIndex of(List<Employee> employeeList) {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(employeeList);
+        EmployeeColumns columns = snapshot.columns();
+        int count = columns.size();
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ((long) columns.salary(i) << 32) | (0xFFFFFFFFL - i);
+        }
+        Arrays.sort(keys);
+
+        int[] salaries = new int[count];
+        int[] positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            long key = keys[count - 1 - i];
+            salaries[i] = (int) (key >> 32);
+            positions[i] = (int) (0xFFFFFFFFL - (key & 0xFFFFFFFFL));
+        }
+        return new SalaryIndex(snapshot, salaries, positions);
+    }
+
+    /**
+     * @return the highest salary or empty if there are no employees
+     */
+    public OptionalInt highest() {
+        return salaries.length == 0 ? OptionalInt.empty() : OptionalInt.of(salaries[0]);
+    }
+
+    /**
+     * Gets the highest earning employees
+     *
+     * @param n the maximum number of employees to return
+     * @return up to n employees, highest salary first
+     */
+    public List<Employee> top(int n) {
+        return employees(0, Math.max(0, Math.min(n, positions.length)));
+    }
+
+    /**
+     * Gets the employees earning between two salaries
+     *
+     * @param min the lowest salary to include
+     * @param max the highest salary to include
+     * @return the employees in the range, highest salary first
+     */
+    public List<Employee> range(int min, int max) {
+        if (min > max) {
+            return List.of();
+        }
+        return employees(firstAtOrBelow(max), firstAtOrBelow(min - 1L));
+    }
+
+    /**
+     * Creates the index for a snapshot that is this index's snapshot with one employee appended
+     *
+     * @param appended the new snapshot
+     * @return the new index
+     */
+    public SalaryIndex withAppended(EmployeeSnapshot appended) {
+        int position = appended.size() - 1;
+        return with(appended, salaries, positions, appended.columns()
+                                                           .salary(position), position);
+    }
+
+    /**
+     * Creates the index for a snapshot that is this index's snapshot with the employee at a position replaced
+     *
+     * @param replaced  the new snapshot
+     * @param position  the position of the replaced employee
+     * @param oldSalary the salary of the employee that was replaced
+     * @return the new index
+     */
+    public SalaryIndex withReplaced(EmployeeSnapshot replaced, int position, int oldSalary) {
+        SalaryIndex without = without(replaced, oldSalary, position, false);
+        if (without.size() == salaries.length) {
+            return without;
+        }
+        return with(replaced, without.salaries, without.positions, replaced.columns()
+                                                                          .salary(position), position);
+    }
+
+    /**
+     * Creates the index for a snapshot that is this index's snapshot with the employee at a position removed
+     *
+     * @param removed  the new snapshot
+     * @param position the position of the removed employee
+     * @param salary   the salary of the employee that was removed
+     * @return the new index
+     */
+    public SalaryIndex withRemoved(EmployeeSnapshot removed, int position, int salary) {
+        return without(removed, salary, position, true);
+    }
+
+    /**
+     * @return the number of employees in the index
+     */
+    public int size() {
+        return salaries.length;
+    }
+
+    private List<Employee> employees(int from, int to) {
+        List<Employee> employees = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            employees.add(source.get(positions[i]));
+        }
+        return employees;
+    }
+
+    /**
+     * Copies the arrays with an entry inserted after any on the same salary at earlier positions
+     */
+    private static SalaryIndex with(EmployeeSnapshot source, int[] salaries, int[] positions, int salary, int position) {
+        int at = locate(salaries, positions, salary, position);
+        int[] addedSalaries = new int[salaries.length + 1];
+        int[] addedPositions = new int[positions.length + 1];
+        System.arraycopy(salaries, 0, addedSalaries, 0, at);
+        System.arraycopy(positions, 0, addedPositions, 0, at);
+        addedSalaries[at] = salary;
+        addedPositions[at] = position;
+        System.arraycopy(salaries, at, addedSalaries, at + 1, salaries.length - at);
+        System.arraycopy(positions, at, addedPositions, at + 1, positions.length - at);
+        return new SalaryIndex(source, addedSalaries, addedPositions);
+    }
+
+    /**
+     * Copies the arrays without the entry for a salary and position, moving the later positions down one if the
+     * employee was removed from the list rather than replaced
+     */
+    private SalaryIndex without(EmployeeSnapshot source, int salary, int position, boolean shift) {
+        int at = locate(salaries, positions, salary, position);
+        if (at == salaries.length || salaries[at] != salary || positions[at] != position) {
+            // not where it should be, rebuild rather than carry over a broken index
+            return of(source);
+        }
+        int[] removedSalaries = new int[salaries.length - 1];
+        int[] removedPositions = new int[positions.length - 1];
+        System.arraycopy(salaries, 0, removedSalaries, 0, at);
+        System.arraycopy(positions, 0, removedPositions, 0, at);
+        System.arraycopy(salaries, at + 1, removedSalaries, at, salaries.length - at - 1);
+        System.arraycopy(positions, at + 1, removedPositions, at, positions.length - at - 1);
+        if (shift) {
+            for (int i = 0; i < removedPositions.length; i++) {
+                if (removedPositions[i] > position) {
+                    removedPositions[i]--;
+                }
+            }
+        }
+        return new SalaryIndex(source, removedSalaries, removedPositions);
+    }
+
+    /**
+     * Binary search for where a salary and position go, positions ascend within a salary
+     */
+    private static int locate(int[] salaries, int[] positions, int salary, int position) {
+        int low = firstAtOrBelow(salaries, salary);
+        int high = firstAtOrBelow(salaries, salary - 1L);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (positions[mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int firstAtOrBelow(long salary) {
+        return firstAtOrBelow(salaries, salary);
+    }
+
+    /**
+     * Binary search for the first position with a salary at or below the given salary
+     */
+    private static int firstAtOrBelow(int[] salaries, long salary) {
+        int low = 0;
+        int high = salaries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (salaries[mid] > salary) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
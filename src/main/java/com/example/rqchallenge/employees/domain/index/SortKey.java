@@ -0,0 +1,48 @@
+package com.example.rqchallenge.employees.domain.index;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.ToIntFunction;
+
+/**
+ * The fields employees can be sorted on. Salary and age are ints so they can be sorted as packed primitive keys,
+ * names need a comparator.
+ */
+public enum SortKey {
+    SALARY(Employee::getSalary),
+    AGE(Employee::getAge),
+    NAME(null);
+
+    private final ToIntFunction<Employee> intValue;
+
+    SortKey(ToIntFunction<Employee> intValue) {
+        this.intValue = intValue;
+    }
+
+    /**
+     * Finds the sort key with the given name, ignoring case
+     *
+     * @param value the name of the sort key i.e. salary
+     * @return the sort key or empty if there isn't one with that name
+     */
+    public static Optional<SortKey> from(String value) {
+        for (SortKey sortKey : values()) {
+            if (sortKey.name()
+                       .equals(value.toUpperCase(Locale.ROOT))) {
+                return Optional.of(sortKey);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return the comparator for this key, employees without a name sort after those with one
+     */
+    public Comparator<Employee> comparator() {
+        return (null != intValue) ? Comparator.comparingInt(intValue) : Comparator.comparing(Employee::getName,
+                                                                                             Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.rqchallenge.employees.domain.index;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeColumns;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable ordering of the employees on one key in one direction, so pages of a sorted listing are an array slice
+ * rather than a sort per request. Holds the employees' positions in the snapshot, employees are only created for the
+ * page asked for. Int keys are sorted as packed value/position longs like SalaryIndex, names with a stable sort.
+ * Either way employees with equal keys keep the order they had in the employee list, in both directions, so paging
+ * through is stable. Carried over to snapshots derived from this one by binary searching for the changed employee
+ * and copying the positions around it rather than sorting again, O(n) for the copy.
+ */
+public final class SortedIndex {
+
+    private static final Comparator<String> NAME_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final EmployeeSnapshot source;
+    private final SortKey sortKey;
+    private final boolean descending;
+    private final int[] positions;
+
+    private SortedIndex(EmployeeSnapshot source, SortKey sortKey, boolean descending, int[] positions) {
+        this.source = source;
+        this.sortKey = sortKey;
+        this.descending = descending;
+        this.positions = positions;
+    }
+
+    /**
+     * Builds the index for a list of employees
+     *
+     * @param employeeList the employees to index, taken as a snapshot
+     * @param sortKey      the key to sort on
+     * @param descending   whether the highest key comes first
+     * @return the sorted index
+     */
+    public static SortedIndex of(List<Employee> employeeList, SortKey sortKey, boolean descending) {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(employeeList);
+        EmployeeColumns columns = snapshot.columns();
+        int count = columns.size();
+        if (sortKey == SortKey.NAME) {
+            String[] names = new String[count];
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                names[i] = columns.name(i);
+                order[i] = i;
+            }
+            Comparator<Integer> comparator = Comparator.comparing(position -> names[position], descending ? NAME_ORDER.reversed() : NAME_ORDER);
+            Arrays.sort(order, comparator);
+            return new SortedIndex(snapshot, sortKey, descending, Arrays.stream(order)
+                                                                         .mapToInt(Integer::intValue)
+                                                                         .toArray());
+        }
+
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            int value = (sortKey == SortKey.SALARY) ? columns.salary(i) : columns.age(i);
+            // ~value reverses the order without overflowing on Integer.MIN_VALUE
+            keys[i] = ((long) (descending ? ~value : value) << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] positions = new int[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = (int) (keys[i] & 0xFFFFFFFFL);
+        }
+        return new SortedIndex(snapshot, sortKey, descending, positions);
+    }
+
+    /**
+     * Creates the index for a snapshot that is this index's snapshot with one employee appended
+     *
+     * @param appended the new snapshot
+     * @return the new index
+     */
+    public SortedIndex withAppended(EmployeeSnapshot appended) {
+        int position = appended.size() - 1;
+        return inserted(appended, positions, locate(appended.columns(), positions, position), position);
+    }
+
+    /**
+     * Creates the index for a snapshot that is this index's snapshot with the employee at a position replaced
+     *
+     * @param replaced the new snapshot
+     * @param position the position of the replaced employee
+     * @return the new index
+     */
+    public SortedIndex withReplaced(EmployeeSnapshot replaced, int position) {
+        int at = locate(source.columns(), positions, position);
+        if (at == positions.length || positions[at] != position) {
+            return of(replaced, sortKey, descending);
+        }
+        int[] without = removed(positions, at);
+        return inserted(replaced, without, locate(replaced.columns(), without, position), position);
+    }
+
+    /**
+     * Creates the index for a snapshot that is this index's snapshot with the employee at a position removed
+     *
+     * @param removed  the new snapshot
+     * @param position the position of the removed employee
+     * @return the new index
+     */
+    public SortedIndex withRemoved(EmployeeSnapshot removed, int position) {
+        int at = locate(source.columns(), positions, position);
+        if (at == positions.length || positions[at] != position) {
+            // not where it should be, rebuild rather than carry over a broken index
+            return of(removed, sortKey, descending);
+        }
+        int[] without = removed(positions, at);
+        for (int i = 0; i < without.length; i++) {
+            if (without[i] > position) {
+                without[i]--;
+            }
+        }
+        return new SortedIndex(removed, sortKey, descending, without);
+    }
+
+    /**
+     * Sorts a (small) list of employees without building an index, i.e. search results
+     *
+     * @param employeeList the employees to sort
+     * @param sortKey      the key to sort on
+     * @param descending   whether the highest key comes first
+     * @return a new sorted list
+     */
+    public static List<Employee> sort(List<Employee> employeeList, SortKey sortKey, boolean descending) {
+        List<Employee> sorted = new ArrayList<>(employeeList);
+        sorted.sort(descending ? sortKey.comparator()
+                                        .reversed() : sortKey.comparator());
+        return sorted;
+    }
+
+    /**
+     * Gets a page of the sorted employees
+     *
+     * @param offset the position of the first employee to return
+     * @param limit  the maximum number of employees to return
+     * @return up to limit employees starting from offset
+     */
+    public List<Employee> page(int offset, int limit) {
+        int from = Math.min(Math.max(0, offset), positions.length);
+        int to = (int) Math.min((long) from + Math.max(0, limit), positions.length);
+        List<Employee> page = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            page.add(source.get(positions[i]));
+        }
+        return page;
+    }
+
+    /**
+     * @return the number of employees in the index
+     */
+    public int size() {
+        return positions.length;
+    }
+
+    private SortedIndex inserted(EmployeeSnapshot snapshot, int[] from, int at, int position) {
+        int[] inserted = new int[from.length + 1];
+        System.arraycopy(from, 0, inserted, 0, at);
+        inserted[at] = position;
+        System.arraycopy(from, at, inserted, at + 1, from.length - at);
+        return new SortedIndex(snapshot, sortKey, descending, inserted);
+    }
+
+    private static int[] removed(int[] from, int at) {
+        int[] removed = new int[from.length - 1];
+        System.arraycopy(from, 0, removed, 0, at);
+        System.arraycopy(from, at + 1, removed, at, from.length - at - 1);
+        return removed;
+    }
+
+    /**
+     * Binary search for where a position goes among sorted positions, the first that doesn't sort before it
+     */
+    private int locate(EmployeeColumns columns, int[] sorted, int position) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(columns, sorted[mid], position) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Orders two positions the same way the index was built, on the key in the index's direction then by position
+     */
+    private int compare(EmployeeColumns columns, int left, int right) {
+        int byKey;
+        if (sortKey == SortKey.NAME) {
+            byKey = NAME_ORDER.compare(columns.name(left), columns.name(right));
+            byKey = descending ? -byKey : byKey;
+        } else if (sortKey == SortKey.SALARY) {
+            byKey = Integer.compare(key(columns.salary(left)), key(columns.salary(right)));
+        } else {
+            byKey = Integer.compare(key(columns.age(left)), key(columns.age(right)));
+        }
+        return (byKey != 0) ? byKey : Integer.compare(left, right);
+    }
+
+    private int key(int value) {
+        return descending ? ~value : value;
+    }
+}
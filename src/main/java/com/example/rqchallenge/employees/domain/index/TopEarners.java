@@ -0,0 +1,60 @@
+package com.example.rqchallenge.employees.domain.index;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the n highest earners out of a stream of employees without holding on to the rest, so memory is bounded by n
+ * however many employees go past. Employees on the same salary keep the order they were seen in, the same as
+ * SalaryIndex, so both give the same answer for the same list.
+ */
+public final class TopEarners implements Consumer<Employee> {
+
+    private final long[] keys;
+    private final Employee[] employees;
+    private int count;
+    private long seen;
+
+    /**
+     * @param n the number of highest earners to keep
+     */
+    public TopEarners(int n) {
+        this.keys = new long[Math.max(0, n)];
+        this.employees = new Employee[Math.max(0, n)];
+    }
+
+    /**
+     * Offers an employee, keeping them if they are one of the top n so far
+     *
+     * @param employee the employee, nulls are skipped
+     */
+    @Override
+    public void accept(Employee employee) {
+        if (null == employee) {
+            return;
+        }
+        long key = ((long) employee.getSalary() << 32) | (0xFFFFFFFFL - (seen++ & 0xFFFFFFFFL));
+        if (count == keys.length && (count == 0 || key <= keys[count - 1])) {
+            return;
+        }
+        int position = (count == keys.length) ? count - 1 : count++;
+        while (position > 0 && keys[position - 1] < key) {
+            keys[position] = keys[position - 1];
+            employees[position] = employees[position - 1];
+            position--;
+        }
+        keys[position] = key;
+        employees[position] = employee;
+    }
+
+    /**
+     * @return the highest earners seen so far, highest salary first
+     */
+    public List<Employee> top() {
+        return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(employees, count)));
+    }
+}
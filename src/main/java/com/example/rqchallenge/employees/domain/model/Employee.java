@@ -1,10 +1,12 @@
 package com.example.rqchallenge.employees.domain.model;
 
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 @Getter
 @AllArgsConstructor
+@EqualsAndHashCode
 public class Employee {
     private long id;
     private String name;
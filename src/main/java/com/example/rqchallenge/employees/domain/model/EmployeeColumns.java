@@ -0,0 +1,240 @@
+package com.example.rqchallenge.employees.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable column store for employees. Each field lives in its own primitive array (names and profile images packed
+ * into UTF-8 arenas) so a million employees are a handful of arrays rather than millions of objects, and a scan over
+ * one field only touches that field's memory. Employee objects are only created when one is asked for. Changes copy
+ * the columns into a new store.
+ */
+public final class EmployeeColumns {
+
+    static final EmployeeColumns EMPTY = new EmployeeColumns(new long[0], new int[0], new int[0], Utf8Arena.EMPTY, Utf8Arena.EMPTY);
+
+    private final long[] ids;
+    private final int[] salaries;
+    private final int[] ages;
+    private final Utf8Arena names;
+    private final Utf8Arena profileImages;
+
+    EmployeeColumns(long[] ids, int[] salaries, int[] ages, Utf8Arena names, Utf8Arena profileImages) {
+        this.ids = ids;
+        this.salaries = salaries;
+        this.ages = ages;
+        this.names = names;
+        this.profileImages = profileImages;
+    }
+
+    /**
+     * @return the number of employees
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    public long id(int i) {
+        return ids[i];
+    }
+
+    public int salary(int i) {
+        return salaries[i];
+    }
+
+    public int age(int i) {
+        return ages[i];
+    }
+
+    public String name(int i) {
+        return names.get(i);
+    }
+
+    public boolean hasName(int i) {
+        return !names.isNull(i);
+    }
+
+    public String profileImage(int i) {
+        return profileImages.get(i);
+    }
+
+    /**
+     * Creates the employee at a position
+     *
+     * @param i the position
+     * @return a new Employee with the values at that position
+     */
+    public Employee employee(int i) {
+        return new Employee(ids[i], names.get(i), salaries[i], ages[i], profileImages.get(i));
+    }
+
+    /**
+     * Hashes everything but the id of the employee at a position, so the same id with the same fingerprint in two
+     * snapshots is (short of a one in 2^64 collision) the same employee
+     *
+     * @param i the position
+     * @return the 64 bit fingerprint
+     */
+    public long fingerprint(int i) {
+        long hash = Utf8Arena.hashInt(salaries[i], Utf8Arena.FNV_OFFSET);
+        hash = Utf8Arena.hashInt(ages[i], hash);
+        hash = names.hash(i, hash);
+        return profileImages.hash(i, hash);
+    }
+
+    /**
+     * Whether the name at a position contains a search string, compared on the encoded bytes
+     *
+     * @param i      the position
+     * @param search the search string as UTF-8
+     * @return true if the name contains the search string, false if it doesn't or there is no name
+     */
+    public boolean nameContains(int i, byte[] search) {
+        return names.contains(i, search);
+    }
+
+    /**
+     * Hands every three byte window of the UTF-8 name at a position to the consumer, packed into an int
+     *
+     * @param i        the position
+     * @param consumer the consumer for the trigrams
+     */
+    public void forEachNameTrigram(int i, IntConsumer consumer) {
+        if (names.isNull(i)) {
+            return;
+        }
+        for (int position = names.start(i); position + 3 <= names.end(i); position++) {
+            consumer.accept(trigram(names.byteAt(position), names.byteAt(position + 1), names.byteAt(position + 2)));
+        }
+    }
+
+    /**
+     * Packs three UTF-8 bytes into an int the same way forEachNameTrigram does
+     *
+     * @param utf8   the encoded string
+     * @param offset the position of the first byte
+     * @return the trigram
+     */
+    public static int trigram(byte[] utf8, int offset) {
+        return trigram(utf8[offset], utf8[offset + 1], utf8[offset + 2]);
+    }
+
+    /**
+     * Encodes a search string the way names are stored
+     *
+     * @param value the string
+     * @return the UTF-8 bytes
+     */
+    public static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the approximate heap used by the columns in bytes
+     */
+    public long estimatedBytes() {
+        return 64L + 16L * 3 + 8L * ids.length + 4L * salaries.length + 4L * ages.length + names.estimatedBytes()
+                + profileImages.estimatedBytes();
+    }
+
+    long[] ids() {
+        return ids;
+    }
+
+    int[] salaries() {
+        return salaries;
+    }
+
+    int[] ages() {
+        return ages;
+    }
+
+    Utf8Arena names() {
+        return names;
+    }
+
+    Utf8Arena profileImages() {
+        return profileImages;
+    }
+
+    EmployeeColumns withAppended(Employee employee) {
+        int size = ids.length;
+        long[] appendedIds = Arrays.copyOf(ids, size + 1);
+        int[] appendedSalaries = Arrays.copyOf(salaries, size + 1);
+        int[] appendedAges = Arrays.copyOf(ages, size + 1);
+        appendedIds[size] = employee.getId();
+        appendedSalaries[size] = employee.getSalary();
+        appendedAges[size] = employee.getAge();
+        return new EmployeeColumns(appendedIds, appendedSalaries, appendedAges, names.withAppended(employee.getName()),
+                                   profileImages.withAppended(employee.getProfile_image()));
+    }
+
+    EmployeeColumns withReplaced(int i, Employee employee) {
+        long[] replacedIds = ids.clone();
+        int[] replacedSalaries = salaries.clone();
+        int[] replacedAges = ages.clone();
+        replacedIds[i] = employee.getId();
+        replacedSalaries[i] = employee.getSalary();
+        replacedAges[i] = employee.getAge();
+        return new EmployeeColumns(replacedIds, replacedSalaries, replacedAges, names.withReplaced(i, employee.getName()),
+                                   profileImages.withReplaced(i, employee.getProfile_image()));
+    }
+
+    EmployeeColumns withRemoved(int i) {
+        return new EmployeeColumns(removed(ids, i), removed(salaries, i), removed(ages, i), names.withRemoved(i), profileImages.withRemoved(i));
+    }
+
+    private static long[] removed(long[] column, int i) {
+        long[] removed = new long[column.length - 1];
+        System.arraycopy(column, 0, removed, 0, i);
+        System.arraycopy(column, i + 1, removed, i, column.length - i - 1);
+        return removed;
+    }
+
+    private static int[] removed(int[] column, int i) {
+        int[] removed = new int[column.length - 1];
+        System.arraycopy(column, 0, removed, 0, i);
+        System.arraycopy(column, i + 1, removed, i, column.length - i - 1);
+        return removed;
+    }
+
+    private static int trigram(byte first, byte second, byte third) {
+        return ((first & 0xFF) << 16) | ((second & 0xFF) << 8) | (third & 0xFF);
+    }
+
+    /**
+     * Appends employees to growing columns, then trims them to size
+     */
+    static final class Builder {
+        private long[] ids = new long[64];
+        private int[] salaries = new int[64];
+        private int[] ages = new int[64];
+        private final Utf8Arena.Builder names = new Utf8Arena.Builder();
+        private final Utf8Arena.Builder profileImages = new Utf8Arena.Builder();
+        private int size;
+
+        void add(Employee employee) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                salaries = Arrays.copyOf(salaries, size * 2);
+                ages = Arrays.copyOf(ages, size * 2);
+            }
+            ids[size] = employee.getId();
+            salaries[size] = employee.getSalary();
+            ages[size] = employee.getAge();
+            names.add(employee.getName());
+            profileImages.add(employee.getProfile_image());
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        EmployeeColumns build() {
+            return new EmployeeColumns(Arrays.copyOf(ids, size), Arrays.copyOf(salaries, size), Arrays.copyOf(ages, size), names.build(),
+                                       profileImages.build());
+        }
+    }
+}
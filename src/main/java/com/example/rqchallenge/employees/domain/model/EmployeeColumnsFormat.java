@@ -0,0 +1,180 @@
+package com.example.rqchallenge.employees.domain.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+
+/**
+ * Binary layout for EmployeeColumns, each column written as one contiguous little endian block so it can be bulk
+ * copied straight from a (mapped) buffer into its array without parsing anything.
+ * <pre>
+ * header   magic "RQES", version, written at (epoch millis), count, name bytes, profile image bytes, reserved
+ * columns  ids, salaries, ages, name offsets, profile image offsets, name nulls, profile image nulls, names,
+ *          profile images
+ * trailer  CRC32 of everything before it
+ * </pre>
+ * The version is bumped whenever the layout changes, files with any other version are rejected rather than misread.
+ */
+public final class EmployeeColumnsFormat {
+
+    public static final int MAGIC = 0x53455152;
+    public static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 32;
+    private static final int TRAILER_BYTES = 8;
+
+    private EmployeeColumnsFormat() {
+    }
+
+    /**
+     * @param columns the columns to write
+     * @return the number of bytes write will take
+     */
+    public static long size(EmployeeColumns columns) {
+        int nameBytes = columns.names()
+                               .bytes().length;
+        int profileImageBytes = columns.profileImages()
+                                       .bytes().length;
+        return size(columns.size(), nameBytes, profileImageBytes) + TRAILER_BYTES;
+    }
+
+    /**
+     * Writes the columns from the buffer's position, which must have at least size bytes remaining
+     *
+     * @param columns   the columns to write
+     * @param writtenAt when the columns were written, in epoch millis
+     * @param buffer    the buffer to write to
+     */
+    public static void write(EmployeeColumns columns, long writtenAt, ByteBuffer buffer) {
+        ByteBuffer out = buffer.slice()
+                               .order(ByteOrder.LITTLE_ENDIAN);
+        Utf8Arena names = columns.names();
+        Utf8Arena profileImages = columns.profileImages();
+        out.putInt(MAGIC)
+           .putInt(VERSION)
+           .putLong(writtenAt)
+           .putInt(columns.size())
+           .putInt(names.bytes().length)
+           .putInt(profileImages.bytes().length)
+           .putInt(0);
+
+        out.asLongBuffer()
+           .put(columns.ids());
+        out.position(out.position() + 8 * columns.size());
+        putInts(out, columns.salaries());
+        putInts(out, columns.ages());
+        putInts(out, names.offsets());
+        putInts(out, profileImages.offsets());
+        putBooleans(out, names.nulls());
+        putBooleans(out, profileImages.nulls());
+        out.put(names.bytes());
+        out.put(profileImages.bytes());
+
+        CRC32 crc = new CRC32();
+        crc.update(out.duplicate()
+                      .flip());
+        out.putLong(crc.getValue());
+    }
+
+    /**
+     * Reads columns written by write, copying each column out of the buffer in one go
+     *
+     * @param buffer the buffer to read from its position
+     * @return the columns
+     * @throws IllegalArgumentException if the buffer isn't a (complete, uncorrupted) current version file
+     */
+    public static EmployeeColumns read(ByteBuffer buffer) {
+        ByteBuffer in = header(buffer);
+        int count = in.getInt(16);
+        int nameBytes = in.getInt(20);
+        int profileImageBytes = in.getInt(24);
+        long expected = size(count, nameBytes, profileImageBytes);
+        if (count < 0 || nameBytes < 0 || profileImageBytes < 0 || in.remaining() < expected + TRAILER_BYTES
+                || expected > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Employee snapshot is truncated");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(in.duplicate()
+                     .limit((int) expected));
+        if (crc.getValue() != in.getLong((int) expected)) {
+            throw new IllegalArgumentException("Employee snapshot checksum does not match");
+        }
+
+        in.position(HEADER_BYTES);
+        long[] ids = new long[count];
+        in.asLongBuffer()
+          .get(ids);
+        in.position(in.position() + 8 * count);
+        int[] salaries = getInts(in, count);
+        int[] ages = getInts(in, count);
+        int[] nameOffsets = getInts(in, count + 1);
+        int[] profileImageOffsets = getInts(in, count + 1);
+        boolean[] nameNulls = getBooleans(in, count);
+        boolean[] profileImageNulls = getBooleans(in, count);
+        byte[] names = new byte[nameBytes];
+        in.get(names);
+        byte[] profileImages = new byte[profileImageBytes];
+        in.get(profileImages);
+        return new EmployeeColumns(ids, salaries, ages, new Utf8Arena(names, nameOffsets, nameNulls),
+                                   new Utf8Arena(profileImages, profileImageOffsets, profileImageNulls));
+    }
+
+    /**
+     * Reads when the columns in a buffer were written without reading the columns themselves
+     *
+     * @param buffer the buffer to read from its position
+     * @return when the columns were written, in epoch millis
+     * @throws IllegalArgumentException if the buffer isn't a current version file
+     */
+    public static long writtenAt(ByteBuffer buffer) {
+        return header(buffer).getLong(8);
+    }
+
+    /**
+     * Header plus columns, everything the checksum covers
+     */
+    private static long size(long count, long nameBytes, long profileImageBytes) {
+        // ids, salaries and ages, then offsets and null flags for both arenas, then their bytes
+        return HEADER_BYTES + 16L * count + 8L * (count + 1) + 2L * count + nameBytes + profileImageBytes;
+    }
+
+    private static ByteBuffer header(ByteBuffer buffer) {
+        ByteBuffer in = buffer.slice()
+                              .order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < HEADER_BYTES + TRAILER_BYTES || in.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not an employee snapshot");
+        }
+        if (in.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported employee snapshot version " + in.getInt(4));
+        }
+        return in;
+    }
+
+    private static void putInts(ByteBuffer out, int[] values) {
+        out.asIntBuffer()
+           .put(values);
+        out.position(out.position() + 4 * values.length);
+    }
+
+    private static int[] getInts(ByteBuffer in, int count) {
+        int[] values = new int[count];
+        in.asIntBuffer()
+          .get(values);
+        in.position(in.position() + 4 * count);
+        return values;
+    }
+
+    private static void putBooleans(ByteBuffer out, boolean[] values) {
+        for (boolean value : values) {
+            out.put(value ? (byte) 1 : (byte) 0);
+        }
+    }
+
+    private static boolean[] getBooleans(ByteBuffer in, int count) {
+        boolean[] values = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.get() != 0;
+        }
+        return values;
+    }
+}
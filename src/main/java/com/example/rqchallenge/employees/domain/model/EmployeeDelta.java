@@ -0,0 +1,25 @@
+package com.example.rqchallenge.employees.domain.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The difference between two employee snapshots, changed employees are given with their new values and removed ones
+ * with the values they had before they went
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeDelta {
+    private List<Employee> added;
+    private List<Employee> changed;
+    private List<Employee> removed;
+
+    /**
+     * @return whether anything was added, changed or removed
+     */
+    public boolean hasChanges() {
+        return !added.isEmpty() || !changed.isEmpty() || !removed.isEmpty();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.rqchallenge.employees.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The outcome of looking up one id in a batch, the employee if it was found or why it wasn't
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeLookup {
+    private String id;
+    private Status status;
+    private Employee employee;
+    private String message;
+
+    public enum Status {
+        FOUND, NOT_FOUND, FAILED
+    }
+}
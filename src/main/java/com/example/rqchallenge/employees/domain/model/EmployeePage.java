@@ -0,0 +1,20 @@
+package com.example.rqchallenge.employees.domain.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One page of a (possibly sorted or searched) employee listing along with where it sits in the whole listing and the
+ * version of the snapshot it was cut from, offsets only line up between pages of the same version
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeePage {
+    private List<Employee> employees;
+    private int offset;
+    private int limit;
+    private int total;
+    private long version;
+}
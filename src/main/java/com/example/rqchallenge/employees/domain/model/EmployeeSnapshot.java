@@ -0,0 +1,374 @@
+package com.example.rqchallenge.employees.domain.model;
+
+import com.example.rqchallenge.employees.domain.index.IdIndex;
+import com.example.rqchallenge.employees.domain.index.NameIndex;
+import com.example.rqchallenge.employees.domain.index.SalaryIndex;
+import com.example.rqchallenge.employees.domain.index.SortKey;
+import com.example.rqchallenge.employees.domain.index.SortedIndex;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * An immutable point in time copy of the employee list. It is a plain List so it can be handed straight back from
+ * EmployeeApi.findAll() and serialized by the controller, but any change produces a new snapshot rather than
+ * mutating this one, so readers can hold on to it without any locking. The employees are held in EmployeeColumns and
+ * only turned back into Employee objects when they are read through the List, the indexes hold positions rather than
+ * employees. Null employees are dropped. Indexes are built the first time they are needed. Every index (and the
+ * fingerprints) already built is carried over to the snapshots derived from this one, each patched for the one
+ * employee added, replaced or removed rather than rebuilt. Carrying over is still O(n) per write, every index copies
+ * its arrays, and growing the id index's table or removing with repeated ids rebuilds the id index outright. Two
+ * snapshots can be diffed by id, comparing a fingerprint per employee that each snapshot works out once. Every
+ * snapshot has a version, higher for each one created. Indexes are immutable and only published once fully built, so
+ * two readers racing to build the same index just build it twice and neither ever sees a part built one.
+ */
+public final class EmployeeSnapshot extends AbstractList<Employee> implements RandomAccess {
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    private static final EmployeeSnapshot EMPTY = new EmployeeSnapshot(EmployeeColumns.EMPTY);
+
+    private final long version = VERSIONS.incrementAndGet();
+    private final EmployeeColumns columns;
+    private volatile SalaryIndex salaryIndex;
+    private volatile NameIndex nameIndex;
+    private volatile IdIndex idIndex;
+    private volatile long[] fingerprints;
+    private final AtomicReferenceArray<SortedIndex> sortedIndexes = new AtomicReferenceArray<>(SortKey.values().length * 2);
+
+    private EmployeeSnapshot(EmployeeColumns columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Creates a snapshot of the given employees. Returns the list itself if it is already a snapshot.
+     *
+     * @param employees the employees to take a snapshot of
+     * @return an immutable snapshot of the employees
+     */
+    public static EmployeeSnapshot of(List<Employee> employees) {
+        if (employees instanceof EmployeeSnapshot) {
+            return (EmployeeSnapshot) employees;
+        }
+        if (null == employees || employees.isEmpty()) {
+            return EMPTY;
+        }
+        Builder builder = builder();
+        employees.forEach(builder);
+        return builder.build();
+    }
+
+    /**
+     * Creates a snapshot over existing columns, i.e. ones read back from a file
+     *
+     * @param columns the columns holding the employees
+     * @return a snapshot of the employees in the columns
+     */
+    public static EmployeeSnapshot of(EmployeeColumns columns) {
+        return (columns.size() == 0) ? EMPTY : new EmployeeSnapshot(columns);
+    }
+
+    /**
+     * @return a builder to stream employees into a snapshot without holding them as a list first
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a new snapshot with the employee added, replacing any existing employee with the same id
+     *
+     * @param employee the employee to add
+     * @return the new snapshot
+     */
+    public EmployeeSnapshot withAdded(Employee employee) {
+        int position = indexOfId(employee.getId());
+        return (position >= 0) ? withReplaced(position, employee) : withAppended(employee);
+    }
+
+    /**
+     * Creates a new snapshot without the employee with the given id
+     *
+     * @param id the employee id to remove
+     * @return the new snapshot or this snapshot if no employee had the id
+     */
+    public EmployeeSnapshot withRemoved(long id) {
+        int position = indexOfId(id);
+        if (position < 0) {
+            return this;
+        }
+        EmployeeSnapshot removed = new EmployeeSnapshot(columns.withRemoved(position));
+        removed.salaryIndex = carried(salaryIndex, index -> index.withRemoved(removed, position, columns.salary(position)));
+        removed.nameIndex = carried(nameIndex, index -> index.withRemoved(removed, position));
+        removed.idIndex = carried(idIndex, index -> index.withRemoved(removed, position));
+        removed.fingerprints = carried(fingerprints, current -> {
+            long[] remaining = new long[current.length - 1];
+            System.arraycopy(current, 0, remaining, 0, position);
+            System.arraycopy(current, position + 1, remaining, position, current.length - position - 1);
+            return remaining;
+        });
+        carrySortedIndexes(removed, index -> index.withRemoved(removed, position));
+        return removed;
+    }
+
+    /**
+     * Builds every index on this snapshot that has been built on another, so a snapshot replacing that one can be
+     * prepared off the request path and serve reads straight away without any reader building an index
+     *
+     * @param previous the snapshot whose built indexes to build
+     * @return this snapshot
+     */
+    public EmployeeSnapshot buildIndexesLike(EmployeeSnapshot previous) {
+        if (previous == this) {
+            return this;
+        }
+        if (null != previous.salaryIndex) {
+            salaryIndex();
+        }
+        if (null != previous.nameIndex) {
+            nameIndex();
+        }
+        if (null != previous.idIndex) {
+            idIndex();
+        }
+        if (null != previous.fingerprints) {
+            fingerprints();
+        }
+        for (SortKey sortKey : SortKey.values()) {
+            for (boolean descending : new boolean[]{false, true}) {
+                if (null != previous.sortedIndexes.get(slot(sortKey, descending))) {
+                    sortedIndex(sortKey, descending);
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return this snapshot's version, every snapshot created gets a higher one than the last
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return the columns holding this snapshot's employees
+     */
+    public EmployeeColumns columns() {
+        return columns;
+    }
+
+    /**
+     * Gets the salary index for this snapshot, building it on first use
+     *
+     * @return the salary index
+     */
+    public SalaryIndex salaryIndex() {
+        SalaryIndex index = salaryIndex;
+        if (null == index) {
+            index = SalaryIndex.of(this);
+            salaryIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Gets the name index for this snapshot, building it on first use
+     *
+     * @return the name index
+     */
+    public NameIndex nameIndex() {
+        NameIndex index = nameIndex;
+        if (null == index) {
+            index = NameIndex.of(this);
+            nameIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Gets the index sorted on a key in one direction for this snapshot, building it on first use
+     *
+     * @param sortKey    the key to sort on
+     * @param descending whether the highest key comes first
+     * @return the sorted index
+     */
+    public SortedIndex sortedIndex(SortKey sortKey, boolean descending) {
+        int slot = slot(sortKey, descending);
+        SortedIndex index = sortedIndexes.get(slot);
+        if (null == index) {
+            index = SortedIndex.of(this, sortKey, descending);
+            sortedIndexes.set(slot, index);
+        }
+        return index;
+    }
+
+    /**
+     * Gets the id index for this snapshot, building it on first use
+     *
+     * @return the id index
+     */
+    public IdIndex idIndex() {
+        IdIndex index = idIndex;
+        if (null == index) {
+            index = IdIndex.of(this);
+            idIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Finds the position of an employee by their id through the id index
+     *
+     * @param id the employee id
+     * @return the position of the employee or -1 if there is no employee with the id
+     */
+    public int indexOfId(long id) {
+        return idIndex().indexOf(id);
+    }
+
+    /**
+     * Works out what changed since an earlier snapshot. Each employee here is looked up by id in the earlier snapshot
+     * and compared on its fingerprint, then each employee there is looked up here to find the ones removed, so a diff
+     * is two passes of hash lookups and never compares the employees field by field.
+     *
+     * @param previous the earlier snapshot
+     * @return the employees added, changed and removed since the earlier snapshot, in the order they are held
+     */
+    public EmployeeDelta diff(EmployeeSnapshot previous) {
+        List<Employee> added = new ArrayList<>();
+        List<Employee> changed = new ArrayList<>();
+        List<Employee> removed = new ArrayList<>();
+        if (previous != this) {
+            long[] currentFingerprints = fingerprints();
+            long[] previousFingerprints = previous.fingerprints();
+            IdIndex previousIds = previous.idIndex();
+            for (int i = 0; i < currentFingerprints.length; i++) {
+                int position = previousIds.indexOf(columns.id(i));
+                if (position < 0) {
+                    added.add(get(i));
+                } else if (previousFingerprints[position] != currentFingerprints[i]) {
+                    changed.add(get(i));
+                }
+            }
+            IdIndex currentIds = idIndex();
+            for (int i = 0; i < previousFingerprints.length; i++) {
+                if (currentIds.indexOf(previous.columns.id(i)) < 0) {
+                    removed.add(previous.get(i));
+                }
+            }
+        }
+        return new EmployeeDelta(added, changed, removed);
+    }
+
+    private EmployeeSnapshot withAppended(Employee employee) {
+        EmployeeSnapshot appended = new EmployeeSnapshot(columns.withAppended(employee));
+        appended.salaryIndex = carried(salaryIndex, index -> index.withAppended(appended));
+        appended.nameIndex = carried(nameIndex, index -> index.withAppended(appended));
+        appended.idIndex = carried(idIndex, index -> index.withAppended(appended));
+        appended.fingerprints = carried(fingerprints, current -> {
+            long[] extended = Arrays.copyOf(current, current.length + 1);
+            extended[current.length] = appended.columns.fingerprint(current.length);
+            return extended;
+        });
+        carrySortedIndexes(appended, index -> index.withAppended(appended));
+        return appended;
+    }
+
+    private EmployeeSnapshot withReplaced(int position, Employee employee) {
+        EmployeeSnapshot replaced = new EmployeeSnapshot(columns.withReplaced(position, employee));
+        replaced.salaryIndex = carried(salaryIndex, index -> index.withReplaced(replaced, position, columns.salary(position)));
+        replaced.nameIndex = carried(nameIndex, index -> index.withReplaced(replaced, position));
+        replaced.idIndex = carried(idIndex, index -> index.withReplaced(replaced));
+        replaced.fingerprints = carried(fingerprints, current -> {
+            long[] patched = current.clone();
+            patched[position] = replaced.columns.fingerprint(position);
+            return patched;
+        });
+        carrySortedIndexes(replaced, index -> index.withReplaced(replaced, position));
+        return replaced;
+    }
+
+    private void carrySortedIndexes(EmployeeSnapshot derived, UnaryOperator<SortedIndex> carry) {
+        for (int slot = 0; slot < sortedIndexes.length(); slot++) {
+            derived.sortedIndexes.set(slot, carried(sortedIndexes.get(slot), carry));
+        }
+    }
+
+    private static int slot(SortKey sortKey, boolean descending) {
+        return sortKey.ordinal() * 2 + (descending ? 1 : 0);
+    }
+
+    /**
+     * Carries an index over to a derived snapshot if it has been built on this one
+     */
+    private static <T> T carried(T index, UnaryOperator<T> carry) {
+        return (null == index) ? null : carry.apply(index);
+    }
+
+    /**
+     * Gets each employee's fingerprint, in position order, working them out on first use
+     */
+    private long[] fingerprints() {
+        long[] current = fingerprints;
+        if (null == current) {
+            current = new long[columns.size()];
+            for (int i = 0; i < current.length; i++) {
+                current[i] = columns.fingerprint(i);
+            }
+            fingerprints = current;
+        }
+        return current;
+    }
+
+    /**
+     * Creates the employee at a position, a new Employee each time
+     */
+    @Override
+    public Employee get(int index) {
+        return columns.employee(index);
+    }
+
+    @Override
+    public int size() {
+        return columns.size();
+    }
+
+    /**
+     * Collects employees into a snapshot, skipping nulls. The snapshot is only built once, so everything handed the
+     * builder shares the one snapshot rather than each copying the columns.
+     */
+    public static final class Builder implements Consumer<Employee> {
+        private final EmployeeColumns.Builder columns = new EmployeeColumns.Builder();
+        private EmployeeSnapshot built;
+
+        private Builder() {
+        }
+
+        @Override
+        public void accept(Employee employee) {
+            if (null != built) {
+                throw new IllegalStateException("Snapshot already built");
+            }
+            if (null != employee) {
+                columns.add(employee);
+            }
+        }
+
+        /**
+         * @return the snapshot of the employees added, the same snapshot every time
+         */
+        public EmployeeSnapshot build() {
+            if (null == built) {
+                built = (columns.size() == 0) ? EMPTY : new EmployeeSnapshot(columns.build());
+            }
+            return built;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.rqchallenge.employees.domain.model;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The state of a create or delete accepted by the write queue, identified by its tracking id. Immutable, each change
+ * of status is a new EmployeeWrite.
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeWrite {
+    private String trackingId;
+    private Type type;
+    private String employeeId;
+    private Status status;
+    private Employee employee;
+    private String message;
+    private Instant submittedAt;
+    private Instant completedAt;
+
+    /**
+     * Creates a copy with a new status
+     *
+     * @param status      the new status
+     * @param employee    the created employee, if any
+     * @param message     why the write failed, if it did
+     * @param completedAt when the write finished or null if it hasn't
+     * @return the updated write
+     */
+    public EmployeeWrite with(Status status, Employee employee, String message, Instant completedAt) {
+        return new EmployeeWrite(trackingId, type, employeeId, status, employee, message, submittedAt, completedAt);
+    }
+
+    /**
+     * @return whether the write has finished, one way or another
+     */
+    public boolean isDone() {
+        return status == Status.SUCCEEDED || status == Status.FAILED || status == Status.REJECTED;
+    }
+
+    public enum Type {
+        CREATE, DELETE
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, REJECTED
+    }
+}
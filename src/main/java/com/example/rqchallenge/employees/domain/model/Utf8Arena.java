@@ -0,0 +1,188 @@
+package com.example.rqchallenge.employees.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Immutable column of strings packed end to end as UTF-8 in a single byte array, with an offset per entry. Every
+ * entry costs four bytes of offset and a byte for its null flag rather than a String object, its header and its own
+ * array. Substring tests run on the bytes directly, UTF-8 being self synchronizing a byte match is a character match.
+ */
+final class Utf8Arena {
+
+    static final Utf8Arena EMPTY = new Utf8Arena(new byte[0], new int[1], new boolean[0]);
+
+    static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    // outside the range of a byte so a null never hashes like any string
+    private static final int NULL_MARKER = 0x100;
+
+    private final byte[] bytes;
+    private final int[] offsets;
+    private final boolean[] nulls;
+
+    Utf8Arena(byte[] bytes, int[] offsets, boolean[] nulls) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+        this.nulls = nulls;
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    boolean[] nulls() {
+        return nulls;
+    }
+
+    String get(int i) {
+        return nulls[i] ? null : new String(bytes, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+    }
+
+    boolean isNull(int i) {
+        return nulls[i];
+    }
+
+    int start(int i) {
+        return offsets[i];
+    }
+
+    int end(int i) {
+        return offsets[i + 1];
+    }
+
+    byte byteAt(int position) {
+        return bytes[position];
+    }
+
+    /**
+     * Whether entry i contains the UTF-8 bytes of the search string, null entries contain nothing
+     */
+    boolean contains(int i, byte[] needle) {
+        if (nulls[i]) {
+            return false;
+        }
+        if (needle.length == 0) {
+            return true;
+        }
+        int last = offsets[i + 1] - needle.length;
+        byte first = needle[0];
+        for (int position = offsets[i]; position <= last; position++) {
+            if (bytes[position] == first && Arrays.equals(bytes, position, position + needle.length, needle, 0, needle.length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Carries a 64 bit FNV-1a hash on over entry i's bytes then its length, so null, empty and neighbouring entries
+     * all hash differently
+     */
+    long hash(int i, long hash) {
+        if (nulls[i]) {
+            return (hash ^ NULL_MARKER) * FNV_PRIME;
+        }
+        for (int position = offsets[i]; position < offsets[i + 1]; position++) {
+            hash = (hash ^ (bytes[position] & 0xFF)) * FNV_PRIME;
+        }
+        return hashInt(offsets[i + 1] - offsets[i], hash);
+    }
+
+    /**
+     * Carries a 64 bit FNV-1a hash on over the four bytes of an int
+     */
+    static long hashInt(int value, long hash) {
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            hash = (hash ^ ((value >>> shift) & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    Utf8Arena withAppended(String value) {
+        return splice(nulls.length, 0, true, value);
+    }
+
+    Utf8Arena withReplaced(int i, String value) {
+        return splice(i, 1, true, value);
+    }
+
+    Utf8Arena withRemoved(int i) {
+        return splice(i, 1, false, null);
+    }
+
+    long estimatedBytes() {
+        return 48L + bytes.length + 4L * offsets.length + nulls.length;
+    }
+
+    /**
+     * Copies the arena replacing the removed entries from i with value, if inserting
+     */
+    private Utf8Arena splice(int i, int removed, boolean insert, String value) {
+        byte[] encoded = (insert && null != value) ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int inserted = insert ? 1 : 0;
+        int count = nulls.length - removed + inserted;
+        int from = offsets[i];
+        int to = offsets[i + removed];
+        int delta = encoded.length - (to - from);
+
+        byte[] splicedBytes = new byte[bytes.length + delta];
+        System.arraycopy(bytes, 0, splicedBytes, 0, from);
+        System.arraycopy(encoded, 0, splicedBytes, from, encoded.length);
+        System.arraycopy(bytes, to, splicedBytes, from + encoded.length, bytes.length - to);
+
+        int[] splicedOffsets = new int[count + 1];
+        System.arraycopy(offsets, 0, splicedOffsets, 0, i + 1);
+        if (insert) {
+            splicedOffsets[i + 1] = from + encoded.length;
+        }
+        for (int j = i + removed + 1; j < offsets.length; j++) {
+            splicedOffsets[j - removed + inserted] = offsets[j] + delta;
+        }
+
+        boolean[] splicedNulls = new boolean[count];
+        System.arraycopy(nulls, 0, splicedNulls, 0, i);
+        if (insert) {
+            splicedNulls[i] = null == value;
+        }
+        System.arraycopy(nulls, i + removed, splicedNulls, i + inserted, nulls.length - i - removed);
+        return new Utf8Arena(splicedBytes, splicedOffsets, splicedNulls);
+    }
+
+    /**
+     * Appends strings to a growing arena, then trims it to size
+     */
+    static final class Builder {
+        private byte[] bytes = new byte[1024];
+        private int[] offsets = new int[65];
+        private boolean[] nulls = new boolean[64];
+        private int size;
+
+        void add(String value) {
+            if (size == nulls.length) {
+                nulls = Arrays.copyOf(nulls, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2 + 1);
+            }
+            int start = offsets[size];
+            if (null == value) {
+                nulls[size] = true;
+            } else {
+                byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                if (start + encoded.length > bytes.length) {
+                    bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, start + encoded.length));
+                }
+                System.arraycopy(encoded, 0, bytes, start, encoded.length);
+                start += encoded.length;
+            }
+            offsets[++size] = start;
+        }
+
+        Utf8Arena build() {
+            return new Utf8Arena(Arrays.copyOf(bytes, offsets[size]), Arrays.copyOf(offsets, size + 1), Arrays.copyOf(nulls, size));
+        }
+    }
+}
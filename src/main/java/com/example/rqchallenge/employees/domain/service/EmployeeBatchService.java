@@ -0,0 +1,146 @@
+package com.example.rqchallenge.employees.domain.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeLookup;
+import com.example.rqchallenge.employees.infrastructure.service.EmployeeApi;
+import com.example.rqchallenge.employees.infrastructure.support.LogSampling;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Looks up many employees by id at once. Ids are deduped (keeping the order they were first asked for in) and any
+ * held in a local snapshot are answered straight away. The rest are fanned out over at most concurrency virtual
+ * threads, so a batch takes roughly as long as its slowest few upstream calls rather than the sum of them. Every id
+ * gets its own status, a failed or timed out lookup doesn't fail the rest of the batch. An upstream 404 or a response
+ * with no employee in it is NOT_FOUND, not FAILED.
+ */
+@Service
+@Slf4j
+public class EmployeeBatchService implements IEmployeeBatchService {
+
+    private final EmployeeApi api;
+    private final int concurrency;
+    private final Duration timeout;
+    private final Counter localLookups;
+    private final Counter upstreamLookups;
+
+    public EmployeeBatchService(EmployeeApi api,
+                                @Value("${rq.batch.concurrency:16}") int concurrency,
+                                @Value("${rq.batch.timeout:10s}") Duration timeout,
+                                MeterRegistry meterRegistry) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Batch concurrency must be positive but was " + concurrency);
+        }
+        this.api = api;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+        this.localLookups = Counter.builder("rq.batch.lookups")
+                                   .description("Ids looked up by batch requests")
+                                   .tag("source", "local")
+                                   .register(meterRegistry);
+        this.upstreamLookups = Counter.builder("rq.batch.lookups")
+                                      .description("Ids looked up by batch requests")
+                                      .tag("source", "upstream")
+                                      .register(meterRegistry);
+    }
+
+    /**
+     * Looks up employees by id
+     *
+     * @param ids the employee ids, duplicates are only looked up (and returned) once
+     * @return a lookup per distinct id, in the order the ids were first given
+     */
+    @Override
+    public List<EmployeeLookup> getByIds(List<String> ids) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (LogSampling.isSampled()) {
+            log.info("Looking up {} employees by id", distinct.size());
+        }
+        AtomicReferenceArray<EmployeeLookup> lookups = new AtomicReferenceArray<>(distinct.size());
+
+        List<Integer> misses = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            Optional<Employee> local = api.findLocal(distinct.get(i));
+            if (local.isPresent()) {
+                lookups.set(i, new EmployeeLookup(distinct.get(i), EmployeeLookup.Status.FOUND, local.get(), null));
+            } else {
+                misses.add(i);
+            }
+        }
+        localLookups.increment(distinct.size() - misses.size());
+        if (!misses.isEmpty()) {
+            upstreamLookups.increment(misses.size());
+            fanOut(distinct, misses, lookups);
+        }
+
+        List<EmployeeLookup> results = new ArrayList<>(distinct.size());
+        for (int i = 0; i < distinct.size(); i++) {
+            EmployeeLookup lookup = lookups.get(i);
+            results.add((null != lookup) ? lookup
+                                         : new EmployeeLookup(distinct.get(i), EmployeeLookup.Status.FAILED, null, "Timed out"));
+        }
+        return results;
+    }
+
+    /**
+     * Looks up the missed ids on worker threads that each take the next id until there are none left, waiting up
+     * to the timeout for them all. Workers still running at the timeout are interrupted.
+     */
+    private void fanOut(List<String> ids, List<Integer> misses, AtomicReferenceArray<EmployeeLookup> lookups) {
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(misses.size());
+        ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (int worker = 0; worker < Math.min(concurrency, misses.size()); worker++) {
+                workers.execute(() -> {
+                    int miss;
+                    while ((miss = next.getAndIncrement()) < misses.size()) {
+                        int position = misses.get(miss);
+                        lookups.set(position, lookup(ids.get(position)));
+                        done.countDown();
+                    }
+                });
+            }
+            if (!done.await(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Timed out after {} with {} of {} employee lookups outstanding", timeout, done.getCount(), misses.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private EmployeeLookup lookup(String id) {
+        try {
+            return api.findById(id)
+                      .map(employee -> new EmployeeLookup(id, EmployeeLookup.Status.FOUND, employee, null))
+                      .orElseGet(() -> new EmployeeLookup(id, EmployeeLookup.Status.NOT_FOUND, null, null));
+        } catch (HttpClientErrorException.NotFound e) {
+            // the upstream answers 404 for an unknown id rather than an empty body
+            return new EmployeeLookup(id, EmployeeLookup.Status.NOT_FOUND, null, null);
+        } catch (RuntimeException e) {
+            log.debug("Could not look up employee {}", id, e);
+            return new EmployeeLookup(id, EmployeeLookup.Status.FAILED, null, e.getMessage());
+        }
+    }
+}
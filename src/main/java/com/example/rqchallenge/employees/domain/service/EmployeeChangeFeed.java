@@ -0,0 +1,152 @@
+package com.example.rqchallenge.employees.domain.service;
+
+import com.example.rqchallenge.employees.domain.model.EmployeeDelta;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Change feed for an upstream that has no change API of its own. Polls the EmployeeService for a snapshot every
+ * pollInterval and diffs it against the last one, publishing the employees added, changed and removed to every
+ * listener with a sequence number that goes up by one per change. A poll that gets back the same snapshot (the
+ * cache hasn't refreshed) costs nothing and a diff with no changes publishes nothing. It only polls while someone is
+ * listening, the first poll after that sets the baseline, so there is no replay of changes missed while nobody was.
+ */
+@Service
+@Slf4j
+public class EmployeeChangeFeed implements IEmployeeChangeFeed, InitializingBean, DisposableBean {
+
+    private final IEmployeeService employeeService;
+    private final List<EmployeeChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService poller;
+    private final Duration pollInterval;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter added;
+    private final Counter changed;
+    private final Counter removed;
+
+    private EmployeeSnapshot last;
+    private long sequence;
+
+    public EmployeeChangeFeed(IEmployeeService employeeService,
+                              @Value("${rq.changes.poll-interval:5s}") Duration pollInterval,
+                              MeterRegistry meterRegistry) {
+        if (pollInterval.isNegative() || pollInterval.isZero()) {
+            throw new IllegalArgumentException("Change poll interval must be positive but was " + pollInterval);
+        }
+        this.employeeService = employeeService;
+        this.pollInterval = pollInterval;
+        this.added = changes("added", meterRegistry);
+        this.changed = changes("changed", meterRegistry);
+        this.removed = changes("removed", meterRegistry);
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "employee-changes");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts polling once the feed is fully constructed
+     */
+    @Override
+    public void afterPropertiesSet() {
+        poller.scheduleWithFixedDelay(this::poll, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts publishing changes to a listener from the next poll onwards
+     *
+     * @param listener the listener
+     */
+    @Override
+    public void subscribe(EmployeeChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stops publishing changes to a listener
+     *
+     * @param listener the listener
+     */
+    @Override
+    public void unsubscribe(EmployeeChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void destroy() {
+        poller.shutdownNow();
+    }
+
+    /**
+     * Takes a snapshot and publishes what changed since the last one. A failed poll keeps the last snapshot as the
+     * baseline so the next one that works publishes everything that changed in between.
+     */
+    void poll() {
+        lock.lock();
+        try {
+            if (listeners.isEmpty()) {
+                last = null;
+                return;
+            }
+            EmployeeSnapshot current = employeeService.getSnapshot();
+            EmployeeSnapshot previous = last;
+            last = current;
+            if (null == previous || previous == current) {
+                return;
+            }
+            EmployeeDelta delta = current.diff(previous);
+            if (delta.hasChanges()) {
+                publish(++sequence, delta);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not poll employees for changes", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publish(long changeSequence, EmployeeDelta delta) {
+        int addedCount = delta.getAdded()
+                              .size();
+        int changedCount = delta.getChanged()
+                                .size();
+        int removedCount = delta.getRemoved()
+                                .size();
+        added.increment(addedCount);
+        changed.increment(changedCount);
+        removed.increment(removedCount);
+        log.debug("Publishing change {} to {} listeners, {} added, {} changed, {} removed", changeSequence, listeners.size(), addedCount,
+                  changedCount, removedCount);
+        for (EmployeeChangeListener listener : listeners) {
+            try {
+                listener.onChange(changeSequence, delta);
+            } catch (RuntimeException e) {
+                log.warn("Employee change listener {} failed on change {}", listener, changeSequence, e);
+            }
+        }
+    }
+
+    private static Counter changes(String type, MeterRegistry meterRegistry) {
+        return Counter.builder("rq.changes.employees")
+                      .description("Employees published by the change feed")
+                      .tag("type", type)
+                      .register(meterRegistry);
+    }
+}
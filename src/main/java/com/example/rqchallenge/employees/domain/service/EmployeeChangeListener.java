@@ -0,0 +1,18 @@
+package com.example.rqchallenge.employees.domain.service;
+
+import com.example.rqchallenge.employees.domain.model.EmployeeDelta;
+
+/**
+ * In process subscriber to the employee change feed
+ */
+@FunctionalInterface
+public interface EmployeeChangeListener {
+
+    /**
+     * Called on the feed's poll thread each time the employees change, so anything slow should be handed off
+     *
+     * @param sequence the change's sequence number, one more than the last change published
+     * @param delta    the employees added, changed and removed
+     */
+    void onChange(long sequence, EmployeeDelta delta);
+}
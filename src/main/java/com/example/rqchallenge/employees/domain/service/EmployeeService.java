@@ -1,32 +1,70 @@
 package com.example.rqchallenge.employees.domain.service;
 
+import com.example.rqchallenge.employees.domain.index.NameIndex;
+import com.example.rqchallenge.employees.domain.index.SortKey;
+import com.example.rqchallenge.employees.domain.index.SortedIndex;
+import com.example.rqchallenge.employees.domain.index.TopEarners;
 import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeePage;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
 import com.example.rqchallenge.employees.infrastructure.service.EmployeeApi;
+import com.example.rqchallenge.employees.infrastructure.support.LogSampling;
 
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Main employee domain service implementing all the domain service related functions for employees.
  * Ideally some functions might live in the domain object Employee but no such functions exist currently.
+ * When the api streams straight from the upstream (i.e. it isn't cached) searches and salary aggregations are done
+ * in one pass over the stream so the full list is never held. Otherwise they use the snapshot's indexes.
+ * Each method's INFO log is only written for requests sampled by LogSampling, per employee DEBUG logs check the level
+ * once up front so they cost nothing when DEBUG is off.
  */
 @Service
 @Slf4j
-public class EmployeeService implements IEmployeeService {
+public class EmployeeService implements IEmployeeService, MeterBinder {
 
     private final EmployeeApi api;
+    private volatile NameIndex lastNameIndex;
 
     public EmployeeService(EmployeeApi repository) {
         this.api = repository;
     }
 
+    /**
+     * Publishes the size, build time and trigram count of the last name index built, all 0 until there is one
+     *
+     * @param meterRegistry the registry to publish the gauges on
+     */
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("rq.index.name.size", this, service -> service.nameIndexStat(NameIndex::estimatedBytes))
+             .description("Estimated heap used by the employee name search index")
+             .baseUnit("bytes")
+             .register(meterRegistry);
+        Gauge.builder("rq.index.name.build.time", this, service -> service.nameIndexStat(NameIndex::buildNanos) / 1e9)
+             .description("Time taken to build the current employee name search index")
+             .baseUnit("seconds")
+             .register(meterRegistry);
+        Gauge.builder("rq.index.name.trigrams", this, service -> service.nameIndexStat(NameIndex::trigrams))
+             .description("Distinct trigrams in the employee name search index")
+             .register(meterRegistry);
+    }
+
     /**
      * Get all the employee records
      *
@@ -34,28 +72,115 @@ public class EmployeeService implements IEmployeeService {
      */
     @Override
     public List<Employee> getAll() {
-        log.info("Getting all employee records");
+        if (LogSampling.isSampled()) {
+            log.info("Getting all employee records");
+        }
         return api.findAll();
     }
 
     /**
      * Gets all the employees by name based on a search string.
-     * Finds all employees, filters on null names then, filters on names containing the search string.
-     * Could possibly use a regex here as well (probably not as performant though)
+     * Finds all employees and searches the snapshot's trigram name index, which skips null names and matches
+     * names containing the search string (case-sensitive) in the original list order.
      *
      * @param searchString The search string to use to find a match
      * @return a list of employees matching the search string
      */
     @Override
     public List<Employee> getByName(String searchString) {
-        log.info("Getting all employees with names that match {}", searchString);
-        return api.findAll()
-                  .stream()
-                  .filter(employee -> null != employee.getName())
-                  .filter(employee -> employee.getName()
-                                              .contains(searchString))
-                  .peek(employee -> log.debug("Found employee matching {} - {}", searchString, employee))
-                  .collect(Collectors.toList());
+        List<Employee> matches = new ArrayList<>();
+        streamByName(searchString, matches::add);
+        return matches;
+    }
+
+    /**
+     * Hands all the employee records to the consumer, as they are read from the upstream when the api streams.
+     *
+     * @param consumer the consumer to give each employee to
+     */
+    @Override
+    public void streamAll(Consumer<? super Employee> consumer) {
+        if (LogSampling.isSampled()) {
+            log.info("Streaming all employee records");
+        }
+        api.streamAll(consumer);
+    }
+
+    /**
+     * Hands all the employees with names containing the search string to the consumer, in list order. Filters the
+     * stream as it is read when the api streams, otherwise searches the snapshot's name index.
+     *
+     * @param searchString The search string to use to find a match
+     * @param consumer     the consumer to give each matching employee to
+     */
+    @Override
+    public void streamByName(String searchString, Consumer<? super Employee> consumer) {
+        if (LogSampling.isSampled()) {
+            log.info("Getting all employees with names that match {}", searchString);
+        }
+        // checked once rather than per employee
+        boolean debug = log.isDebugEnabled();
+        if (api.isStreaming()) {
+            api.streamAll(employee -> {
+                if (null != employee && null != employee.getName() && employee.getName()
+                                                                             .contains(searchString)) {
+                    if (debug) {
+                        log.debug("Found employee matching {} - {}", searchString, employee);
+                    }
+                    consumer.accept(employee);
+                }
+            });
+            return;
+        }
+        NameIndex nameIndex = getSnapshot().nameIndex();
+        lastNameIndex = nameIndex;
+        for (Employee employee : nameIndex.search(searchString)) {
+            if (debug) {
+                log.debug("Found employee matching {} - {}", searchString, employee);
+            }
+            consumer.accept(employee);
+        }
+    }
+
+    /**
+     * Gets a page of employees, optionally only those matching a name search and optionally sorted.
+     * Always served from the snapshot, sorted listings are a slice of the snapshot's sorted index for the key and
+     * search results are sorted on their own as there are usually few of them. Offsets are only stable within one
+     * snapshot, so the page carries the snapshot's version for the caller to check the next page against. Without
+     * the cache every call reads a new snapshot, so every page has a new version and a sorted listing builds the
+     * whole sorted index, O(n log n), for that one page.
+     *
+     * @param searchString the string names must contain or null for all employees
+     * @param sortKey      the key to sort on or null to keep list order
+     * @param descending   whether the highest key comes first
+     * @param offset       the position of the first employee to return
+     * @param limit        the maximum number of employees to return
+     * @return the page of employees
+     */
+    @Override
+    public EmployeePage getPage(String searchString, SortKey sortKey, boolean descending, int offset, int limit) {
+        if (LogSampling.isSampled()) {
+            log.info("Getting page of employees matching {} sorted by {} (descending {}) from {} limit {}", searchString, sortKey,
+                     descending, offset, limit);
+        }
+        EmployeeSnapshot snapshot = getSnapshot();
+        if (null == searchString && null != sortKey) {
+            SortedIndex sortedIndex = snapshot.sortedIndex(sortKey, descending);
+            return new EmployeePage(sortedIndex.page(offset, limit), offset, limit, sortedIndex.size(), snapshot.version());
+        }
+
+        List<Employee> employees = snapshot;
+        if (null != searchString) {
+            NameIndex nameIndex = snapshot.nameIndex();
+            lastNameIndex = nameIndex;
+            employees = nameIndex.search(searchString);
+            if (null != sortKey) {
+                employees = SortedIndex.sort(employees, sortKey, descending);
+            }
+        }
+        int from = Math.min(Math.max(0, offset), employees.size());
+        int to = (int) Math.min((long) from + Math.max(0, limit), employees.size());
+        return new EmployeePage(new ArrayList<>(employees.subList(from, to)), offset, limit, employees.size(), snapshot.version());
     }
 
     /**
@@ -66,43 +191,53 @@ public class EmployeeService implements IEmployeeService {
      */
     @Override
     public Optional<Employee> getById(String id) {
-        log.info("Getting an employee by their id {}", id);
+        if (LogSampling.isSampled()) {
+            log.info("Getting an employee by their id {}", id);
+        }
         return api.findById(id);
     }
 
     /**
      * Gets the highest salary from all employees.
-     * Finds all employees, gets the max salary, maps the salary and returns.
+     * Finds all employees and reads the highest salary off the snapshot's salary index.
      *
      * @return An optional of the salary
      */
     @Override
     public Optional<Integer> getHighestSalary() {
-        log.info("Getting the highest salary of all employees");
-        return api.findAll()
-                  .stream()
-                  .max(Comparator.comparingInt(Employee::getSalary))
-                  .map(Employee::getSalary);
+        if (LogSampling.isSampled()) {
+            log.info("Getting the highest salary of all employees");
+        }
+        if (api.isStreaming()) {
+            return topEarners(1).stream()
+                                .findFirst()
+                                .map(Employee::getSalary);
+        }
+        OptionalInt highest = getSnapshot().salaryIndex()
+                                        .highest();
+        return highest.isPresent() ? Optional.of(highest.getAsInt()) : Optional.empty();
     }
 
     /**
      * Gets the top ten highest earners by name.
-     * finds all employees, sorts based on salary (high to low), limits to 10 records,
-     * maps to their names, and returns
+     * finds all employees, takes the first 10 records from the snapshot's salary index (high to low),
+     * or keeps the top 10 while streaming, maps to their names, and returns
      *
      * @return The names as a list
      */
     @Override
     public List<String> getTopTenHighestEarnersByName() {
-        log.info("Getting the top ten salaried employees");
-        return api.findAll()
-                  .stream()
-                  .sorted(Comparator.comparing(Employee::getSalary)
-                                    .reversed())
-                  .limit(10)
-                  .peek(employee -> log.debug("Top Ten Employee {}", employee))
-                  .map(Employee::getName)
-                  .collect(Collectors.toList());
+        if (LogSampling.isSampled()) {
+            log.info("Getting the top ten salaried employees");
+        }
+        List<Employee> topTen = api.isStreaming() ? topEarners(10) : getSnapshot().salaryIndex()
+                                                                               .top(10);
+        if (log.isDebugEnabled()) {
+            topTen.forEach(employee -> log.debug("Top Ten Employee {}", employee));
+        }
+        return topTen.stream()
+                     .map(Employee::getName)
+                     .collect(Collectors.toList());
     }
 
     /**
@@ -113,13 +248,15 @@ public class EmployeeService implements IEmployeeService {
      */
     @Override
     public Optional<Employee> create(Map<String, Object> employeeInput) {
-        log.info("Attempting to create employee with {}", employeeInput);
+        if (LogSampling.isSampled()) {
+            log.info("Attempting to create employee");
+        }
+        log.debug("Creating employee from {}", employeeInput);
         Optional<String> name = Optional.ofNullable((String) employeeInput.getOrDefault("name", null));
         Optional<String> salary = Optional.ofNullable((String) employeeInput.getOrDefault("salary", null));
         Optional<String> age = Optional.ofNullable((String) employeeInput.getOrDefault("age", null));
 
         if (name.isPresent() && salary.isPresent() && age.isPresent()) {
-            log.debug("Creating new employee with name {}, salary {}, age {}", name, salary, age);
             return api.create(name.get(), salary.get(), age.get());
         }
         log.warn("Could not create employee with name {}, salary {}, age {}", name, salary, age);
@@ -134,9 +271,44 @@ public class EmployeeService implements IEmployeeService {
      */
     @Override
     public Optional<String> delete(String id) {
-        log.info("Attempting to delete employee with id {}", id);
+        if (LogSampling.isSampled()) {
+            log.info("Attempting to delete employee with id {}", id);
+        }
         return api.delete(id)
                   .filter("success"::equals);
     }
+
+    /**
+     * Gets all the employees as a snapshot. Free when the api already hands back a snapshot (i.e. it is cached)
+     * otherwise the employees are streamed (or copied) into the snapshot's columns once for this request.
+     *
+     * @return the employee snapshot
+     */
+    @Override
+    public EmployeeSnapshot getSnapshot() {
+        if (api.isStreaming()) {
+            EmployeeSnapshot.Builder builder = EmployeeSnapshot.builder();
+            api.streamAll(builder);
+            return builder.build();
+        }
+        return EmployeeSnapshot.of(api.findAll());
+    }
+
+    /**
+     * Streams all the employees keeping only the n highest earners
+     *
+     * @param n the number of employees to keep
+     * @return up to n employees, highest salary first
+     */
+    private List<Employee> topEarners(int n) {
+        TopEarners topEarners = new TopEarners(n);
+        api.streamAll(topEarners);
+        return topEarners.top();
+    }
+
+    private double nameIndexStat(ToDoubleFunction<NameIndex> stat) {
+        NameIndex nameIndex = lastNameIndex;
+        return (null == nameIndex) ? 0 : stat.applyAsDouble(nameIndex);
+    }
 }
 
@@ -0,0 +1,271 @@
+package com.example.rqchallenge.employees.domain.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeWrite;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write behind queue for creates and deletes. Writes are accepted into a bounded queue and acknowledged straight away
+ * with a tracking id, a fixed number of workers then make the calls through the EmployeeService. The upstream client's
+ * adaptive rate limiter and retries pace the workers, so this only bounds how many calls are in flight at once. A
+ * full queue rejects the write rather than blocking the caller. Finished writes can be polled by tracking id until
+ * they fall out of the most recent retained writes, and the submitter's callback is called once each write finishes.
+ * On shutdown no more writes are accepted and the workers get up to shutdownTimeout to drain the queue, any write
+ * still queued after that is marked failed (and called back) so no acknowledged write is silently dropped.
+ */
+@Service
+@Slf4j
+public class EmployeeWriteService implements IEmployeeWriteService, DisposableBean {
+
+    private final IEmployeeService employeeService;
+    private final BlockingQueue<Task> queue;
+    private final int retained;
+    private final Clock clock;
+    private final Duration shutdownTimeout;
+    private final ExecutorService workers;
+    private volatile boolean accepting = true;
+
+    private final Map<String, EmployeeWrite> writes = new ConcurrentHashMap<>();
+    private final Queue<String> finished = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger finishedCount = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
+
+    public EmployeeWriteService(IEmployeeService employeeService,
+                                @Value("${rq.writes.queue-capacity:10000}") int queueCapacity,
+                                @Value("${rq.writes.concurrency:4}") int concurrency,
+                                @Value("${rq.writes.retained:10000}") int retained,
+                                @Value("${rq.writes.shutdown-timeout:30s}") Duration shutdownTimeout,
+                                MeterRegistry meterRegistry) {
+        if (queueCapacity < 1 || concurrency < 1 || retained < 1) {
+            throw new IllegalArgumentException("Write queue capacity, concurrency and retained must all be positive");
+        }
+        this.employeeService = employeeService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.retained = retained;
+        this.shutdownTimeout = shutdownTimeout;
+        this.clock = Clock.systemUTC();
+        this.meterRegistry = meterRegistry;
+
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "employee-write-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(this::work);
+        }
+
+        Gauge.builder("rq.writes.queued", queue, Queue::size)
+             .description("Writes waiting for a worker")
+             .register(meterRegistry);
+    }
+
+    /**
+     * Queues an employee create
+     *
+     * @param employeeInput the map describing the name, salary, and age
+     * @param callback      called with the write once it has finished, or null for no callback
+     * @return the write, queued or rejected if the queue is full
+     */
+    @Override
+    public EmployeeWrite submitCreate(Map<String, Object> employeeInput, Consumer<EmployeeWrite> callback) {
+        return submit(EmployeeWrite.Type.CREATE, null, new HashMap<>(employeeInput), callback);
+    }
+
+    /**
+     * Queues an employee delete
+     *
+     * @param id       the employee id to delete
+     * @param callback called with the write once it has finished, or null for no callback
+     * @return the write, queued or rejected if the queue is full
+     */
+    @Override
+    public EmployeeWrite submitDelete(String id, Consumer<EmployeeWrite> callback) {
+        return submit(EmployeeWrite.Type.DELETE, id, null, callback);
+    }
+
+    /**
+     * Gets the current state of a write
+     *
+     * @param trackingId the tracking id the write was acknowledged with
+     * @return the Optional write, empty if it is unknown or no longer retained
+     */
+    @Override
+    public Optional<EmployeeWrite> get(String trackingId) {
+        return Optional.ofNullable(writes.get(trackingId));
+    }
+
+    /**
+     * Stops accepting writes and lets the workers drain the queue for up to shutdownTimeout, then interrupts them and
+     * fails whatever is still queued
+     */
+    @Override
+    public void destroy() {
+        accepting = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Write queue didn't drain within {}, failing the {} writes left", shutdownTimeout, queue.size());
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread()
+                  .interrupt();
+        }
+        List<Task> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (Task task : remaining) {
+            fail(task, "Write service shut down before the write was made");
+        }
+    }
+
+    private EmployeeWrite submit(EmployeeWrite.Type type, String employeeId, Map<String, Object> employeeInput,
+                                 Consumer<EmployeeWrite> callback) {
+        String trackingId = UUID.randomUUID()
+                                .toString();
+        EmployeeWrite write = new EmployeeWrite(trackingId, type, employeeId, EmployeeWrite.Status.QUEUED, null, null, clock.instant(), null);
+        if (!accepting) {
+            return finish(write.with(EmployeeWrite.Status.REJECTED, null, "Write service is shutting down", clock.instant()), callback);
+        }
+        writes.put(write.getTrackingId(), write);
+        Task task = new Task(trackingId, employeeInput, callback);
+        if (queue.offer(task)) {
+            // shut down since the check above, take it back unless a worker or the shutdown already has
+            if (!accepting && queue.remove(task)) {
+                return finish(write.with(EmployeeWrite.Status.REJECTED, null, "Write service is shutting down", clock.instant()), callback);
+            }
+            log.debug("Queued {} write {}", type, write.getTrackingId());
+            return write;
+        }
+        log.warn("Write queue is full, rejecting {} write {}", type, write.getTrackingId());
+        return finish(write.with(EmployeeWrite.Status.REJECTED, null, "Write queue is full", clock.instant()), callback);
+    }
+
+    /**
+     * Runs queued writes until the service is shut down and the queue is empty, polling rather than blocking for good
+     * so the workers notice the shutdown once they have drained the queue
+     */
+    private void work() {
+        while (!Thread.currentThread()
+                      .isInterrupted()) {
+            Task task;
+            try {
+                task = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+                return;
+            }
+            if (null == task) {
+                if (!accepting) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                EmployeeWrite running = writes.get(task.trackingId)
+                                              .with(EmployeeWrite.Status.RUNNING, null, null, null);
+                writes.put(task.trackingId, running);
+                finish(run(running, task), task.callback);
+            } catch (RuntimeException e) {
+                // keep the worker alive, the pool doesn't restart the work loop
+                log.error("Write {} could not be finished", task.trackingId, e);
+            }
+        }
+    }
+
+    private EmployeeWrite run(EmployeeWrite write, Task task) {
+        try {
+            if (write.getType() == EmployeeWrite.Type.CREATE) {
+                Optional<Employee> created = employeeService.create(task.employeeInput);
+                return created.map(employee -> write.with(EmployeeWrite.Status.SUCCEEDED, employee, null, clock.instant()))
+                              .orElseGet(() -> write.with(EmployeeWrite.Status.FAILED, null, "Employee was not created", clock.instant()));
+            }
+            return employeeService.delete(write.getEmployeeId())
+                                  .map(status -> write.with(EmployeeWrite.Status.SUCCEEDED, null, null, clock.instant()))
+                                  .orElseGet(() -> write.with(EmployeeWrite.Status.FAILED, null, "Employee was not deleted", clock.instant()));
+        } catch (RuntimeException e) {
+            log.warn("{} write {} failed", write.getType(), write.getTrackingId(), e);
+            return write.with(EmployeeWrite.Status.FAILED, null, e.getMessage(), clock.instant());
+        }
+    }
+
+    private void fail(Task task, String message) {
+        EmployeeWrite write = writes.get(task.trackingId);
+        if (null != write) {
+            log.warn("{} write {} failed, {}", write.getType(), write.getTrackingId(), message);
+            finish(write.with(EmployeeWrite.Status.FAILED, null, message, clock.instant()), task.callback);
+        }
+    }
+
+    private EmployeeWrite finish(EmployeeWrite write, Consumer<EmployeeWrite> callback) {
+        writes.put(write.getTrackingId(), write);
+        finished.add(write.getTrackingId());
+        if (finishedCount.incrementAndGet() > retained) {
+            String oldest = finished.poll();
+            if (null != oldest) {
+                finishedCount.decrementAndGet();
+                writes.remove(oldest);
+            }
+        }
+        Counter.builder("rq.writes.completed")
+               .description("Writes finished by the write queue")
+               .tag("type", write.getType()
+                                 .name()
+                                 .toLowerCase())
+               .tag("status", write.getStatus()
+                                   .name()
+                                   .toLowerCase())
+               .register(meterRegistry)
+               .increment();
+        if (null != callback) {
+            try {
+                callback.accept(write);
+            } catch (RuntimeException e) {
+                log.warn("Callback for write {} failed", write.getTrackingId(), e);
+            }
+        }
+        return write;
+    }
+
+    private static final class Task {
+        private final String trackingId;
+        private final Map<String, Object> employeeInput;
+        private final Consumer<EmployeeWrite> callback;
+
+        private Task(String trackingId, Map<String, Object> employeeInput, Consumer<EmployeeWrite> callback) {
+            this.trackingId = trackingId;
+            this.employeeInput = employeeInput;
+            this.callback = callback;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.rqchallenge.employees.domain.service;
+
+import com.example.rqchallenge.employees.domain.model.EmployeeLookup;
+
+import java.util.List;
+
+public interface IEmployeeBatchService {
+    List<EmployeeLookup> getByIds(List<String> ids);
+}
@@ -0,0 +1,7 @@
+package com.example.rqchallenge.employees.domain.service;
+
+public interface IEmployeeChangeFeed {
+    void subscribe(EmployeeChangeListener listener);
+
+    void unsubscribe(EmployeeChangeListener listener);
+}
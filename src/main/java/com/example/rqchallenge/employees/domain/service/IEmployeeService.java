@@ -1,16 +1,26 @@
 package com.example.rqchallenge.employees.domain.service;
 
+import com.example.rqchallenge.employees.domain.index.SortKey;
 import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeePage;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface IEmployeeService {
     List<Employee> getAll();
 
     List<Employee> getByName(String searchString);
 
+    void streamAll(Consumer<? super Employee> consumer);
+
+    void streamByName(String searchString, Consumer<? super Employee> consumer);
+
+    EmployeePage getPage(String searchString, SortKey sortKey, boolean descending, int offset, int limit);
+
     Optional<Employee> getById(String id);
 
     Optional<Integer> getHighestSalary();
@@ -20,4 +30,6 @@ public interface IEmployeeService {
     Optional<Employee> create(Map<String, Object> employeeInput);
 
     Optional<String> delete(String id);
+
+    EmployeeSnapshot getSnapshot();
 }
@@ -0,0 +1,15 @@
+package com.example.rqchallenge.employees.domain.service;
+
+import com.example.rqchallenge.employees.domain.model.EmployeeWrite;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface IEmployeeWriteService {
+    EmployeeWrite submitCreate(Map<String, Object> employeeInput, Consumer<EmployeeWrite> callback);
+
+    EmployeeWrite submitDelete(String id, Consumer<EmployeeWrite> callback);
+
+    Optional<EmployeeWrite> get(String trackingId);
+}
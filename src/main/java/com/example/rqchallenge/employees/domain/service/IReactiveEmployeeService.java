@@ -0,0 +1,25 @@
+package com.example.rqchallenge.employees.domain.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+
+import java.util.List;
+import java.util.Map;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface IReactiveEmployeeService {
+    Flux<Employee> getAll();
+
+    Flux<Employee> getByName(String searchString);
+
+    Mono<Employee> getById(String id);
+
+    Mono<Integer> getHighestSalary();
+
+    Mono<List<String>> getTopTenHighestEarnersByName();
+
+    Mono<Employee> create(Map<String, Object> employeeInput);
+
+    Mono<String> delete(String id);
+}
@@ -0,0 +1,165 @@
+package com.example.rqchallenge.employees.domain.service;
+
+import com.example.rqchallenge.employees.domain.index.TopEarners;
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.infrastructure.service.ReactiveEmployeeApi;
+import com.example.rqchallenge.employees.infrastructure.support.LogSampling;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive version of the employee domain service, only enabled alongside the ReactiveEmployeeApi. Nothing here
+ * blocks and nothing holds the full list, the searches and aggregations are streaming operators over the employee
+ * Flux (a filter, a max and a bounded top n) so each is a single O(n) pass on the event loop with no index to build.
+ * The INFO logs are written on subscription and only for subscribers whose Reactor context is sampled, the chain
+ * doesn't run on the request thread LogSamplingFilter decided on, so the controller writes its decision into the
+ * context.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "rq.client.reactive.enabled", havingValue = "true")
+public class ReactiveEmployeeService implements IReactiveEmployeeService {
+
+    private final ReactiveEmployeeApi api;
+
+    public ReactiveEmployeeService(ReactiveEmployeeApi api) {
+        this.api = api;
+    }
+
+    /**
+     * Get all the employee records
+     *
+     * @return a Flux of all employees
+     */
+    @Override
+    public Flux<Employee> getAll() {
+        return Flux.deferContextual(context -> {
+            if (LogSampling.isSampled(context)) {
+                log.info("Getting all employee records");
+            }
+            return api.findAll();
+        });
+    }
+
+    /**
+     * Gets all the employees by name based on a search string, filtering the employees as they arrive
+     *
+     * @param searchString The search string to use to find a match
+     * @return a Flux of employees matching the search string
+     */
+    @Override
+    public Flux<Employee> getByName(String searchString) {
+        return Flux.deferContextual(context -> {
+            if (LogSampling.isSampled(context)) {
+                log.info("Getting all employees with names that match {}", searchString);
+            }
+            return api.findAll()
+                      .filter(employee -> null != employee.getName() && employee.getName()
+                                                                                .contains(searchString));
+        });
+    }
+
+    /**
+     * Gets an Employee by their id.
+     *
+     * @param id the Employee id
+     * @return a Mono of the employee or an empty Mono if none was found
+     */
+    @Override
+    public Mono<Employee> getById(String id) {
+        return Mono.deferContextual(context -> {
+            if (LogSampling.isSampled(context)) {
+                log.info("Getting an employee by their id {}", id);
+            }
+            return api.findById(id);
+        });
+    }
+
+    /**
+     * Gets the highest salary from all employees
+     *
+     * @return a Mono of the salary or an empty Mono if there are no employees
+     */
+    @Override
+    public Mono<Integer> getHighestSalary() {
+        return Mono.deferContextual(context -> {
+            if (LogSampling.isSampled(context)) {
+                log.info("Getting the highest salary of all employees");
+            }
+            return api.findAll()
+                      .map(Employee::getSalary)
+                      .reduce(Math::max);
+        });
+    }
+
+    /**
+     * Gets the top ten highest earners by name, only ever holding the top ten seen so far
+     *
+     * @return a Mono of the names
+     */
+    @Override
+    public Mono<List<String>> getTopTenHighestEarnersByName() {
+        return Mono.deferContextual(context -> {
+            if (LogSampling.isSampled(context)) {
+                log.info("Getting the top ten salaried employees");
+            }
+            return api.findAll()
+                      .collect(() -> new TopEarners(10), TopEarners::accept)
+                      .map(topEarners -> topEarners.top()
+                                                   .stream()
+                                                   .map(Employee::getName)
+                                                   .collect(Collectors.toList()));
+        });
+    }
+
+    /**
+     * Creates a new Employee record using name, salary, age. Checks to make sure all values are present before creating
+     *
+     * @param employeeInput The map describing the name, salary, and age
+     * @return a Mono of the employee that was created or an empty Mono if it failed
+     */
+    @Override
+    public Mono<Employee> create(Map<String, Object> employeeInput) {
+        return Mono.deferContextual(context -> {
+            if (LogSampling.isSampled(context)) {
+                log.info("Attempting to create employee");
+            }
+            log.debug("Creating employee from {}", employeeInput);
+            Object name = employeeInput.get("name");
+            Object salary = employeeInput.get("salary");
+            Object age = employeeInput.get("age");
+
+            if (null != name && null != salary && null != age) {
+                return api.create((String) name, (String) salary, (String) age);
+            }
+            log.warn("Could not create employee with name {}, salary {}, age {}", name, salary, age);
+            return Mono.empty();
+        });
+    }
+
+    /**
+     * Deletes an Employee by their id. Only returns successful if response has returned success.
+     *
+     * @param id The Employee id
+     * @return a Mono of the status or an empty Mono if it failed
+     */
+    @Override
+    public Mono<String> delete(String id) {
+        return Mono.deferContextual(context -> {
+            if (LogSampling.isSampled(context)) {
+                log.info("Attempting to delete employee with id {}", id);
+            }
+            return api.delete(id)
+                      .filter("success"::equals);
+        });
+    }
+}
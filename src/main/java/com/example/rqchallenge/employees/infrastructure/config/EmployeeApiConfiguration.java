@@ -0,0 +1,183 @@
+package com.example.rqchallenge.employees.infrastructure.config;
+
+import com.example.rqchallenge.employees.infrastructure.persistence.EmployeeLog;
+import com.example.rqchallenge.employees.infrastructure.persistence.FileEmployeeLog;
+import com.example.rqchallenge.employees.infrastructure.persistence.MappedSnapshotStore;
+import com.example.rqchallenge.employees.infrastructure.persistence.SnapshotStore;
+import com.example.rqchallenge.employees.infrastructure.service.CachingEmployeeApi;
+import com.example.rqchallenge.employees.infrastructure.service.CircuitBreakingEmployeeApi;
+import com.example.rqchallenge.employees.infrastructure.service.EmployeeApi;
+import com.example.rqchallenge.employees.infrastructure.service.FaultInjectingEmployeeApi;
+import com.example.rqchallenge.employees.infrastructure.service.LocalEmployeeApi;
+import com.example.rqchallenge.employees.infrastructure.service.RestApiExampleService;
+import com.example.rqchallenge.employees.infrastructure.service.TimedEmployeeApi;
+import com.example.rqchallenge.employees.infrastructure.support.CircuitBreaker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Wires up the EmployeeApi used by the domain. There is only ever one EmployeeApi bean, the upstream client wrapped
+ * in whichever decorators are enabled, so the domain service (and the tests mocking it) don't need qualifiers. With
+ * rq.client.backend=local the upstream client is swapped for the embedded LocalEmployeeApi, and with
+ * rq.client.simulator.enabled the backend is made to behave like the real upstream for load testing.
+ */
+@Configuration
+public class EmployeeApiConfiguration implements DisposableBean {
+
+    @Value("${rq.client.backend:upstream}")
+    private String backend;
+
+    @Value("${rq.client.local.data-file:}")
+    private String localDataFile;
+
+    @Value("${rq.client.local.seed-count:10000}")
+    private int localSeedCount;
+
+    @Value("${rq.client.local.seed:1}")
+    private long localSeed;
+
+    @Value("${rq.client.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${rq.client.cache.ttl:60s}")
+    private Duration cacheTtl;
+
+    @Value("${rq.client.cache.refresh-ahead:15s}")
+    private Duration cacheRefreshAhead;
+
+    @Value("${rq.client.cache.snapshot-file:}")
+    private String cacheSnapshotFile;
+
+    @Value("${rq.client.simulator.enabled:false}")
+    private boolean simulatorEnabled;
+
+    @Value("${rq.client.simulator.latency-median:300ms}")
+    private Duration simulatedLatencyMedian;
+
+    @Value("${rq.client.simulator.latency-p99:3s}")
+    private Duration simulatedLatencyP99;
+
+    @Value("${rq.client.simulator.list-latency-factor:4}")
+    private double simulatedListLatencyFactor;
+
+    @Value("${rq.client.simulator.throttle-rate:0.05}")
+    private double simulatedThrottleRate;
+
+    @Value("${rq.client.simulator.error-rate:0.01}")
+    private double simulatedErrorRate;
+
+    @Value("${rq.client.simulator.truncate-rate:0.02}")
+    private double simulatedTruncateRate;
+
+    @Value("${rq.client.simulator.payload-bytes:0}")
+    private int simulatedPayloadBytes;
+
+    @Value("${rq.client.simulator.seed:0}")
+    private long simulatorSeed;
+
+    @Value("${rq.client.conditional.max-entries:1000}")
+    private int conditionalMaxEntries;
+
+    @Value("${rq.client.circuit-breaker.enabled:true}")
+    private boolean circuitBreakerEnabled;
+
+    @Value("${rq.client.circuit-breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${rq.client.circuit-breaker.slow-call-rate-threshold:80}")
+    private float slowCallRateThreshold;
+
+    @Value("${rq.client.circuit-breaker.slow-call-duration:5s}")
+    private Duration slowCallDuration;
+
+    @Value("${rq.client.circuit-breaker.window-size:20}")
+    private int windowSize;
+
+    @Value("${rq.client.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${rq.client.circuit-breaker.open-duration:30s}")
+    private Duration openDuration;
+
+    @Value("${rq.client.circuit-breaker.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-snapshot-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private LocalEmployeeApi localApi;
+
+    /**
+     * Build the EmployeeApi, the (timed) RestApiExample client, or the local backend, optionally behind a circuit
+     * breaker and the snapshot cache. When a snapshot file is configured the cache is warm started from it.
+     *
+     * @param restTemplate  the RestTemplate for RestApiExample's API
+     * @param objectMapper  the ObjectMapper for streaming responses
+     * @param meterRegistry the registry for client metrics
+     * @return the EmployeeApi for the domain to use
+     */
+    @Bean
+    public EmployeeApi employeeApi(RestTemplate restTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        EmployeeApi api = backend(restTemplate, objectMapper, meterRegistry);
+        if (simulatorEnabled) {
+            api = new FaultInjectingEmployeeApi(api, simulatedLatencyMedian, simulatedLatencyP99, simulatedListLatencyFactor,
+                                                simulatedThrottleRate, simulatedErrorRate, simulatedTruncateRate, simulatedPayloadBytes,
+                                                simulatorSeed);
+        }
+        api = new TimedEmployeeApi(api, meterRegistry);
+        if (circuitBreakerEnabled) {
+            CircuitBreaker circuitBreaker = new CircuitBreaker("rq-client", failureRateThreshold, slowCallRateThreshold, slowCallDuration,
+                                                               windowSize, minimumCalls, openDuration, halfOpenCalls, System::nanoTime,
+                                                               meterRegistry);
+            api = new CircuitBreakingEmployeeApi(api, circuitBreaker, meterRegistry);
+        }
+        if (cacheEnabled) {
+            SnapshotStore store = cacheSnapshotFile.isBlank() ? SnapshotStore.NONE
+                                                              : new MappedSnapshotStore(Path.of(cacheSnapshotFile), Clock.systemUTC());
+            CachingEmployeeApi cachingApi = new CachingEmployeeApi(api, cacheTtl, cacheRefreshAhead, refreshExecutor, Clock.systemUTC(),
+                                                                   store);
+            cachingApi.bindTo(meterRegistry);
+            cachingApi.warmStart();
+            api = cachingApi;
+        }
+        return api;
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+        if (null != localApi) {
+            localApi.close();
+        }
+    }
+
+    private EmployeeApi backend(RestTemplate restTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        switch (backend) {
+            case "upstream":
+                return new RestApiExampleService(restTemplate, objectMapper, meterRegistry, conditionalMaxEntries);
+            case "local":
+                EmployeeLog employeeLog = localDataFile.isBlank() ? EmployeeLog.NONE : new FileEmployeeLog(Path.of(localDataFile));
+                localApi = new LocalEmployeeApi(employeeLog);
+                localApi.open(localSeedCount, localSeed);
+                return localApi;
+            default:
+                throw new IllegalArgumentException("Unknown rq.client.backend " + backend + ", expected upstream or local");
+        }
+    }
+}
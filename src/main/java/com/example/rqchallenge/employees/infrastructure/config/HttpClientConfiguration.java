@@ -0,0 +1,157 @@
+package com.example.rqchallenge.employees.infrastructure.config;
+
+import com.example.rqchallenge.employees.infrastructure.support.AdaptiveRateLimiter;
+import com.example.rqchallenge.employees.infrastructure.support.RateLimitingInterceptor;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.time.Duration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * Pooled Apache HttpClient for the RestTemplate. Connections to the upstream are kept alive and reused instead of
+ * paying a TLS handshake per call, idle and expired ones are evicted in the background, responses are gzip'd and
+ * every stage of a call has a timeout. Pool usage is published as httpcomponents.httpclient.pool.* metrics. Every
+ * call also goes through an adaptive rate limiter with retries for GETs.
+ */
+@Configuration
+public class HttpClientConfiguration {
+
+    @Value("${rq.client.http.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${rq.client.http.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${rq.client.http.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${rq.client.http.read-timeout:10s}")
+    private Duration readTimeout;
+
+    @Value("${rq.client.http.connection-request-timeout:2s}")
+    private Duration connectionRequestTimeout;
+
+    @Value("${rq.client.http.keep-alive:30s}")
+    private Duration keepAlive;
+
+    @Value("${rq.client.http.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    @Value("${rq.client.http.compression:true}")
+    private boolean compression;
+
+    @Value("${rq.client.rate-limit.max-rate:10}")
+    private double maxRate;
+
+    @Value("${rq.client.rate-limit.min-rate:0.5}")
+    private double minRate;
+
+    @Value("${rq.client.rate-limit.burst:10}")
+    private double burst;
+
+    @Value("${rq.client.rate-limit.max-wait:5s}")
+    private Duration maxWait;
+
+    @Value("${rq.client.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${rq.client.retry.backoff-base:200ms}")
+    private Duration backoffBase;
+
+    @Value("${rq.client.retry.backoff-cap:5s}")
+    private Duration backoffCap;
+
+    /**
+     * The pool of upstream connections
+     *
+     * @param meterRegistry the registry for pool metrics
+     * @return the connection manager
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager employeeConnectionManager(MeterRegistry meterRegistry) {
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                                                            .setConnectTimeout(timeout(connectTimeout))
+                                                            .setSocketTimeout(timeout(readTimeout))
+                                                            .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                                                            .build();
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                                                                                                         .setMaxConnTotal(maxConnections)
+                                                                                                         .setMaxConnPerRoute(maxConnectionsPerRoute)
+                                                                                                         .setDefaultConnectionConfig(connectionConfig)
+                                                                                                         .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "rq-client").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    /**
+     * The HttpClient over the pool, closing it stops the idle connection evictor
+     *
+     * @param employeeConnectionManager the pool of upstream connections
+     * @return the HttpClient
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient employeeHttpClient(PoolingHttpClientConnectionManager employeeConnectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                                                   .setConnectionRequestTimeout(timeout(connectionRequestTimeout))
+                                                   .setResponseTimeout(timeout(readTimeout))
+                                                   .setConnectionKeepAlive(TimeValue.of(keepAlive))
+                                                   .build();
+        HttpClientBuilder builder = HttpClients.custom()
+                                               .setConnectionManager(employeeConnectionManager)
+                                               .setDefaultRequestConfig(requestConfig)
+                                               .evictExpiredConnections()
+                                               .evictIdleConnections(TimeValue.of(maxIdleTime));
+        if (!compression) {
+            builder.disableContentCompression();
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param employeeHttpClient the pooled HttpClient
+     * @return the request factory for the RestTemplate
+     */
+    @Bean
+    public ClientHttpRequestFactory employeeRequestFactory(CloseableHttpClient employeeHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(employeeHttpClient);
+    }
+
+    /**
+     * @param meterRegistry the registry to publish the limiter's state on
+     * @return the limiter for all upstream calls
+     */
+    @Bean
+    public AdaptiveRateLimiter employeeRateLimiter(MeterRegistry meterRegistry) {
+        return new AdaptiveRateLimiter(maxRate, minRate, burst, System::nanoTime, meterRegistry);
+    }
+
+    /**
+     * @param employeeRateLimiter the limiter for all upstream calls
+     * @param meterRegistry       the registry to count retries on
+     * @return the interceptor applying the limiter and retries to the RestTemplate
+     */
+    @Bean
+    public RateLimitingInterceptor employeeRateLimitingInterceptor(AdaptiveRateLimiter employeeRateLimiter, MeterRegistry meterRegistry) {
+        return new RateLimitingInterceptor(employeeRateLimiter, maxWait, maxAttempts, backoffBase, backoffCap, meterRegistry);
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.rqchallenge.employees.infrastructure.config;
+
+import com.example.rqchallenge.employees.infrastructure.service.ReactiveEmployeeApi;
+import com.example.rqchallenge.employees.infrastructure.service.WebClientEmployeeApi;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Wires up the non-blocking ReactiveEmployeeApi, only when rq.client.reactive.enabled is set. Connections come from a
+ * bounded pool and callers queue for one (up to a limit) rather than opening more, which is what applies backpressure
+ * to the upstream.
+ */
+@Configuration
+@ConditionalOnProperty(name = "rq.client.reactive.enabled", havingValue = "true")
+public class ReactiveEmployeeApiConfiguration {
+
+    @Value("${rq.client.uri}")
+    private String uri;
+
+    @Value("${rq.client.reactive.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${rq.client.reactive.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${rq.client.reactive.pending-timeout:5s}")
+    private Duration pendingTimeout;
+
+    @Value("${rq.client.reactive.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    @Value("${rq.client.reactive.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${rq.client.reactive.call-timeout:10s}")
+    private Duration callTimeout;
+
+    @Value("${rq.client.reactive.http2:false}")
+    private boolean http2;
+
+    /**
+     * The pool of upstream connections, disposed with the context
+     *
+     * @return the connection provider
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider employeeConnectionProvider() {
+        return ConnectionProvider.builder("rq-client")
+                                 .maxConnections(maxConnections)
+                                 .pendingAcquireMaxCount(maxPending)
+                                 .pendingAcquireTimeout(pendingTimeout)
+                                 .maxIdleTime(maxIdleTime)
+                                 .build();
+    }
+
+    /**
+     * Build the ReactiveEmployeeApi on a WebClient over the pooled reactor netty client. User-Agent required to get
+     * around 429 Too many request errors
+     *
+     * @param builder                    WebClient.Builder from spring
+     * @param employeeConnectionProvider the pool of upstream connections
+     * @param objectMapper               the ObjectMapper for reading the streamed employee list
+     * @return the ReactiveEmployeeApi
+     */
+    @Bean
+    public ReactiveEmployeeApi reactiveEmployeeApi(WebClient.Builder builder, ConnectionProvider employeeConnectionProvider,
+                                                   ObjectMapper objectMapper) {
+        HttpClient httpClient = HttpClient.create(employeeConnectionProvider)
+                                          .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                                          .responseTimeout(callTimeout)
+                                          .compress(true);
+        if (http2) {
+            // negotiated over TLS with ALPN, falling back to HTTP/1.1 when the upstream doesn't offer h2
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        WebClient webClient = builder.baseUrl(uri)
+                                     .defaultHeader("User-Agent", "RqChallenge/1.0")
+                                     .clientConnector(new ReactorClientHttpConnector(httpClient))
+                                     .build();
+        return new WebClientEmployeeApi(webClient, objectMapper, callTimeout);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.rqchallenge.employees.infrastructure.persistence;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * A record of every create and delete made to a local employee store, replayed on startup to rebuild it.
+ */
+public interface EmployeeLog extends Closeable {
+
+    /**
+     * A log that has nothing to replay and discards everything appended to it
+     */
+    EmployeeLog NONE = new EmployeeLog() {
+        @Override
+        public int replay(Consumer<Employee> created, LongConsumer deleted) {
+            return 0;
+        }
+
+        @Override
+        public void created(List<Employee> employees) {
+        }
+
+        @Override
+        public void deleted(long id) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * Replays the log in the order it was written
+     *
+     * @param created given each employee that was created
+     * @param deleted given the id of each employee that was deleted
+     * @return the number of records replayed
+     */
+    int replay(Consumer<Employee> created, LongConsumer deleted);
+
+    /**
+     * Records employees being created, all in one write
+     *
+     * @param employees the employees created
+     */
+    void created(List<Employee> employees);
+
+    /**
+     * Records an employee being deleted
+     *
+     * @param id the id of the employee deleted
+     */
+    void deleted(long id);
+
+    /**
+     * Closes the log, nothing can be appended afterwards
+     */
+    @Override
+    void close();
+}
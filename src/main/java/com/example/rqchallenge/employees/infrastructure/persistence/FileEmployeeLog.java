@@ -0,0 +1,252 @@
+package com.example.rqchallenge.employees.infrastructure.persistence;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append only file of employee creates and deletes.
+ * <pre>
+ * header   magic "RQEL", version
+ * create   1, id, flags (1 = no name, 2 = no profile image), salary, age, name, profile image
+ * delete   2, id
+ * </pre>
+ * Numbers are big endian and strings are modified UTF-8 as written by DataOutputStream. Each append is flushed to
+ * the OS before it returns but not forced to disk, so a process crash loses nothing but a machine crash can lose the
+ * tail. A torn or unreadable tail is logged and cut off on replay so appends carry on after the last whole record.
+ * The log has to be replayed before anything can be appended to it.
+ */
+@Slf4j
+public class FileEmployeeLog implements EmployeeLog {
+
+    public static final int MAGIC = 0x4c455152;
+    public static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 8;
+    private static final byte CREATE = 1;
+    private static final byte DELETE = 2;
+    private static final byte NO_NAME = 1;
+    private static final byte NO_PROFILE_IMAGE = 2;
+
+    private final Path file;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private DataOutputStream out;
+
+    /**
+     * @param file the file to keep the log in, created on replay if it doesn't exist
+     */
+    public FileEmployeeLog(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Replays the log and opens it for appending after the last whole record
+     *
+     * @param created given each employee that was created
+     * @param deleted given the id of each employee that was deleted
+     * @return the number of records replayed
+     */
+    @Override
+    public int replay(Consumer<Employee> created, LongConsumer deleted) {
+        lock.lock();
+        try {
+            if (null != out) {
+                throw new IllegalStateException("Employee log " + file + " has already been replayed");
+            }
+            Path parent = file.toAbsolutePath()
+                              .getParent();
+            if (null != parent) {
+                Files.createDirectories(parent);
+            }
+            int records = 0;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long start = System.nanoTime();
+                CountingInputStream counted = new CountingInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+                DataInputStream in = new DataInputStream(counted);
+                long whole = 0;
+                if (channel.size() >= HEADER_BYTES) {
+                    readHeader(in);
+                    records = readRecords(in, counted, created, deleted);
+                    whole = counted.count;
+                }
+                if (whole < channel.size()) {
+                    log.warn("Cutting {} unreadable bytes off the end of employee log {}", channel.size() - whole, file);
+                    channel.truncate(whole);
+                }
+                log.info("Replayed {} records from {} in {}ms", records, file, (System.nanoTime() - start) / 1_000_000);
+            }
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.APPEND)));
+            if (Files.size(file) == 0) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.flush();
+            }
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay employee log " + file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends a create record for each employee and flushes them together
+     *
+     * @param employees the employees created
+     */
+    @Override
+    public void created(List<Employee> employees) {
+        append(data -> {
+            for (Employee employee : employees) {
+                data.writeByte(CREATE);
+                data.writeLong(employee.getId());
+                data.writeByte((null == employee.getName() ? NO_NAME : 0) | (null == employee.getProfile_image() ? NO_PROFILE_IMAGE : 0));
+                data.writeInt(employee.getSalary());
+                data.writeInt(employee.getAge());
+                data.writeUTF(null == employee.getName() ? "" : employee.getName());
+                data.writeUTF(null == employee.getProfile_image() ? "" : employee.getProfile_image());
+            }
+        });
+    }
+
+    /**
+     * Appends a delete record and flushes it
+     *
+     * @param id the id of the employee deleted
+     */
+    @Override
+    public void deleted(long id) {
+        append(data -> {
+            data.writeByte(DELETE);
+            data.writeLong(id);
+        });
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (null != out) {
+                out.close();
+            }
+        } catch (IOException e) {
+            log.warn("Could not close employee log {}", file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(Record record) {
+        lock.lock();
+        try {
+            if (null == out) {
+                throw new IllegalStateException("Employee log " + file + " has to be replayed before it can be appended to");
+            }
+            record.writeTo(out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to employee log " + file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void readHeader(DataInputStream in) throws IOException {
+        int magic = in.readInt();
+        int version = in.readInt();
+        if (magic != MAGIC || version != VERSION) {
+            throw new IOException(String.format("%s is not a version %d employee log (magic %x, version %d)", file, VERSION, magic,
+                                                version));
+        }
+    }
+
+    /**
+     * Reads records until the end of the log or the first one that can't be read, returning how many were read. The
+     * stream's count is left at the end of the last whole record.
+     */
+    private int readRecords(DataInputStream in, CountingInputStream counted, Consumer<Employee> created, LongConsumer deleted)
+            throws IOException {
+        int records = 0;
+        long whole = counted.count;
+        try {
+            int op;
+            while ((op = in.read()) != -1) {
+                if (op == CREATE) {
+                    long id = in.readLong();
+                    int flags = in.readByte();
+                    int salary = in.readInt();
+                    int age = in.readInt();
+                    String name = in.readUTF();
+                    String profileImage = in.readUTF();
+                    created.accept(new Employee(id, (flags & NO_NAME) != 0 ? null : name, salary, age,
+                                                (flags & NO_PROFILE_IMAGE) != 0 ? null : profileImage));
+                } else if (op == DELETE) {
+                    deleted.accept(in.readLong());
+                } else {
+                    log.warn("Unknown record type {} in employee log {}", op, file);
+                    break;
+                }
+                records++;
+                whole = counted.count;
+            }
+        } catch (EOFException e) {
+            log.warn("Employee log {} ends part way through a record", file);
+        }
+        counted.count = whole;
+        return records;
+    }
+
+    @FunctionalInterface
+    private interface Record {
+        void writeTo(DataOutputStream data) throws IOException;
+    }
+
+    /**
+     * Counts the bytes read through it so replay knows where the last whole record ended
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read != -1) {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = super.read(bytes, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
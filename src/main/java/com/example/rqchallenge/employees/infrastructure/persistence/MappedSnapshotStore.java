@@ -0,0 +1,104 @@
+package com.example.rqchallenge.employees.infrastructure.persistence;
+
+import com.example.rqchallenge.employees.domain.model.EmployeeColumnsFormat;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Optional;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the snapshot in a file in the EmployeeColumnsFormat layout. Loading maps the file and bulk copies each column
+ * out of the mapping, there's no per employee parsing, so even a large snapshot is back in memory in milliseconds.
+ * Saves write a temporary file alongside and move it over the old one so a crash mid save leaves the previous
+ * snapshot intact. A missing, truncated, corrupt or old version file is logged and treated as no snapshot.
+ */
+@Slf4j
+public class MappedSnapshotStore implements SnapshotStore {
+
+    private final Path file;
+    private final Clock clock;
+
+    /**
+     * @param file  the file to keep the snapshot in
+     * @param clock the clock used to stamp saves
+     */
+    public MappedSnapshotStore(Path file, Clock clock) {
+        this.file = file;
+        this.clock = clock;
+    }
+
+    /**
+     * Loads the snapshot from the file
+     *
+     * @return the Optional snapshot, empty if there's no usable file
+     */
+    @Override
+    public Optional<StoredSnapshot> load() {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            EmployeeSnapshot snapshot = EmployeeSnapshot.of(EmployeeColumnsFormat.read(mapped));
+            Instant savedAt = Instant.ofEpochMilli(EmployeeColumnsFormat.writtenAt(mapped));
+            log.info("Loaded {} employees saved at {} from {} in {}ms", snapshot.size(), savedAt, file,
+                     (System.nanoTime() - start) / 1_000_000);
+            return Optional.of(new StoredSnapshot(snapshot, savedAt));
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Ignoring unreadable employee snapshot {}", file, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Saves the snapshot to the file, replacing it
+     *
+     * @param snapshot the snapshot to save
+     */
+    @Override
+    public void save(EmployeeSnapshot snapshot) {
+        long size = EmployeeColumnsFormat.size(snapshot.columns());
+        if (size > Integer.MAX_VALUE) {
+            log.warn("Not saving employee snapshot of {} bytes, it is too large to map", size);
+            return;
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Path parent = file.toAbsolutePath()
+                              .getParent();
+            if (null != parent) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                                        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                EmployeeColumnsFormat.write(snapshot.columns(), clock.millis(), mapped);
+                mapped.force();
+            }
+            move(temporary);
+            log.debug("Saved {} employees to {}", snapshot.size(), file);
+        } catch (IOException e) {
+            log.warn("Could not save employee snapshot to {}", file, e);
+        }
+    }
+
+    private void move(Path temporary) throws IOException {
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
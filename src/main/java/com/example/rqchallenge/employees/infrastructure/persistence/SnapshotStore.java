@@ -0,0 +1,62 @@
+package com.example.rqchallenge.employees.infrastructure.persistence;
+
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Somewhere to keep the latest employee snapshot between restarts so a new instance has something to serve before
+ * its first upstream call completes.
+ */
+public interface SnapshotStore {
+
+    /**
+     * A store that never has a snapshot and discards anything saved to it
+     */
+    SnapshotStore NONE = new SnapshotStore() {
+        @Override
+        public Optional<StoredSnapshot> load() {
+            return Optional.empty();
+        }
+
+        @Override
+        public void save(EmployeeSnapshot snapshot) {
+        }
+    };
+
+    /**
+     * Loads the last saved snapshot
+     *
+     * @return the Optional snapshot, empty if nothing (usable) has been saved
+     */
+    Optional<StoredSnapshot> load();
+
+    /**
+     * Saves a snapshot, replacing the last one
+     *
+     * @param snapshot the snapshot to save
+     */
+    void save(EmployeeSnapshot snapshot);
+
+    /**
+     * A loaded snapshot and when it was saved
+     */
+    final class StoredSnapshot {
+        private final EmployeeSnapshot employees;
+        private final Instant savedAt;
+
+        public StoredSnapshot(EmployeeSnapshot employees, Instant savedAt) {
+            this.employees = employees;
+            this.savedAt = savedAt;
+        }
+
+        public EmployeeSnapshot employees() {
+            return employees;
+        }
+
+        public Instant savedAt() {
+            return savedAt;
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.example.rqchallenge.employees.infrastructure.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
+import com.example.rqchallenge.employees.infrastructure.persistence.SnapshotStore;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToDoubleFunction;
+import java.util.function.UnaryOperator;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caching decorator for an EmployeeApi. Keeps an immutable snapshot of the full employee list so reads don't need a
+ * round trip to the (slow, rate limited) upstream. Once the snapshot is older than the refresh ahead point a single
+ * background refresh is started and the current snapshot keeps being served until it lands. Only a cold or fully
+ * expired cache with no refresh in flight blocks on the upstream. Creates and deletes are written through to the
+ * delegate and then patched into the snapshot, along with every index already built on it, so reads see the write
+ * straight away without reloading the list. A patch copies the snapshot's columns and indexes, O(n) per write but no
+ * sorting. Each snapshot loaded from the delegate is also saved to the snapshot store, in the background, so warmStart
+ * can serve it straight away after a restart. The snapshot's size and age are published as rq.cache.snapshot.* gauges.
+ * Readers take the current snapshot, a new version for every change, from a single atomic reference and never lock.
+ * Writers build the next version off the request path, a refresh on the refresh executor with the indexes the current
+ * snapshot had already built, and swap it in one at a time. Creates and deletes patched in while a load or refresh is
+ * fetching are replayed onto what it fetched before it is swapped in, so a refresh never undoes a write through.
+ * Reloads and refreshes of a streaming delegate ask for the employees only if they have changed, when they haven't the
+ * current snapshot (and the indexes already built on it) is kept and just treated as freshly loaded.
+ */
+@Slf4j
+public class CachingEmployeeApi implements EmployeeApi, MeterBinder {
+
+    private final EmployeeApi delegate;
+    private final Duration ttl;
+    private final Duration refreshAfter;
+    private final Executor refreshExecutor;
+    private final Clock clock;
+    private final SnapshotStore store;
+
+    private final AtomicReference<CachedSnapshot> cached = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final ReentrantLock publishLock = new ReentrantLock();
+    // writes patched in while a load or refresh is fetching, replayed onto what it fetched, guarded by publishLock
+    private final List<UnaryOperator<EmployeeSnapshot>> pendingWrites = new ArrayList<>();
+    private int fetching;
+
+    /**
+     * @param delegate        the EmployeeApi to cache
+     * @param ttl             how long a snapshot can be served for before it has to be reloaded
+     * @param refreshAhead    how long before the ttl expires a background refresh should be started
+     * @param refreshExecutor the executor background refreshes run on
+     * @param clock           the clock used to age snapshots
+     * @param store           where loaded snapshots are saved for warmStart, SnapshotStore.NONE to not keep them
+     */
+    public CachingEmployeeApi(EmployeeApi delegate, Duration ttl, Duration refreshAhead, Executor refreshExecutor, Clock clock,
+                              SnapshotStore store) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Cache ttl must be positive but was " + ttl);
+        }
+        this.delegate = delegate;
+        this.ttl = ttl;
+        this.refreshAfter = refreshAhead.compareTo(ttl) >= 0 ? Duration.ZERO : ttl.minus(refreshAhead);
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+        this.store = store;
+    }
+
+    /**
+     * Seeds a cold cache with the snapshot from the store and starts a background refresh, so reads are served from
+     * the stored snapshot while the refresh catches up. The stored snapshot is treated as no newer than due for
+     * refresh, so if the refresh fails it is only served for the refresh ahead period before reads block on the
+     * delegate again.
+     */
+    public void warmStart() {
+        store.load()
+             .ifPresent(stored -> {
+                 Instant dueForRefresh = clock.instant()
+                                              .minus(refreshAfter);
+                 Instant loadedAt = stored.savedAt()
+                                          .isAfter(dueForRefresh) ? stored.savedAt() : dueForRefresh;
+                 if (cached.compareAndSet(null, new CachedSnapshot(stored.employees(), loadedAt))) {
+                     refreshAsync();
+                 }
+             });
+    }
+
+    /**
+     * Publishes the current snapshot's size, estimated footprint and age, all 0 while the cache is cold
+     *
+     * @param registry the registry to publish the gauges on
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rq.cache.snapshot.size", this, api -> api.snapshotStat(current -> current.employees.size()))
+             .description("Employees in the cached snapshot")
+             .register(registry);
+        Gauge.builder("rq.cache.snapshot.bytes", this, api -> api.snapshotStat(current -> current.employees.columns()
+                                                                                                        .estimatedBytes()))
+             .description("Estimated heap used by the cached snapshot's columns")
+             .baseUnit("bytes")
+             .register(registry);
+        Gauge.builder("rq.cache.snapshot.age", this, api -> api.snapshotStat(api::ageSeconds))
+             .description("Time since the cached snapshot was loaded")
+             .baseUnit("seconds")
+             .register(registry);
+    }
+
+    /**
+     * Finds all the employees from the cached snapshot, loading or refreshing it when needed
+     *
+     * @return an immutable list of all the employees
+     */
+    @Override
+    public List<Employee> findAll() {
+        return snapshot();
+    }
+
+    /**
+     * Finds an employee by id, using the snapshot when it is still within its ttl
+     *
+     * @param id the employee id
+     * @return an Optional employee
+     */
+    @Override
+    public Optional<Employee> findById(String id) {
+        Optional<Employee> local = findLocal(id);
+        return local.isPresent() ? local : delegate.findById(id);
+    }
+
+    /**
+     * Finds an employee in the snapshot if it is still within its ttl, never calling the delegate
+     *
+     * @param id the employee id
+     * @return an Optional employee, empty if the snapshot is cold, expired or doesn't hold the id
+     */
+    @Override
+    public Optional<Employee> findLocal(String id) {
+        CachedSnapshot current = cached.get();
+        Optional<Long> employeeId = parseId(id);
+        if (null != current && employeeId.isPresent() && !isExpired(current)) {
+            int position = current.employees.indexOfId(employeeId.get());
+            if (position >= 0) {
+                return Optional.of(current.employees.get(position));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Creates an employee on the delegate and adds it to the snapshot
+     *
+     * @param name   the employee name
+     * @param salary the employee salary
+     * @param age    the employee age
+     * @return the Optional Employee
+     */
+    @Override
+    public Optional<Employee> create(String name, String salary, String age) {
+        Optional<Employee> created = delegate.create(name, salary, age);
+        created.ifPresent(employee -> patch(employees -> employees.withAdded(employee)));
+        return created;
+    }
+
+    /**
+     * Deletes an employee on the delegate and removes it from the snapshot
+     *
+     * @param id the employee id to delete
+     * @return Optional string of success or failure
+     */
+    @Override
+    public Optional<String> delete(String id) {
+        Optional<String> status = delegate.delete(id);
+        if (status.filter("success"::equals)
+                  .isPresent()) {
+            Optional<Long> employeeId = parseId(id);
+            if (employeeId.isPresent()) {
+                patch(employees -> employees.withRemoved(employeeId.get()));
+            } else {
+                invalidate();
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Drops the current snapshot so the next read goes to the delegate
+     */
+    public void invalidate() {
+        log.debug("Invalidating employee snapshot");
+        cached.set(null);
+    }
+
+    /**
+     * Gets the current snapshot, loading it if the cache is cold or expired and starting a background refresh if
+     * it is due for one
+     *
+     * @return the current snapshot
+     */
+    EmployeeSnapshot snapshot() {
+        CachedSnapshot current = cached.get();
+        if (null == current) {
+            return load().employees;
+        }
+        if (isExpired(current) && !refreshing.get()) {
+            return load().employees;
+        }
+        if (isDueForRefresh(current)) {
+            refreshAsync();
+        }
+        return current.employees;
+    }
+
+    private CachedSnapshot load() {
+        // a lock rather than synchronized so virtual threads waiting on the upstream don't pin their carrier
+        loadLock.lock();
+        int writesAt = startFetch();
+        try {
+            CachedSnapshot current = cached.get();
+            if (null != current && !isExpired(current)) {
+                return current;
+            }
+            log.debug("Loading employee snapshot");
+            CachedSnapshot loaded = publish(fetch(current), writesAt, clock.instant());
+            if (null == current || loaded.employees != current.employees) {
+                saveAsync(loaded.employees);
+            }
+            return loaded;
+        } finally {
+            endFetch();
+            loadLock.unlock();
+        }
+    }
+
+    private void refreshAsync() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    log.debug("Refreshing employee snapshot");
+                    int writesAt = startFetch();
+                    try {
+                        CachedSnapshot current = cached.get();
+                        EmployeeSnapshot refreshed = fetch(current);
+                        if (null != current) {
+                            refreshed.buildIndexesLike(current.employees);
+                        }
+                        publish(refreshed, writesAt, clock.instant());
+                        if (null == current || refreshed != current.employees) {
+                            store.save(refreshed);
+                        }
+                    } finally {
+                        endFetch();
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Could not refresh employee snapshot, continuing to serve the existing one", e);
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            log.warn("Could not schedule employee snapshot refresh", e);
+        }
+    }
+
+    private void saveAsync(EmployeeSnapshot employees) {
+        if (store == SnapshotStore.NONE) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> store.save(employees));
+        } catch (RuntimeException e) {
+            log.warn("Could not schedule employee snapshot save", e);
+        }
+    }
+
+    /**
+     * Gets a new snapshot from the delegate, streamed straight into the snapshot's columns when the delegate streams
+     * so the full list of employee objects is never held. With a current snapshot to fall back on the stream is only
+     * taken if it has changed, otherwise the current snapshot is returned as is.
+     */
+    private EmployeeSnapshot fetch(CachedSnapshot current) {
+        if (delegate.isStreaming()) {
+            EmployeeSnapshot.Builder builder = EmployeeSnapshot.builder();
+            if (null == current) {
+                delegate.streamAll(builder);
+            } else if (!delegate.streamAllIfChanged(builder)) {
+                log.debug("Employee list unchanged, keeping the current snapshot");
+                return current.employees;
+            }
+            return builder.build();
+        }
+        return EmployeeSnapshot.of(delegate.findAll());
+    }
+
+    /**
+     * Marks the start of a fetch from the delegate, from here on writes are kept to be replayed onto what it fetches
+     *
+     * @return the number of writes already kept, which the fetch doesn't need replayed
+     */
+    private int startFetch() {
+        publishLock.lock();
+        try {
+            fetching++;
+            return pendingWrites.size();
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private void endFetch() {
+        publishLock.lock();
+        try {
+            if (--fetching == 0) {
+                pendingWrites.clear();
+            }
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * Swaps in a newly fetched version. Any write patched in since the fetch started may not be in what it fetched
+     * (an unchanged answer is the snapshot from before the write) so each is replayed onto it first, a create of an
+     * employee that is already there just replaces it and a delete of one that isn't there does nothing.
+     *
+     * @param writesAt the number of kept writes when the fetch started
+     */
+    private CachedSnapshot publish(EmployeeSnapshot employees, int writesAt, Instant loadedAt) {
+        publishLock.lock();
+        try {
+            EmployeeSnapshot replayed = employees;
+            for (UnaryOperator<EmployeeSnapshot> write : pendingWrites.subList(writesAt, pendingWrites.size())) {
+                replayed = write.apply(replayed);
+            }
+            CachedSnapshot published = new CachedSnapshot(replayed, loadedAt);
+            cached.set(published);
+            return published;
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * Derives the next version from the current one, keeping the write for any fetch in flight. Patches take the
+     * publish lock rather than retrying a compare and set, so a patch (and the indexes it carries over) is only ever
+     * worked out once and a fetch can't publish between a patch and it being kept.
+     */
+    private void patch(UnaryOperator<EmployeeSnapshot> change) {
+        publishLock.lock();
+        try {
+            if (fetching > 0) {
+                pendingWrites.add(change);
+            }
+            CachedSnapshot current = cached.get();
+            if (null != current) {
+                cached.set(new CachedSnapshot(change.apply(current.employees), current.loadedAt));
+            }
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private boolean isExpired(CachedSnapshot snapshot) {
+        return !clock.instant()
+                     .isBefore(snapshot.loadedAt.plus(ttl));
+    }
+
+    private boolean isDueForRefresh(CachedSnapshot snapshot) {
+        return !clock.instant()
+                     .isBefore(snapshot.loadedAt.plus(refreshAfter));
+    }
+
+    private double ageSeconds(CachedSnapshot snapshot) {
+        return Duration.between(snapshot.loadedAt, clock.instant())
+                       .toMillis() / 1e3;
+    }
+
+    private double snapshotStat(ToDoubleFunction<CachedSnapshot> stat) {
+        CachedSnapshot current = cached.get();
+        return (null == current) ? 0 : stat.applyAsDouble(current);
+    }
+
+    private static Optional<Long> parseId(String id) {
+        try {
+            return Optional.of(Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static final class CachedSnapshot {
+        private final EmployeeSnapshot employees;
+        private final Instant loadedAt;
+
+        private CachedSnapshot(EmployeeSnapshot employees, Instant loadedAt) {
+            this.employees = employees;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
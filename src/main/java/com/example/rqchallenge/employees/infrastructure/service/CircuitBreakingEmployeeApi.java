@@ -0,0 +1,186 @@
+package com.example.rqchallenge.employees.infrastructure.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
+import com.example.rqchallenge.employees.infrastructure.support.CallNotPermittedException;
+import com.example.rqchallenge.employees.infrastructure.support.CircuitBreaker;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Circuit breaking decorator for an EmployeeApi. Once the upstream is failing or too slow calls are refused without
+ * waiting on it. While the circuit is open reads are answered from the last employee list the upstream returned
+ * (if there is one) and writes fail fast with a CallNotPermittedException. Writes that succeed are patched into the
+ * last good list so it doesn't go back on them. Client errors other than 429 are the caller's fault rather than the
+ * upstream's so they don't count against the circuit, nor does the time a streaming caller's consumer takes.
+ */
+@Slf4j
+public class CircuitBreakingEmployeeApi implements EmployeeApi {
+
+    private final EmployeeApi delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Counter fallbacks;
+
+    private final AtomicReference<EmployeeSnapshot> lastGood = new AtomicReference<>();
+
+    public CircuitBreakingEmployeeApi(EmployeeApi delegate, CircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.fallbacks = Counter.builder("rq.client.circuitbreaker.fallbacks")
+                                .description("Reads answered from the last good employee list while the circuit was open")
+                                .register(meterRegistry);
+    }
+
+    /**
+     * Finds all the employees, or the last good list while the circuit is open
+     *
+     * @return a list of all the employees
+     */
+    @Override
+    public List<Employee> findAll() {
+        try {
+            EmployeeSnapshot employees = EmployeeSnapshot.of(circuitBreaker.execute(delegate::findAll, CircuitBreakingEmployeeApi::isUpstreamFailure));
+            lastGood.set(employees);
+            return employees;
+        } catch (CallNotPermittedException e) {
+            EmployeeSnapshot fallback = lastGood.get();
+            if (null == fallback) {
+                throw e;
+            }
+            log.debug("Circuit open, serving last good employee list");
+            fallbacks.increment();
+            return fallback;
+        }
+    }
+
+    /**
+     * Streams all the employees, or the last good list while the circuit is open. The circuit is checked before
+     * anything is handed to the consumer so the fallback never repeats employees. The streamed employees are passed
+     * straight through rather than kept as the last good list, so streaming without the cache stays constant memory,
+     * only findAll and streamAllIfChanged (which run under the cache that holds the list anyway) keep it.
+     *
+     * @param consumer the consumer to give each employee to
+     */
+    @Override
+    public void streamAll(Consumer<? super Employee> consumer) {
+        try {
+            circuitBreaker.executeStreaming(streamed -> {
+                delegate.streamAll(streamed);
+                return null;
+            }, consumer, CircuitBreakingEmployeeApi::isUpstreamFailure);
+        } catch (CallNotPermittedException e) {
+            EmployeeSnapshot fallback = lastGood.get();
+            if (null == fallback) {
+                throw e;
+            }
+            log.debug("Circuit open, streaming last good employee list");
+            fallbacks.increment();
+            fallback.forEach(consumer);
+        }
+    }
+
+    /**
+     * Streams all the employees if they have changed. When the consumer is a snapshot builder (the cache's refresh)
+     * the snapshot it builds becomes the last good list, shared rather than built a second time, and only when the
+     * employees have changed. Any other consumer is passed straight through, as in streamAll. There is no fallback
+     * while the circuit is open, the caller already holds the employees it is asking about and handing it the last
+     * good list (or claiming they are unchanged) would have it treat them as freshly loaded, so a snapshot of any age
+     * would never expire while the upstream is down.
+     *
+     * @param consumer the consumer to give each employee to
+     * @return true if the consumer was given the current employees, false if they are unchanged
+     * @throws CallNotPermittedException while the circuit is open
+     */
+    @Override
+    public boolean streamAllIfChanged(Consumer<? super Employee> consumer) {
+        boolean changed = circuitBreaker.executeStreaming(delegate::streamAllIfChanged, consumer, CircuitBreakingEmployeeApi::isUpstreamFailure);
+        if (changed && consumer instanceof EmployeeSnapshot.Builder builder) {
+            lastGood.set(builder.build());
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return delegate.isStreaming();
+    }
+
+    /**
+     * Finds an employee by id, or looks them up in the last good list while the circuit is open
+     *
+     * @param id the employee id
+     * @return an Optional employee
+     */
+    @Override
+    public Optional<Employee> findById(String id) {
+        try {
+            return circuitBreaker.execute(() -> delegate.findById(id), CircuitBreakingEmployeeApi::isUpstreamFailure);
+        } catch (CallNotPermittedException e) {
+            EmployeeSnapshot fallback = lastGood.get();
+            if (null == fallback) {
+                throw e;
+            }
+            log.debug("Circuit open, looking up employee {} in last good employee list", id);
+            fallbacks.increment();
+            try {
+                int position = fallback.indexOfId(Long.parseLong(id));
+                return (position >= 0) ? Optional.of(fallback.get(position)) : Optional.empty();
+            } catch (NumberFormatException invalidId) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Creates an employee, failing fast while the circuit is open
+     *
+     * @param name   the employee name
+     * @param salary the employee salary
+     * @param age    the employee age
+     * @return the Optional Employee
+     */
+    @Override
+    public Optional<Employee> create(String name, String salary, String age) {
+        Optional<Employee> created = circuitBreaker.execute(() -> delegate.create(name, salary, age),
+                                                            CircuitBreakingEmployeeApi::isUpstreamFailure);
+        created.ifPresent(employee -> lastGood.updateAndGet(employees -> (null == employees) ? null : employees.withAdded(employee)));
+        return created;
+    }
+
+    /**
+     * Deletes an employee, failing fast while the circuit is open
+     *
+     * @param id the employee id to delete
+     * @return Optional string of success or failure
+     */
+    @Override
+    public Optional<String> delete(String id) {
+        Optional<String> status = circuitBreaker.execute(() -> delegate.delete(id), CircuitBreakingEmployeeApi::isUpstreamFailure);
+        if (status.filter("success"::equals)
+                  .isPresent()) {
+            try {
+                long employeeId = Long.parseLong(id);
+                lastGood.updateAndGet(employees -> (null == employees) ? null : employees.withRemoved(employeeId));
+            } catch (NumberFormatException invalidId) {
+                log.debug("Not patching the last good employee list for a delete of id {}", id);
+            }
+        }
+        return status;
+    }
+
+    private static boolean isUpstreamFailure(RuntimeException e) {
+        return !(e instanceof HttpClientErrorException)
+                || ((HttpClientErrorException) e).getStatusCode()
+                                                 .value() == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+}
@@ -4,6 +4,7 @@ import com.example.rqchallenge.employees.domain.model.Employee;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EmployeeApi {
     List<Employee> findAll();
@@ -13,4 +14,48 @@ public interface EmployeeApi {
     Optional<Employee> create(String name, String salary, String age);
 
     Optional<String> delete(String id);
+
+    /**
+     * Finds an employee without going to the upstream, i.e. from a snapshot already held in memory. By default there
+     * is nothing held, caching implementations override it.
+     *
+     * @param id the employee id
+     * @return the Optional employee, empty if it isn't held locally (whether or not it exists upstream)
+     */
+    default Optional<Employee> findLocal(String id) {
+        return Optional.empty();
+    }
+
+    /**
+     * Hands every employee to the consumer in list order. By default this just walks findAll(), implementations
+     * reading from the upstream override it to hand employees over as they are parsed without building the list.
+     *
+     * @param consumer the consumer to give each employee to
+     */
+    default void streamAll(Consumer<? super Employee> consumer) {
+        findAll().forEach(consumer);
+    }
+
+    /**
+     * Like streamAll, but for a caller that still holds the employees from its last call to this method. If they are
+     * known to be unchanged it returns false and the caller should keep what it has, the consumer may or may not have
+     * been given the (same) employees. By default the employees are always streamed.
+     *
+     * @param consumer the consumer to give each employee to
+     * @return true if the consumer was given the current employees, false if they are unchanged since the last call
+     */
+    default boolean streamAllIfChanged(Consumer<? super Employee> consumer) {
+        streamAll(consumer);
+        return true;
+    }
+
+    /**
+     * Whether streamAll reads from the upstream as it goes rather than walking a list that is already in memory. When
+     * it is, one pass aggregations are cheaper streamed than built from findAll().
+     *
+     * @return true if streamAll doesn't materialize the employee list
+     */
+    default boolean isStreaming() {
+        return false;
+    }
 }
@@ -0,0 +1,194 @@
+package com.example.rqchallenge.employees.infrastructure.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+import java.util.stream.Collectors;
+
+/**
+ * Upstream simulator for load testing, a decorator that makes any EmployeeApi (usually the local one) behave like the
+ * real upstream. Every call first waits for a latency drawn from a log-normal distribution fitted to the configured
+ * median and 99th percentile, /employees calls wait listLatencyFactor times as long. Calls then fail with a 429 or a
+ * 500 at the configured rates, exactly as the RestTemplate would throw them, and employee lists are cut off part way
+ * at truncateRate, as a read error on a half received body. Employees read through it can be padded out to
+ * payloadBytes to test with larger responses. Enabled with rq.client.simulator.enabled. The dice are per thread so
+ * request threads don't contend on one generator, ThreadLocalRandom unless a seed is set, otherwise each thread gets
+ * its own split of the seeded generator (so a seeded run repeats for the same threads calling in the same order).
+ */
+public class FaultInjectingEmployeeApi implements EmployeeApi {
+
+    // the 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    private final EmployeeApi delegate;
+    private final double latencyMu;
+    private final double latencySigma;
+    private final double listLatencyFactor;
+    private final double throttleRate;
+    private final double errorRate;
+    private final double truncateRate;
+    private final String padding;
+    private final ThreadLocal<SplittableRandom> seededRandom;
+
+    /**
+     * @param delegate          the EmployeeApi to inject faults into
+     * @param latencyMedian     the median latency of a call, zero for no latency
+     * @param latencyP99        the 99th percentile latency of a call, at least the median
+     * @param listLatencyFactor how many times slower /employees calls are than the others
+     * @param throttleRate      the fraction of calls that fail with a 429
+     * @param errorRate         the fraction of calls that fail with a 500
+     * @param truncateRate      the fraction of employee lists that are cut off part way
+     * @param payloadBytes      the length to pad each employee's profile image out to, 0 to leave them alone
+     * @param seed              the seed for the faults, 0 for a different run every time
+     */
+    public FaultInjectingEmployeeApi(EmployeeApi delegate, Duration latencyMedian, Duration latencyP99, double listLatencyFactor,
+                                     double throttleRate, double errorRate, double truncateRate, int payloadBytes, long seed) {
+        if (latencyP99.compareTo(latencyMedian) < 0) {
+            throw new IllegalArgumentException("Simulated p99 latency " + latencyP99 + " is below the median " + latencyMedian);
+        }
+        this.delegate = delegate;
+        this.latencyMu = latencyMedian.isZero() ? Double.NEGATIVE_INFINITY : Math.log(latencyMedian.toNanos());
+        this.latencySigma = latencyMedian.isZero() ? 0 : Math.log((double) latencyP99.toNanos() / latencyMedian.toNanos()) / Z_99;
+        this.listLatencyFactor = listLatencyFactor;
+        this.throttleRate = throttleRate;
+        this.errorRate = errorRate;
+        this.truncateRate = truncateRate;
+        this.padding = "x".repeat(Math.max(0, payloadBytes));
+        this.seededRandom = (seed == 0) ? null : splits(new SplittableRandom(seed));
+    }
+
+    @Override
+    public List<Employee> findAll() {
+        simulate("/employees", listLatencyFactor);
+        List<Employee> employees = delegate.findAll();
+        if (random().nextDouble() < truncateRate) {
+            throw truncated("/employees");
+        }
+        return employees.stream()
+                        .map(this::pad)
+                        .collect(Collectors.toList());
+    }
+
+    /**
+     * Streams the employees, cutting the stream off at a random point (after handing some employees over) at the
+     * truncate rate
+     *
+     * @param consumer the consumer to give each employee to
+     */
+    @Override
+    public void streamAll(Consumer<? super Employee> consumer) {
+        simulate("/employees", listLatencyFactor);
+        RandomGenerator random = random();
+        if (random.nextDouble() < truncateRate) {
+            double cutOff = random.nextDouble();
+            List<Employee> employees = delegate.findAll();
+            employees.subList(0, (int) (employees.size() * cutOff))
+                     .forEach(employee -> consumer.accept(pad(employee)));
+            throw truncated("/employees");
+        }
+        delegate.streamAll(employee -> consumer.accept(pad(employee)));
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return delegate.isStreaming();
+    }
+
+    @Override
+    public Optional<Employee> findById(String id) {
+        simulate("/employee/" + id, 1);
+        return delegate.findById(id)
+                       .map(this::pad);
+    }
+
+    @Override
+    public Optional<Employee> create(String name, String salary, String age) {
+        simulate("/create", 1);
+        return delegate.create(name, salary, age);
+    }
+
+    @Override
+    public Optional<String> delete(String id) {
+        simulate("/delete/" + id, 1);
+        return delegate.delete(id);
+    }
+
+    /**
+     * Waits out the call's latency then fails it at the throttle and error rates
+     */
+    private void simulate(String path, double latencyFactor) {
+        pause(latencyFactor);
+        double roll = random().nextDouble();
+        if (roll < throttleRate) {
+            throw HttpClientErrorException.create("Simulated 429 from " + path, HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests",
+                                                  HttpHeaders.EMPTY, null, null);
+        }
+        if (roll < throttleRate + errorRate) {
+            throw HttpServerErrorException.create("Simulated 500 from " + path, HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error",
+                                                  HttpHeaders.EMPTY, null, null);
+        }
+    }
+
+    private void pause(double latencyFactor) {
+        if (latencyMu == Double.NEGATIVE_INFINITY) {
+            return;
+        }
+        double nanos = Math.exp(latencyMu + latencySigma * random().nextGaussian()) * latencyFactor;
+        try {
+            TimeUnit.NANOSECONDS.sleep((long) nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+    }
+
+    private RandomGenerator random() {
+        return (null == seededRandom) ? ThreadLocalRandom.current() : seededRandom.get();
+    }
+
+    /**
+     * Hands each thread its own split of the seeded generator, a SplittableRandom isn't safe to split from many
+     * threads at once so only the splitting is locked
+     */
+    private static ThreadLocal<SplittableRandom> splits(SplittableRandom seeded) {
+        ReentrantLock lock = new ReentrantLock();
+        return ThreadLocal.withInitial(() -> {
+            lock.lock();
+            try {
+                return seeded.split();
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    private Employee pad(Employee employee) {
+        if (padding.isEmpty() || null == employee) {
+            return employee;
+        }
+        String profileImage = (null == employee.getProfile_image()) ? "" : employee.getProfile_image();
+        if (profileImage.length() >= padding.length()) {
+            return employee;
+        }
+        return new Employee(employee.getId(), employee.getName(), employee.getSalary(), employee.getAge(),
+                            profileImage + padding.substring(profileImage.length()));
+    }
+
+    private static ResourceAccessException truncated(String path) {
+        return new ResourceAccessException("Simulated truncated response from " + path);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.rqchallenge.employees.infrastructure.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.infrastructure.persistence.EmployeeLog;
+import com.example.rqchallenge.employees.infrastructure.support.SyntheticEmployees;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Embedded EmployeeApi for running without the upstream, i.e. load tests and benchmarks on an offline machine. The
+ * employees are held in a concurrent map in id order and every create and delete is appended to the EmployeeLog so
+ * they survive a restart. Selected with rq.client.backend=local, it sits behind the same decorators as the upstream
+ * client so everything above it behaves as it would in production, just without the upstream's latency and rate limit.
+ */
+@Slf4j
+public class LocalEmployeeApi implements EmployeeApi, Closeable {
+
+    private static final int SEED_BATCH = 10_000;
+
+    private final EmployeeLog employeeLog;
+    private final ConcurrentSkipListMap<Long, Employee> employees = new ConcurrentSkipListMap<>();
+    private final AtomicLong lastId = new AtomicLong();
+
+    /**
+     * @param employeeLog where creates and deletes are recorded, EmployeeLog.NONE to only hold them in memory
+     */
+    public LocalEmployeeApi(EmployeeLog employeeLog) {
+        this.employeeLog = employeeLog;
+    }
+
+    /**
+     * Replays the log into memory, then seeds it with synthetic employees if it is still empty
+     *
+     * @param seedCount how many employees to generate into an empty store
+     * @param seed      the seed for the generated employees
+     */
+    public void open(int seedCount, long seed) {
+        employeeLog.replay(this::put, employees::remove);
+        if (employees.isEmpty() && seedCount > 0) {
+            long start = System.nanoTime();
+            List<Employee> batch = new ArrayList<>(Math.min(seedCount, SEED_BATCH));
+            SyntheticEmployees.generate(seedCount, lastId.get() + 1, seed, employee -> {
+                batch.add(employee);
+                if (batch.size() == SEED_BATCH) {
+                    add(batch);
+                    batch.clear();
+                }
+            });
+            add(batch);
+            log.info("Seeded {} synthetic employees in {}ms", seedCount, (System.nanoTime() - start) / 1_000_000);
+        }
+        log.info("Serving {} local employees", employees.size());
+    }
+
+    /**
+     * Finds all the employees, copied out of the store in id order
+     *
+     * @return a list of all the employees
+     */
+    @Override
+    public List<Employee> findAll() {
+        return Collections.unmodifiableList(new ArrayList<>(employees.values()));
+    }
+
+    /**
+     * Hands every employee in the store to the consumer in id order, without copying them into a list first. Employees
+     * created or deleted while it runs may or may not be included.
+     *
+     * @param consumer the consumer to give each employee to
+     */
+    @Override
+    public void streamAll(Consumer<? super Employee> consumer) {
+        employees.values()
+                 .forEach(consumer);
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
+    /**
+     * Finds an employee by id
+     *
+     * @param id the employee id
+     * @return an Optional employee, empty if there is no employee with the id
+     */
+    @Override
+    public Optional<Employee> findById(String id) {
+        try {
+            return Optional.ofNullable(employees.get(Long.parseLong(id)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Creates an employee with the next id
+     *
+     * @param name   the employee name
+     * @param salary the employee salary
+     * @param age    the employee age
+     * @return the Optional Employee, empty if the salary or age isn't a number
+     */
+    @Override
+    public Optional<Employee> create(String name, String salary, String age) {
+        try {
+            Employee employee = new Employee(lastId.incrementAndGet(), name, Integer.parseInt(salary), Integer.parseInt(age), "");
+            add(List.of(employee));
+            return Optional.of(employee);
+        } catch (NumberFormatException e) {
+            log.debug("Not creating employee with salary {} and age {}", salary, age);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Deletes an employee by id
+     *
+     * @param id the employee id to delete
+     * @return Optional "success", empty if there was no employee with the id
+     */
+    @Override
+    public Optional<String> delete(String id) {
+        try {
+            long employeeId = Long.parseLong(id);
+            if (null == employees.remove(employeeId)) {
+                return Optional.empty();
+            }
+            employeeLog.deleted(employeeId);
+            return Optional.of("success");
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the number of employees in the store
+     */
+    public int size() {
+        return employees.size();
+    }
+
+    @Override
+    public void close() {
+        employeeLog.close();
+    }
+
+    /**
+     * Logs the employees before adding them, so a delete can never be logged ahead of the create it undoes
+     */
+    private void add(List<Employee> created) {
+        employeeLog.created(created);
+        created.forEach(this::put);
+    }
+
+    private void put(Employee employee) {
+        employees.put(employee.getId(), employee);
+        lastId.accumulateAndGet(employee.getId(), Math::max);
+    }
+}
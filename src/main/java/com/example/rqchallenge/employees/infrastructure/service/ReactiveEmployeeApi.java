@@ -0,0 +1,16 @@
+package com.example.rqchallenge.employees.infrastructure.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveEmployeeApi {
+    Flux<Employee> findAll();
+
+    Mono<Employee> findById(String id);
+
+    Mono<Employee> create(String name, String salary, String age);
+
+    Mono<String> delete(String id);
+}
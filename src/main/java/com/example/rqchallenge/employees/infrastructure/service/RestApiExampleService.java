@@ -4,61 +4,208 @@ import com.example.rqchallenge.employees.domain.model.Employee;
 import com.example.rqchallenge.employees.infrastructure.model.DeleteResponse;
 import com.example.rqchallenge.employees.infrastructure.model.EmployeeListResponse;
 import com.example.rqchallenge.employees.infrastructure.model.EmployeeResponse;
+import com.example.rqchallenge.employees.infrastructure.support.ResponseValidators;
+import com.example.rqchallenge.employees.infrastructure.support.SingleFlight;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
-import org.springframework.stereotype.Service;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Rest API Example Service. Would have loved to build in some rate limiting but the Example service
- * is so slow that I really don't think this will be a viable option anyway. Some possible improvements
- * could be the use of WebFlux to create a reactive webclient.
+ * Rest API Example Service. Rate limiting (and retrying throttled GETs) is handled by the RestTemplate's
+ * RateLimitingInterceptor. There is a reactive WebClient version in WebClientEmployeeApi. Created by
+ * EmployeeApiConfiguration rather than component scanning so it can be wrapped by the caching decorator. Concurrent
+ * identical GETs are coalesced so a burst of requests only makes one upstream call per url. streamAll parses the
+ * /employees body token by token and hands each employee over as soon as it is read, so it never holds the list.
+ * Calls are only logged at DEBUG, TimedEmployeeApi's rq.client.calls metrics cover them in production.
+ * <p>
+ * GETs are conditional. The ETag and Last-Modified of the last /employees response, and of the last maxValidated
+ * /employee/{id} responses, are sent back as If-None-Match and If-Modified-Since and a 304 reuses the employees parsed
+ * from that response. When the upstream sends no validators a digest of the body shows whether it is the same as last
+ * time, and if it is the previous parse is reused too. streamAllIfChanged does the same for the caller's last stream,
+ * see EmployeeApi. How each conditional GET turned out is counted as rq.client.conditional.
  */
-@Service
 @Slf4j
 public class RestApiExampleService implements EmployeeApi {
 
     private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final SingleFlight<String, List<Employee>> findAllFlights;
+    private final SingleFlight<String, Optional<Employee>> findByIdFlights;
+    private final DistributionSummary streamedBytes;
+    private final Map<String, Counter> conditionalOutcomes = new HashMap<>();
 
-    public RestApiExampleService(RestTemplate restTemplate) {
+    private final AtomicReference<Validated<List<Employee>>> employeeList = new AtomicReference<>();
+    private final Map<String, Validated<Optional<Employee>>> employeesById;
+    private volatile ResponseValidators streamedList;
+
+    /**
+     * @param restTemplate  the RestTemplate for RestApiExample's API
+     * @param objectMapper  the ObjectMapper for reading responses
+     * @param meterRegistry the registry for client metrics
+     * @param maxValidated  how many /employee/{id} responses to keep for conditional GETs
+     */
+    public RestApiExampleService(RestTemplate restTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry, int maxValidated) {
         this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.employeesById = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Validated<Optional<Employee>>> eldest) {
+                return size() > maxValidated;
+            }
+        });
+        this.findAllFlights = new SingleFlight<>("findAll", meterRegistry);
+        this.findByIdFlights = new SingleFlight<>("findById", meterRegistry);
+        this.streamedBytes = DistributionSummary.builder("rq.client.response.size")
+                                                .description("Bytes of (decompressed) JSON read from the upstream")
+                                                .tag("operation", "streamAll")
+                                                .baseUnit("bytes")
+                                                .register(meterRegistry);
+        for (String operation : List.of("findAll", "findById", "streamAll")) {
+            for (String outcome : List.of("not_modified", "unchanged", "changed")) {
+                Counter counter = Counter.builder("rq.client.conditional")
+                                         .description("Conditional GETs to the upstream by whether the response had changed")
+                                         .tag("operation", operation)
+                                         .tag("outcome", outcome)
+                                         .register(meterRegistry);
+                conditionalOutcomes.put(operation + "." + outcome, counter);
+            }
+        }
     }
 
     /**
-     * Finds all the employees on the API
+     * Finds all the employees on the API, reusing the last list if it hasn't changed
      *
      * @return a list of all the employees
      */
     @Override
     public List<Employee> findAll() {
-        log.info("Getting employee list");
-        EmployeeListResponse response = restTemplate.getForObject("/employees", EmployeeListResponse.class);
-        return (null != response) ? response.getData() : Collections.emptyList();
+        return findAllFlights.execute("/employees", () -> {
+            log.debug("Getting employee list");
+            return conditionalGet("findAll", "/employees", Collections.emptyMap(), employeeList.get(), employeeList::set, parser -> {
+                EmployeeListResponse response = objectMapper.readValue(parser, EmployeeListResponse.class);
+                // the same list is handed to every caller until it changes
+                return (null != response && null != response.getData()) ? Collections.unmodifiableList(response.getData())
+                                                                         : Collections.<Employee>emptyList();
+            });
+        });
     }
 
     /**
-     * Finds an employee by id
+     * Streams all the employees on the API to the consumer as they are parsed. Not coalesced, each call reads its own
+     * response.
+     *
+     * @param consumer the consumer to give each employee to
+     */
+    @Override
+    public void streamAll(Consumer<? super Employee> consumer) {
+        log.debug("Streaming employee list");
+        RequestCallback acceptJson = request -> request.getHeaders()
+                                                       .setAccept(List.of(MediaType.APPLICATION_JSON));
+        restTemplate.execute("/employees", HttpMethod.GET, acceptJson, response -> {
+            try (JsonParser parser = objectMapper.createParser(response.getBody())) {
+                readEmployees(parser, consumer);
+                streamedBytes.record(parser.currentLocation()
+                                           .getByteOffset());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Streams all the employees unless they are unchanged since the last call, either because the upstream answered
+     * 304 or because the body was the same as last time. The body is digested as it is parsed so it is still never
+     * held.
+     *
+     * @param consumer the consumer to give each employee to
+     * @return true if the consumer was given the current employees, false if they are unchanged since the last call
+     */
+    @Override
+    public boolean streamAllIfChanged(Consumer<? super Employee> consumer) {
+        log.debug("Streaming employee list if changed");
+        ResponseValidators previous = streamedList;
+        RequestCallback conditional = request -> {
+            request.getHeaders()
+                   .setAccept(List.of(MediaType.APPLICATION_JSON));
+            if (null != previous) {
+                previous.addTo(request.getHeaders());
+            }
+        };
+        Boolean changed = restTemplate.execute("/employees", HttpMethod.GET, conditional, response -> {
+            if (isNotModified(response, previous)) {
+                conditionalOutcome("streamAll", "not_modified");
+                return false;
+            }
+            MessageDigest digest = ResponseValidators.newDigest();
+            try (DigestInputStream body = new DigestInputStream(response.getBody(), digest);
+                 JsonParser parser = objectMapper.createParser(body)) {
+                readEmployees(parser, consumer);
+                streamedBytes.record(parser.currentLocation()
+                                           .getByteOffset());
+                // the parser stops at the end of the object, anything after it is still part of the body
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+            ResponseValidators validators = ResponseValidators.of(response.getHeaders(), digest.digest());
+            streamedList = validators;
+            boolean bodyChanged = null == previous || !previous.hasSameBody(validators);
+            conditionalOutcome("streamAll", bodyChanged ? "changed" : "unchanged");
+            return bodyChanged;
+        });
+        return !Boolean.FALSE.equals(changed);
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
+    /**
+     * Finds an employee by id, reusing the last response for the id if it hasn't changed
      *
      * @param id the employee id
      * @return an Optional employee
      */
     @Override
     public Optional<Employee> findById(String id) {
-        log.info("Getting employee using id {}", id);
-        Map<String, String> vars = new HashMap<>();
-        vars.put("id", id);
+        String key = "/employee/" + id;
+        return findByIdFlights.execute(key, () -> {
+            log.debug("Getting employee using id {}", id);
+            Map<String, String> vars = new HashMap<>();
+            vars.put("id", id);
 
-        EmployeeResponse response = restTemplate.getForObject("/employee/{id}", EmployeeResponse.class, vars);
-        return (null != response) ? Optional.of(response.getData()) : Optional.empty();
+            return conditionalGet("findById", "/employee/{id}", vars, employeesById.get(key), validated -> employeesById.put(key, validated),
+                                  parser -> {
+                                      EmployeeResponse response = objectMapper.readValue(parser, EmployeeResponse.class);
+                                      // an unknown id can come back as "data": null
+                                      return (null != response) ? Optional.ofNullable(response.getData()) : Optional.empty();
+                                  });
+        });
     }
 
     /**
@@ -71,7 +218,7 @@ public class RestApiExampleService implements EmployeeApi {
      */
     @Override
     public Optional<Employee> create(String name, String salary, String age) {
-        log.info("Creating employee using name {}, salary {}, age {}", name, salary, age);
+        log.debug("Creating employee using name {}, salary {}, age {}", name, salary, age);
         Map<String, String> vars = Map.of("name", name, "salary", salary, "age", age);
         HttpEntity<Map<String, String>> httpEntity = new HttpEntity<>(vars);
 
@@ -89,11 +236,111 @@ public class RestApiExampleService implements EmployeeApi {
      */
     @Override
     public Optional<String> delete(String id) {
-        log.info("Deleting employee using id {}", id);
+        log.debug("Deleting employee using id {}", id);
         Map<String, String> vars = Map.of("id", id);
+        employeesById.remove("/employee/" + id);
 
         DeleteResponse response = restTemplate.exchange("/delete/{id}", HttpMethod.DELETE, null, DeleteResponse.class, vars)
                                               .getBody();
         return (null != response) ? Optional.of(response.getStatus()) : Optional.empty();
     }
+
+    /**
+     * GETs a url, conditional on it having changed since the previous response, and reads the body. A 304 reuses the
+     * previous value without reading the body. Otherwise the body is digested as it is parsed, so it is never buffered,
+     * and when it turns out to be the same as the previous one the parse is thrown away and the previous value reused.
+     */
+    private <T> T conditionalGet(String operation, String url, Map<String, ?> vars, Validated<T> previous, Consumer<Validated<T>> remember,
+                                 BodyReader<T> reader) {
+        RequestCallback conditional = request -> {
+            request.getHeaders()
+                   .setAccept(List.of(MediaType.APPLICATION_JSON));
+            if (null != previous) {
+                previous.validators.addTo(request.getHeaders());
+            }
+        };
+        return restTemplate.execute(url, HttpMethod.GET, conditional, response -> {
+            if (isNotModified(response, previous)) {
+                conditionalOutcome(operation, "not_modified");
+                return previous.value;
+            }
+            MessageDigest digest = ResponseValidators.newDigest();
+            T value;
+            try (DigestInputStream body = new DigestInputStream(response.getBody(), digest);
+                 JsonParser parser = objectMapper.createParser(body)) {
+                value = reader.read(parser);
+                // the parser stops at the end of the value, anything after it is still part of the body
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+            ResponseValidators validators = ResponseValidators.of(response.getHeaders(), digest.digest());
+            if (null != previous && previous.validators.hasSameBody(validators)) {
+                conditionalOutcome(operation, "unchanged");
+                remember.accept(new Validated<>(validators, previous.value));
+                return previous.value;
+            }
+            conditionalOutcome(operation, "changed");
+            remember.accept(new Validated<>(validators, value));
+            return value;
+        }, vars);
+    }
+
+    /**
+     * Whether the upstream answered 304 to a conditional GET, a 304 to a GET that wasn't conditional can't be used
+     */
+    private static boolean isNotModified(ClientHttpResponse response, Object previous) throws IOException {
+        if (response.getStatusCode()
+                    .value() != HttpStatus.NOT_MODIFIED.value()) {
+            return false;
+        }
+        if (null == previous) {
+            throw new RestClientException("Upstream answered 304 Not Modified to an unconditional GET");
+        }
+        return true;
+    }
+
+    private void conditionalOutcome(String operation, String outcome) {
+        conditionalOutcomes.get(operation + "." + outcome)
+                           .increment();
+    }
+
+    /**
+     * Reads an EmployeeListResponse body, handing each element of data to the consumer and skipping everything else
+     */
+    private void readEmployees(JsonParser parser, Consumer<? super Employee> consumer) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new RestClientException("Expected an employee list response but got " + parser.currentToken());
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!"data".equals(field) || value != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                consumer.accept(objectMapper.readValue(parser, Employee.class));
+            }
+        }
+    }
+
+    /**
+     * Reads the value out of a response body
+     */
+    @FunctionalInterface
+    private interface BodyReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    /**
+     * A value read from a response along with the response's validators
+     */
+    private static final class Validated<T> {
+        private final ResponseValidators validators;
+        private final T value;
+
+        private Validated(ResponseValidators validators, T value) {
+            this.validators = validators;
+            this.value = value;
+        }
+    }
 }
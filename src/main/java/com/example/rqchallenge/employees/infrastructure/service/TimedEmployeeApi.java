@@ -0,0 +1,174 @@
+package com.example.rqchallenge.employees.infrastructure.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.infrastructure.support.UpstreamThrottledException;
+
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Timing decorator for an EmployeeApi. Every call is timed as rq.client.calls, tagged with the operation and how it
+ * ended: success, empty (nothing found), the upstream's HTTP status for an error response or the kind of failure
+ * when there wasn't a response at all, or not_modified when streamAllIfChanged found nothing had changed. The number
+ * of employees in each list is recorded as rq.client.employees. Streamed calls are timed without the time the
+ * caller's consumer spends on each employee, so a slow consumer doesn't look like a slow upstream. It sits inside
+ * the circuit breaker so only calls that reached the upstream are timed, the ones turned away are counted as
+ * rq.client.circuitbreaker.not.permitted.
+ * Percentiles and histograms for both are configured through management.metrics.distribution.* so they can be
+ * turned up or down without a code change.
+ */
+public class TimedEmployeeApi implements EmployeeApi {
+
+    private final EmployeeApi delegate;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary findAllEmployees;
+    private final DistributionSummary streamAllEmployees;
+
+    /**
+     * @param delegate      the EmployeeApi to time
+     * @param meterRegistry the registry to record the timings on
+     */
+    public TimedEmployeeApi(EmployeeApi delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.findAllEmployees = employees("findAll");
+        this.streamAllEmployees = employees("streamAll");
+    }
+
+    @Override
+    public List<Employee> findAll() {
+        List<Employee> employees = time("findAll", delegate::findAll, list -> list.isEmpty() ? "empty" : "success", () -> 0);
+        findAllEmployees.record(employees.size());
+        return employees;
+    }
+
+    @Override
+    public Optional<Employee> findById(String id) {
+        return time("findById", () -> delegate.findById(id), TimedEmployeeApi::outcome, () -> 0);
+    }
+
+    @Override
+    public Optional<Employee> create(String name, String salary, String age) {
+        return time("create", () -> delegate.create(name, salary, age), TimedEmployeeApi::outcome, () -> 0);
+    }
+
+    @Override
+    public Optional<String> delete(String id) {
+        return time("delete", () -> delegate.delete(id), TimedEmployeeApi::outcome, () -> 0);
+    }
+
+    @Override
+    public Optional<Employee> findLocal(String id) {
+        return delegate.findLocal(id);
+    }
+
+    @Override
+    public void streamAll(Consumer<? super Employee> consumer) {
+        Streamed streamed = new Streamed(consumer);
+        time("streamAll", () -> {
+            delegate.streamAll(streamed);
+            return streamed.count;
+        }, count -> (count == 0) ? "empty" : "success", () -> streamed.consumerNanos);
+        streamAllEmployees.record(streamed.count);
+    }
+
+    @Override
+    public boolean streamAllIfChanged(Consumer<? super Employee> consumer) {
+        Streamed streamed = new Streamed(consumer);
+        boolean changed = time("streamAll", () -> delegate.streamAllIfChanged(streamed),
+                               result -> !result ? "not_modified" : (streamed.count == 0) ? "empty" : "success", () -> streamed.consumerNanos);
+        if (changed) {
+            streamAllEmployees.record(streamed.count);
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return delegate.isStreaming();
+    }
+
+    private <T> T time(String operation, Supplier<T> call, Function<T, String> outcome, LongSupplier excludedNanos) {
+        long start = System.nanoTime();
+        String result = "error";
+        try {
+            T value = call.get();
+            result = outcome.apply(value);
+            return value;
+        } catch (RuntimeException e) {
+            result = failure(e);
+            throw e;
+        } finally {
+            Timer.builder("rq.client.calls")
+                 .description("Calls to the upstream employee API")
+                 .tag("operation", operation)
+                 .tag("outcome", result)
+                 .register(meterRegistry)
+                 .record(System.nanoTime() - start - excludedNanos.getAsLong(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Counts the employees handed to the caller's consumer and how long it spent on them
+     */
+    private static final class Streamed implements Consumer<Employee> {
+        private final Consumer<? super Employee> consumer;
+        private long count;
+        private long consumerNanos;
+
+        private Streamed(Consumer<? super Employee> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void accept(Employee employee) {
+            count++;
+            long start = System.nanoTime();
+            try {
+                consumer.accept(employee);
+            } finally {
+                consumerNanos += System.nanoTime() - start;
+            }
+        }
+    }
+
+    private DistributionSummary employees(String operation) {
+        return DistributionSummary.builder("rq.client.employees")
+                                  .description("Employees in each list read from the upstream")
+                                  .tag("operation", operation)
+                                  .register(meterRegistry);
+    }
+
+    private static String outcome(Optional<?> result) {
+        return result.isPresent() ? "success" : "empty";
+    }
+
+    /**
+     * The HTTP status of an error response, otherwise what kind of failure it was
+     */
+    private static String failure(RuntimeException e) {
+        if (e instanceof RestClientResponseException) {
+            return String.valueOf(((RestClientResponseException) e).getStatusCode()
+                                                                   .value());
+        }
+        if (e instanceof UpstreamThrottledException) {
+            return "throttled";
+        }
+        if (e instanceof ResourceAccessException) {
+            return "io_error";
+        }
+        return "error";
+    }
+}
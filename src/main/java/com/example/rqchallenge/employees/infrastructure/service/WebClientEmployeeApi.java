@@ -0,0 +1,229 @@
+package com.example.rqchallenge.employees.infrastructure.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.infrastructure.model.DeleteResponse;
+import com.example.rqchallenge.employees.infrastructure.model.EmployeeResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking client for RestApiExample's API. Calls don't hold a thread while waiting on the upstream so thousands
+ * can be in flight at once, bounded by the WebClient's connection pool rather than a thread pool. Every call is
+ * given up on after the call timeout. findAll parses the /employees body with a non-blocking parser as each chunk
+ * arrives and emits each employee as soon as it is read, like RestApiExampleService.streamAll, so the list is never
+ * held. Calls are only logged at DEBUG, the employee details create is called with included, ReactiveEmployeeService
+ * writes the sampled INFO logs for each request.
+ */
+@Slf4j
+public class WebClientEmployeeApi implements ReactiveEmployeeApi {
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final Duration callTimeout;
+
+    /**
+     * @param webClient    the WebClient for RestApiExample's API
+     * @param objectMapper the ObjectMapper for reading the streamed employee list
+     * @param callTimeout  how long a call has before it is given up on
+     */
+    public WebClientEmployeeApi(WebClient webClient, ObjectMapper objectMapper, Duration callTimeout) {
+        this.webClient = webClient;
+        this.objectMapper = objectMapper;
+        this.callTimeout = callTimeout;
+    }
+
+    /**
+     * Finds all the employees on the API, emitting each as it is parsed
+     *
+     * @return a Flux of all the employees
+     */
+    @Override
+    public Flux<Employee> findAll() {
+        return Flux.defer(() -> {
+            EmployeeListDecoder decoder = new EmployeeListDecoder(objectMapper);
+            // one deadline for the whole call, not a timeout between employees
+            Mono<Long> deadline = Mono.delay(callTimeout)
+                                      .cache();
+            return webClient.get()
+                            .uri("/employees")
+                            .retrieve()
+                            .bodyToFlux(DataBuffer.class)
+                            .concatMapIterable(decoder::decode)
+                            .concatWith(Flux.defer(() -> Flux.fromIterable(decoder.endOfInput())))
+                            .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                            .timeout(deadline, employee -> deadline)
+                            .doOnSubscribe(subscription -> log.debug("Getting employee list"));
+        });
+    }
+
+    /**
+     * Finds an employee by id
+     *
+     * @param id the employee id
+     * @return a Mono of the employee or empty if not found, including when the upstream answers 404
+     */
+    @Override
+    public Mono<Employee> findById(String id) {
+        return webClient.get()
+                        .uri("/employee/{id}", Map.of("id", id))
+                        .retrieve()
+                        .bodyToMono(EmployeeResponse.class)
+                        .onErrorResume(WebClientResponseException.NotFound.class, notFound -> Mono.empty())
+                        .timeout(callTimeout)
+                        .doOnSubscribe(subscription -> log.debug("Getting employee using id {}", id))
+                        .flatMap(response -> Mono.justOrEmpty(response.getData()));
+    }
+
+    /**
+     * Creates an employee using various parameters
+     *
+     * @param name   the employee name
+     * @param salary the employee salary
+     * @param age    the employee age
+     * @return a Mono of the created employee
+     */
+    @Override
+    public Mono<Employee> create(String name, String salary, String age) {
+        return webClient.post()
+                        .uri("/create")
+                        .bodyValue(Map.of("name", name, "salary", salary, "age", age))
+                        .retrieve()
+                        .bodyToMono(EmployeeResponse.class)
+                        .timeout(callTimeout)
+                        .doOnSubscribe(subscription -> log.debug("Creating employee using name {}, salary {}, age {}", name, salary, age))
+                        .flatMap(response -> Mono.justOrEmpty(response.getData()));
+    }
+
+    /**
+     * Deletes the employee using their id
+     *
+     * @param id the employee id to delete
+     * @return a Mono of the status
+     */
+    @Override
+    public Mono<String> delete(String id) {
+        return webClient.delete()
+                        .uri("/delete/{id}", Map.of("id", id))
+                        .retrieve()
+                        .bodyToMono(DeleteResponse.class)
+                        .timeout(callTimeout)
+                        .doOnSubscribe(subscription -> log.debug("Deleting employee using id {}", id))
+                        .flatMap(response -> Mono.justOrEmpty(response.getStatus()));
+    }
+
+    /**
+     * Reads an EmployeeListResponse body as it arrives, turning each element of data into an Employee as soon as its
+     * closing brace is read and skipping everything else. Only the employee being read is buffered.
+     */
+    private static final class EmployeeListDecoder {
+
+        private final ObjectMapper objectMapper;
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private boolean started;
+        private int depth;
+        private String field;
+        private boolean inData;
+        private TokenBuffer employee;
+
+        private EmployeeListDecoder(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            try {
+                this.parser = objectMapper.getFactory()
+                                          .createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not create a non-blocking parser", e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        /**
+         * Feeds the next chunk of the body to the parser, releasing it
+         *
+         * @return the employees completed by the chunk
+         */
+        private List<Employee> decode(DataBuffer buffer) {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            DataBufferUtils.release(buffer);
+            try {
+                feeder.feedInput(bytes, 0, bytes.length);
+                return readAvailable();
+            } catch (IOException e) {
+                throw new DecodingException("Could not read the employee list", e);
+            }
+        }
+
+        /**
+         * Ends the body, an empty body is an empty list but one that stops part way through is an error
+         *
+         * @return the employees completed by the end of the body
+         */
+        private List<Employee> endOfInput() {
+            feeder.endOfInput();
+            try {
+                List<Employee> employees = readAvailable();
+                if (started && 0 != depth) {
+                    throw new DecodingException("The employee list ended part way through");
+                }
+                return employees;
+            } catch (IOException e) {
+                throw new DecodingException("Could not read the employee list", e);
+            }
+        }
+
+        private List<Employee> readAvailable() throws IOException {
+            List<Employee> employees = new ArrayList<>();
+            JsonToken token;
+            while (null != (token = parser.nextToken()) && JsonToken.NOT_AVAILABLE != token) {
+                if (token.isStructEnd()) {
+                    depth--;
+                }
+                if (null != employee) {
+                    employee.copyCurrentEvent(parser);
+                    if (token.isStructEnd() && 2 == depth) {
+                        employees.add(objectMapper.readValue(employee.asParser(), Employee.class));
+                        employee = null;
+                    }
+                } else if (0 == depth && !started) {
+                    if (JsonToken.START_OBJECT != token) {
+                        throw new DecodingException("Expected an employee list response but got " + token);
+                    }
+                    started = true;
+                } else if (1 == depth && JsonToken.FIELD_NAME == token) {
+                    field = parser.currentName();
+                } else if (1 == depth && JsonToken.START_ARRAY == token) {
+                    inData = "data".equals(field);
+                } else if (1 == depth && JsonToken.END_ARRAY == token) {
+                    inData = false;
+                } else if (2 == depth && inData && JsonToken.START_OBJECT == token) {
+                    employee = new TokenBuffer(parser);
+                    employee.copyCurrentEvent(parser);
+                }
+                if (token.isStructStart()) {
+                    depth++;
+                }
+            }
+            return employees;
+        }
+    }
+}
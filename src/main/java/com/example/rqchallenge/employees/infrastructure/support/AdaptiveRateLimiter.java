@@ -0,0 +1,159 @@
+package com.example.rqchallenge.employees.infrastructure.support;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Token bucket rate limiter that adapts its rate to the upstream. Every throttled (429) response halves the rate and
+ * stops any permits being handed out until the Retry-After period has passed, every successful call nudges the rate
+ * back up towards the maximum. Callers reserve a permit and then wait outside the lock for the time the reservation
+ * says, so the lock is never held while sleeping.
+ */
+public final class AdaptiveRateLimiter {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double maxRate;
+    private final double minRate;
+    private final double burst;
+    private final double increaseStep;
+    private final LongSupplier nanoTime;
+
+    private double rate;
+    private double tokens;
+    private long refilledAt;
+    private long blockedUntil;
+
+    private final Counter throttled;
+    private final Counter rejected;
+    private final Timer waits;
+
+    /**
+     * @param maxRate       the most permits per second to hand out
+     * @param minRate       the fewest permits per second to back off to
+     * @param burst         how many unused permits can be saved up
+     * @param nanoTime      the source of time, System::nanoTime outside of tests
+     * @param meterRegistry the registry to publish the limiter's state on
+     */
+    public AdaptiveRateLimiter(double maxRate, double minRate, double burst, LongSupplier nanoTime, MeterRegistry meterRegistry) {
+        if (minRate <= 0 || maxRate < minRate || burst < 1) {
+            throw new IllegalArgumentException("Rate limits must satisfy 0 < minRate <= maxRate and burst >= 1");
+        }
+        this.maxRate = maxRate;
+        this.minRate = minRate;
+        this.burst = burst;
+        this.increaseStep = maxRate / 20;
+        this.nanoTime = nanoTime;
+        this.rate = maxRate;
+        this.tokens = burst;
+        this.refilledAt = nanoTime.getAsLong();
+        this.blockedUntil = refilledAt;
+
+        Gauge.builder("rq.client.ratelimit.rate", this, AdaptiveRateLimiter::rate)
+             .description("Permits per second currently allowed to the upstream")
+             .register(meterRegistry);
+        Gauge.builder("rq.client.ratelimit.blocked", this, limiter -> limiter.isBlocked() ? 1 : 0)
+             .description("1 while waiting out an upstream Retry-After")
+             .register(meterRegistry);
+        this.throttled = Counter.builder("rq.client.ratelimit.throttled")
+                                .description("Throttled (429) responses from the upstream")
+                                .register(meterRegistry);
+        this.rejected = Counter.builder("rq.client.ratelimit.rejected")
+                               .description("Calls given up on because a permit was not available in time")
+                               .register(meterRegistry);
+        this.waits = Timer.builder("rq.client.ratelimit.wait")
+                          .description("Time spent waiting for a permit")
+                          .register(meterRegistry);
+    }
+
+    /**
+     * Waits for a permit
+     *
+     * @param maxWait the longest to wait for a permit
+     * @throws UpstreamThrottledException if no permit will be available within maxWait
+     */
+    public void acquire(Duration maxWait) {
+        long wait = reserve(maxWait.toNanos());
+        if (wait < 0) {
+            rejected.increment();
+            throw new UpstreamThrottledException("No upstream permit available within " + maxWait);
+        }
+        waits.record(wait, TimeUnit.NANOSECONDS);
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+                throw new UpstreamThrottledException("Interrupted waiting for an upstream permit");
+            }
+        }
+    }
+
+    /**
+     * Reserves a permit if one will be available within the max wait
+     *
+     * @param maxWaitNanos the longest the caller is prepared to wait
+     * @return how long to wait before using the permit, or -1 if none was reserved
+     */
+    synchronized long reserve(long maxWaitNanos) {
+        long now = nanoTime.getAsLong();
+        refill(now);
+        long start = Math.max(now, refilledAt);
+        long wait = (start - now) + ((tokens >= 1) ? 0 : (long) ((1 - tokens) / rate * NANOS_PER_SECOND));
+        if (wait > maxWaitNanos) {
+            return -1;
+        }
+        tokens -= 1;
+        return wait;
+    }
+
+    /**
+     * Backs off after the upstream throttled a call
+     *
+     * @param retryAfter how long the upstream asked us to wait, zero if it didn't say
+     */
+    public synchronized void onThrottled(Duration retryAfter) {
+        long now = nanoTime.getAsLong();
+        refill(now);
+        throttled.increment();
+        rate = Math.max(minRate, rate / 2);
+        tokens = Math.min(tokens, 0);
+        blockedUntil = Math.max(blockedUntil, now + retryAfter.toNanos());
+        refilledAt = Math.max(refilledAt, blockedUntil);
+    }
+
+    /**
+     * Speeds back up after a call that was not throttled
+     */
+    public synchronized void onSuccess() {
+        rate = Math.min(maxRate, rate + increaseStep);
+    }
+
+    /**
+     * @return the current permits per second
+     */
+    public synchronized double rate() {
+        return rate;
+    }
+
+    /**
+     * @return whether permits are being held back for a Retry-After
+     */
+    public synchronized boolean isBlocked() {
+        return blockedUntil > nanoTime.getAsLong();
+    }
+
+    private void refill(long now) {
+        if (now > refilledAt) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * rate / NANOS_PER_SECOND);
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.rqchallenge.employees.infrastructure.support;
+
+/**
+ * Thrown instead of calling the upstream while its circuit breaker is open
+ */
+public class CallNotPermittedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CallNotPermittedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.rqchallenge.employees.infrastructure.support;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Count based circuit breaker. While CLOSED the outcome of the last windowSize calls is kept and once there have
+ * been at least minimumCalls, too high a failure rate or slow call rate OPENs the circuit. While OPEN every call is
+ * refused straight away. After openDuration the circuit goes HALF_OPEN and lets a few probe calls through, if they
+ * are healthy it CLOSEs again, otherwise it goes back to OPEN.
+ */
+@Slf4j
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final float failureRateThreshold;
+    private final float slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoTime;
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter notPermitted;
+
+    /**
+     * @param name                  the name to log and tag metrics with
+     * @param failureRateThreshold  the percentage of failed calls that opens the circuit
+     * @param slowCallRateThreshold the percentage of slow calls that opens the circuit
+     * @param slowCallDuration      how long a call can take before it counts as slow
+     * @param windowSize            how many of the most recent calls to consider
+     * @param minimumCalls          how many calls there have to have been before the circuit can open
+     * @param openDuration          how long to stay open before probing the upstream again
+     * @param halfOpenCalls         how many probe calls to let through when half open, at most windowSize
+     * @param nanoTime              the source of time, System::nanoTime outside of tests
+     * @param meterRegistry         the registry to publish state and transitions on
+     */
+    public CircuitBreaker(String name, float failureRateThreshold, float slowCallRateThreshold, Duration slowCallDuration, int windowSize,
+                          int minimumCalls, Duration openDuration, int halfOpenCalls, LongSupplier nanoTime, MeterRegistry meterRegistry) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Circuit breaker window size must be positive but was " + windowSize);
+        }
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, windowSize));
+        this.openNanos = openDuration.toNanos();
+        // the probes are judged on the window, so there can't be more of them than fit in it
+        this.halfOpenCalls = Math.max(1, Math.min(halfOpenCalls, windowSize));
+        this.nanoTime = nanoTime;
+        this.failed = new boolean[windowSize];
+        this.slow = new boolean[windowSize];
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("rq.client.circuitbreaker.state", this, breaker -> breaker.getState()
+                                                                               .ordinal())
+             .description("Circuit breaker state, 0 closed, 1 open, 2 half open")
+             .tag("name", name)
+             .register(meterRegistry);
+        this.notPermitted = Counter.builder("rq.client.circuitbreaker.not.permitted")
+                                   .description("Calls refused because the circuit was open")
+                                   .tag("name", name)
+                                   .register(meterRegistry);
+    }
+
+    /**
+     * Runs the call if the circuit allows it, recording how it went
+     *
+     * @param call      the call to make
+     * @param isFailure which exceptions count as a failure of the upstream
+     * @param <T>       the result of the call
+     * @return the result of the call
+     * @throws CallNotPermittedException if the circuit is open
+     */
+    public <T> T execute(Supplier<T> call, Predicate<RuntimeException> isFailure) {
+        return execute(call, isFailure, () -> 0);
+    }
+
+    /**
+     * Runs a call that streams to a consumer if the circuit allows it, recording how it went. The time spent in the
+     * consumer is the caller's, not the upstream's, so it is left out of the call's duration and a slow consumer
+     * doesn't count as a slow call.
+     *
+     * @param call      the call to make, given the consumer to stream to
+     * @param consumer  the caller's consumer
+     * @param isFailure which exceptions count as a failure of the upstream
+     * @param <T>       the result of the call
+     * @param <E>       what is streamed
+     * @return the result of the call
+     * @throws CallNotPermittedException if the circuit is open
+     */
+    public <T, E> T executeStreaming(Function<Consumer<E>, T> call, Consumer<? super E> consumer, Predicate<RuntimeException> isFailure) {
+        long[] consumerNanos = new long[1];
+        Consumer<E> timedConsumer = element -> {
+            long start = nanoTime.getAsLong();
+            try {
+                consumer.accept(element);
+            } finally {
+                consumerNanos[0] += nanoTime.getAsLong() - start;
+            }
+        };
+        return execute(() -> call.apply(timedConsumer), isFailure, () -> consumerNanos[0]);
+    }
+
+    private <T> T execute(Supplier<T> call, Predicate<RuntimeException> isFailure, LongSupplier excludedNanos) {
+        if (!tryAcquirePermission()) {
+            notPermitted.increment();
+            throw new CallNotPermittedException("Circuit " + name + " is " + getState());
+        }
+        long start = nanoTime.getAsLong();
+        boolean resulted = false;
+        try {
+            T result = call.get();
+            resulted = true;
+            onResult(nanoTime.getAsLong() - start - excludedNanos.getAsLong(), false);
+            return result;
+        } catch (RuntimeException e) {
+            resulted = true;
+            onResult(nanoTime.getAsLong() - start - excludedNanos.getAsLong(), isFailure.test(e));
+            throw e;
+        } finally {
+            if (!resulted) {
+                // an Error says nothing about the upstream, but a half open probe still has to hand its permit back
+                releasePermission();
+            }
+        }
+    }
+
+    /**
+     * @return the current state, moving from OPEN to HALF_OPEN if the open duration has passed
+     */
+    public synchronized State getState() {
+        if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= openNanos) {
+            transition(State.HALF_OPEN);
+        }
+        return state;
+    }
+
+    synchronized boolean tryAcquirePermission() {
+        switch (getState()) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (halfOpenPermits > 0) {
+                    halfOpenPermits--;
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    synchronized void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits = Math.min(halfOpenCalls, halfOpenPermits + 1);
+        }
+    }
+
+    synchronized void onResult(long durationNanos, boolean callFailed) {
+        if (state == State.OPEN) {
+            // a call that was let through before the circuit opened
+            return;
+        }
+        record(callFailed, durationNanos >= slowCallNanos);
+        if (state == State.HALF_OPEN) {
+            if (recorded >= halfOpenCalls) {
+                transition(isUnhealthy() ? State.OPEN : State.CLOSED);
+            }
+        } else if (recorded >= minimumCalls && isUnhealthy()) {
+            transition(State.OPEN);
+        }
+    }
+
+    private void record(boolean callFailed, boolean callSlow) {
+        if (recorded == failed.length) {
+            failures -= failed[next] ? 1 : 0;
+            slowCalls -= slow[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failed[next] = callFailed;
+        slow[next] = callSlow;
+        failures += callFailed ? 1 : 0;
+        slowCalls += callSlow ? 1 : 0;
+        next = (next + 1) % failed.length;
+    }
+
+    private boolean isUnhealthy() {
+        return failures * 100f / recorded >= failureRateThreshold || slowCalls * 100f / recorded >= slowCallRateThreshold;
+    }
+
+    private void transition(State to) {
+        State from = state;
+        if (to == State.OPEN) {
+            log.warn("Circuit {} {} -> OPEN, {} of the last {} calls failed and {} were slow", name, from, failures, recorded, slowCalls);
+            openedAt = nanoTime.getAsLong();
+        } else {
+            log.info("Circuit {} {} -> {}", name, from, to);
+        }
+        state = to;
+        halfOpenPermits = (to == State.HALF_OPEN) ? halfOpenCalls : 0;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+        Counter.builder("rq.client.circuitbreaker.transitions")
+               .description("Circuit breaker state transitions")
+               .tag("name", name)
+               .tag("from", from.name())
+               .tag("to", to.name())
+               .register(meterRegistry)
+               .increment();
+    }
+}
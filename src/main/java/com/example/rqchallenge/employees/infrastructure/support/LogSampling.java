@@ -0,0 +1,82 @@
+package com.example.rqchallenge.employees.infrastructure.support;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Whether the current request writes its hot path INFO logs. LogSamplingFilter decides once per request, so a sampled
+ * request logs its whole path and the rest log nothing, rather than every request logging a random few lines. Work
+ * done outside a request (background refreshes, write workers) is always sampled. The decision lives on the request
+ * thread, so work that runs elsewhere has to carry it: reactive chains in their Reactor context and async response
+ * bodies by capturing it before they are handed off.
+ */
+public final class LogSampling {
+
+    private static final ThreadLocal<Boolean> SAMPLED = new ThreadLocal<>();
+    private static final String CONTEXT_KEY = LogSampling.class.getName();
+
+    private LogSampling() {
+    }
+
+    /**
+     * @return true if hot path INFO logs should be written on this thread
+     */
+    public static boolean isSampled() {
+        Boolean sampled = SAMPLED.get();
+        return null == sampled || sampled;
+    }
+
+    /**
+     * Sets whether the request on this thread is sampled, until clear is called
+     *
+     * @param sampled whether to write hot path logs
+     */
+    public static void sample(boolean sampled) {
+        SAMPLED.set(sampled);
+    }
+
+    /**
+     * Forgets the sampling decision for this thread once its request is done
+     */
+    public static void clear() {
+        SAMPLED.remove();
+    }
+
+    /**
+     * @param context the Reactor context of the subscriber
+     * @return true if hot path INFO logs should be written for the subscriber, true if it carries no decision
+     */
+    public static boolean isSampled(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, true);
+    }
+
+    /**
+     * Captures the sampling decision for this thread's request, to be written into the Reactor context of the chain
+     * serving it
+     *
+     * @return a context holding the decision
+     */
+    public static Context context() {
+        return Context.of(CONTEXT_KEY, isSampled());
+    }
+
+    /**
+     * Runs the task on this thread with a sampling decision captured on another, putting back whatever was set before
+     *
+     * @param sampled whether to write hot path logs
+     * @param task    the work handed off from the request thread
+     */
+    public static void run(boolean sampled, Runnable task) {
+        Boolean previous = SAMPLED.get();
+        SAMPLED.set(sampled);
+        try {
+            task.run();
+        } finally {
+            if (null == previous) {
+                SAMPLED.remove();
+            } else {
+                SAMPLED.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.rqchallenge.employees.infrastructure.support;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * RestTemplate interceptor putting every upstream call behind the AdaptiveRateLimiter. 429s (and their Retry-After)
+ * are fed back to the limiter. Idempotent GETs that are throttled, hit a 502/503/504 or fail with an IOException are
+ * retried with full jitter exponential backoff, waiting at least as long as any Retry-After. A request spends at most
+ * maxWait backing off in all, a Retry-After longer than what is left of that fails straight away with an
+ * UpstreamThrottledException rather than holding the request thread. Anything else, and the last attempt, is returned
+ * as is for the RestTemplate to handle.
+ */
+@Slf4j
+public class RateLimitingInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(429, 502, 503, 504);
+
+    private final AdaptiveRateLimiter rateLimiter;
+    private final Duration maxWait;
+    private final int maxAttempts;
+    private final Duration backoffBase;
+    private final Duration backoffCap;
+    private final Counter retries;
+
+    /**
+     * @param rateLimiter   the limiter to take permits from
+     * @param maxWait       the longest to wait for a permit, and in all backing off between attempts
+     * @param maxAttempts   the most attempts for a GET, including the first
+     * @param backoffBase   the backoff before the first retry, doubled for each one after
+     * @param backoffCap    the longest backoff between retries
+     * @param meterRegistry the registry to count retries on
+     */
+    public RateLimitingInterceptor(AdaptiveRateLimiter rateLimiter, Duration maxWait, int maxAttempts, Duration backoffBase,
+                                   Duration backoffCap, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.maxWait = maxWait;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffBase = backoffBase;
+        this.backoffCap = backoffCap;
+        this.retries = Counter.builder("rq.client.retries")
+                              .description("Upstream GETs retried after a throttled or failed attempt")
+                              .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        int attempts = HttpMethod.GET.equals(request.getMethod()) ? maxAttempts : 1;
+        long backoffDeadline = System.nanoTime() + maxWait.toNanos();
+        for (int attempt = 1; ; attempt++) {
+            rateLimiter.acquire(maxWait);
+
+            ClientHttpResponse response;
+            try {
+                response = execution.execute(request, body);
+            } catch (IOException e) {
+                if (attempt >= attempts) {
+                    throw e;
+                }
+                log.warn("Upstream {} {} failed, retrying (attempt {} of {})", request.getMethod(), request.getURI(), attempt, attempts, e);
+                backoff(attempt, Duration.ZERO, backoffDeadline);
+                continue;
+            }
+
+            int status = response.getStatusCode()
+                                 .value();
+            Duration retryAfter = Duration.ZERO;
+            if (status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                retryAfter = retryAfter(response.getHeaders()
+                                                .getFirst("Retry-After"));
+                log.warn("Upstream throttled {} {}, retry after {}", request.getMethod(), request.getURI(), retryAfter);
+                rateLimiter.onThrottled(retryAfter);
+            } else {
+                rateLimiter.onSuccess();
+            }
+
+            if (!RETRYABLE_STATUSES.contains(status) || attempt >= attempts) {
+                return response;
+            }
+            response.close();
+            log.debug("Retrying {} {} after status {} (attempt {} of {})", request.getMethod(), request.getURI(), status, attempt, attempts);
+            backoff(attempt, retryAfter, backoffDeadline);
+        }
+    }
+
+    /**
+     * Sleeps for a random time up to base * 2^(attempt - 1) (capped), or the retry after if that is longer, never
+     * past the deadline
+     *
+     * @throws UpstreamThrottledException if the retry after doesn't end before the deadline
+     */
+    private void backoff(int attempt, Duration retryAfter, long deadline) throws IOException {
+        long remaining = Math.max(0, deadline - System.nanoTime());
+        if (retryAfter.toNanos() > remaining) {
+            throw new UpstreamThrottledException("Upstream asked to retry after " + retryAfter + ", longer than the "
+                                                         + Duration.ofNanos(remaining) + " left to wait");
+        }
+        retries.increment();
+        long ceiling = Math.min(backoffCap.toNanos(), backoffBase.toNanos() << Math.min(attempt - 1, 30));
+        long delay = Math.min(remaining, Math.max(retryAfter.toNanos(), ThreadLocalRandom.current()
+                                                                                         .nextLong(Math.max(1, ceiling))));
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            throw new IOException("Interrupted backing off from the upstream", e);
+        }
+    }
+
+    /**
+     * Parses a Retry-After header, either delta seconds or an HTTP date
+     *
+     * @param value the header value, may be null
+     * @return how long to wait, zero if there was no (valid) header
+     */
+    static Duration retryAfter(String value) {
+        if (null == value || value.isBlank()) {
+            return Duration.ZERO;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                Duration until = Duration.between(Instant.now(), ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return until.isNegative() ? Duration.ZERO : until;
+            } catch (DateTimeParseException ignored) {
+                return Duration.ZERO;
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.rqchallenge.employees.infrastructure.support;
+
+import org.springframework.http.HttpHeaders;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * What is known about the last response for a url, its ETag and Last-Modified validators (either may be missing) and
+ * a SHA-256 digest of its body. The validators make the next GET conditional so the upstream can answer 304 Not
+ * Modified, and when the upstream doesn't send any the digest still shows whether a new body is the same as the last.
+ */
+public final class ResponseValidators {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final String etag;
+    private final String lastModified;
+    private final byte[] digest;
+
+    private ResponseValidators(String etag, String lastModified, byte[] digest) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.digest = digest;
+    }
+
+    /**
+     * @param responseHeaders the headers of the response
+     * @param digest          the digest of the response body, see newDigest
+     * @return the validators for the response
+     */
+    public static ResponseValidators of(HttpHeaders responseHeaders, byte[] digest) {
+        return new ResponseValidators(responseHeaders.getETag(), responseHeaders.getFirst(HttpHeaders.LAST_MODIFIED), digest);
+    }
+
+    /**
+     * @return a new digest to run a response body through
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is always available", e);
+        }
+    }
+
+    /**
+     * Makes a request conditional on the response having changed. The validators are sent back exactly as they were
+     * received, If-None-Match takes precedence upstream when both are present.
+     *
+     * @param requestHeaders the headers of the request to make conditional
+     */
+    public void addTo(HttpHeaders requestHeaders) {
+        if (null != etag) {
+            requestHeaders.set(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        if (null != lastModified) {
+            requestHeaders.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+    }
+
+    /**
+     * @param other the validators of a later response
+     * @return true if the later response had exactly the same body
+     */
+    public boolean hasSameBody(ResponseValidators other) {
+        return MessageDigest.isEqual(digest, other.digest);
+    }
+}
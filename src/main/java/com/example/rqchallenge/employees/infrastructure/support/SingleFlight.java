@@ -0,0 +1,92 @@
+package com.example.rqchallenge.employees.infrastructure.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesces concurrent calls for the same key. The first caller for a key runs the call, anyone arriving while it
+ * is still in flight waits on the same future and gets the same result (or exception). Nothing is kept once the call
+ * completes so this never serves anything staler than a call that was already running.
+ *
+ * @param <K> the key identifying a call
+ * @param <V> the result of the call
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    /**
+     * @param name          the name to tag the metrics with
+     * @param meterRegistry the registry to record executed and coalesced calls on
+     */
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executed = Counter.builder("rq.singleflight.calls")
+                               .description("Calls that went through the single-flight layer")
+                               .tag("name", name)
+                               .tag("outcome", "executed")
+                               .register(meterRegistry);
+        this.coalesced = Counter.builder("rq.singleflight.calls")
+                                .description("Calls that went through the single-flight layer")
+                                .tag("name", name)
+                                .tag("outcome", "coalesced")
+                                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the call for the key, or waits for the call already in flight for the key
+     *
+     * @param key  the key identifying the call
+     * @param call the call to make if none is in flight
+     * @return the result of the call
+     */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, leader);
+        if (null != existing) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executed.increment();
+        try {
+            V result = call.get();
+            leader.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    /**
+     * @return the number of keys with a call currently in flight
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
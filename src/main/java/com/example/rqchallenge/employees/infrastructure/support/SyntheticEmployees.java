@@ -0,0 +1,57 @@
+package com.example.rqchallenge.employees.infrastructure.support;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Generates made up employees for running without the upstream. The same seed always generates the same employees.
+ * Names are drawn from fixed first and last name lists so name searches hit realistic numbers of employees, salaries
+ * are skewed towards the low end like a real payroll and ages run from 18 to 70.
+ */
+public final class SyntheticEmployees {
+
+    private static final String[] FIRST_NAMES = {
+            "Tiger", "Garrett", "Ashton", "Cedric", "Airi", "Brielle", "Herrod", "Rhona", "Colleen", "Sonya", "Jena", "Quinn",
+            "Charde", "Haley", "Tatyana", "Michael", "Paul", "Gloria", "Bradley", "Dai", "Jenette", "Yuri", "Caesar", "Doris",
+            "Angelica", "Gavin", "Jennifer", "Brenden", "Fiona", "Shou", "Michelle", "Suki", "Prescott", "Yvonne", "Martena",
+            "Unity", "Howard", "Hope", "Vivian", "Timothy", "Jackson", "Olivia", "Bruno", "Sakura", "Thor", "Finn", "Serge",
+            "Zenaida", "Zorita", "Kai", "Cara", "Hermione", "Lael", "Jonas", "Shad", "Edsger", "Donna", "Ada", "Alan",
+            "Grace", "Linus", "Barbara", "Ken", "Margaret"};
+    private static final String[] LAST_NAMES = {
+            "Nixon", "Winters", "Cox", "Kelly", "Satou", "Williamson", "Chandler", "Davidson", "Hurst", "Frost", "Gaines",
+            "Flynn", "Marshall", "Kennedy", "Fitzpatrick", "Silva", "Byrd", "Little", "Greer", "Rios", "Caldwell", "Berry",
+            "Vance", "Wilder", "Ramos", "Joyce", "Chang", "Wagner", "Green", "Itou", "House", "Baker", "Bartlett", "Cortez",
+            "Mccray", "Butler", "Hatfield", "Fuentes", "Harrell", "Mooney", "Bradshaw", "Liang", "Nash", "Yamamoto", "Walton",
+            "Camacho", "Baldwin", "Frank", "Serrano", "Acosta", "Stevens", "Dijkstra", "Knuth", "Alexander", "Decker", "Bruce",
+            "Snider", "Lovelace", "Turing", "Hopper", "Torvalds", "Liskov", "Thompson", "Hamilton"};
+
+    private static final int MIN_SALARY = 20_000;
+    private static final int MAX_SALARY = 500_000;
+    private static final int MIN_AGE = 18;
+    private static final int MAX_AGE = 70;
+
+    private SyntheticEmployees() {
+    }
+
+    /**
+     * Generates employees with consecutive ids
+     *
+     * @param count    how many employees to generate
+     * @param firstId  the id of the first employee
+     * @param seed     the seed, the same seed generates the same employees
+     * @param consumer given each employee in id order
+     */
+    public static void generate(int count, long firstId, long seed, Consumer<? super Employee> consumer) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < count; i++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            // the square of a uniform value bunches salaries up towards the minimum
+            double skew = random.nextDouble();
+            int salary = MIN_SALARY + (int) (skew * skew * (MAX_SALARY - MIN_SALARY));
+            int age = random.nextInt(MIN_AGE, MAX_AGE + 1);
+            consumer.accept(new Employee(firstId + i, name, salary, age, ""));
+        }
+    }
+}
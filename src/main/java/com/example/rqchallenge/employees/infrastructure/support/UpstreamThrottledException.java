@@ -0,0 +1,13 @@
+package com.example.rqchallenge.employees.infrastructure.support;
+
+/**
+ * Thrown when a call to the upstream is given up on because we are being rate limited
+ */
+public class UpstreamThrottledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UpstreamThrottledException(String message) {
+        super(message);
+    }
+}
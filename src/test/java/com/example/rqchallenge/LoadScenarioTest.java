@@ -0,0 +1,227 @@
+package com.example.rqchallenge;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load scenario against the full app with the simulated upstream (the simulated profile, see
+ * FaultInjectingEmployeeApi). Fires a weighted mix of reads and writes at a fixed concurrency and writes a throughput,
+ * latency and status code report per endpoint to build/reports/load-scenario as text and JSON. Tagged scenario so it
+ * only runs with ./gradlew loadScenario, which passes -Pscenario.requests, -Pscenario.concurrency and
+ * -Pscenario.profiles through.
+ */
+@Tag("scenario")
+class LoadScenarioTest {
+
+    private static final int REQUESTS = Integer.getInteger("scenario.requests", 5000);
+    private static final int CONCURRENCY = Integer.getInteger("scenario.concurrency", 100);
+    private static final String PROFILES = System.getProperty("scenario.profiles", "simulated");
+    private static final Path REPORT_DIR = Path.of(System.getProperty("scenario.report-dir", "build/reports/load-scenario"));
+    private static final String[] SEARCHES = {"Nixon", "Ada", "er", "Tiger Cox", "Zz"};
+
+    @Test
+    void runScenario() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(RqChallengeApplication.class)
+                .profiles(PROFILES.split(","))
+                .properties("server.port=0")
+                .run()) {
+            int port = context.getEnvironment()
+                              .getRequiredProperty("local.server.port", Integer.class);
+            int employees = context.getEnvironment()
+                                   .getProperty("rq.client.local.seed-count", Integer.class, 10000);
+            Map<String, EndpointResult> results = fire("http://localhost:" + port, Math.max(1, employees));
+            report(results);
+
+            assertThat(results.values()
+                              .stream()
+                              .mapToInt(result -> result.transportErrors.get())
+                              .sum()).isZero();
+        }
+    }
+
+    /**
+     * The weighted mix of requests, each entry builds a request from a random number
+     */
+    private static List<Scenario> scenarios(String base, int employees) {
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new Scenario("GET /{id}", 55, n -> get(base + "/" + (1 + n % employees))));
+        scenarios.add(new Scenario("GET /search/{name}", 15, n -> get(base + "/search/" + SEARCHES[n % SEARCHES.length].replace(" ", "%20"))));
+        scenarios.add(new Scenario("GET /highestSalary", 10, n -> get(base + "/highestSalary")));
+        scenarios.add(new Scenario("GET /topTenHighestEarningEmployeeNames", 10, n -> get(base + "/topTenHighestEarningEmployeeNames")));
+        scenarios.add(new Scenario("GET /?limit=100", 6, n -> get(base + "/?limit=100&offset=" + (n % employees))));
+        scenarios.add(new Scenario("POST /", 2, n -> HttpRequest.newBuilder(URI.create(base + "/"))
+                                                               .header("Content-Type", "application/json")
+                                                               .POST(HttpRequest.BodyPublishers.ofString(
+                                                                       "{\"name\":\"Load Test " + n + "\",\"salary\":\"50000\",\"age\":\"30\"}"))
+                                                               .build()));
+        scenarios.add(new Scenario("DELETE /{id}", 2, n -> HttpRequest.newBuilder(URI.create(base + "/" + (1 + n % employees)))
+                                                                     .DELETE()
+                                                                     .build()));
+        return scenarios;
+    }
+
+    private Map<String, EndpointResult> fire(String base, int employees) throws Exception {
+        List<Scenario> scenarios = scenarios(base, employees);
+        int totalWeight = scenarios.stream()
+                                   .mapToInt(scenario -> scenario.weight)
+                                   .sum();
+        Map<String, EndpointResult> results = new ConcurrentHashMap<>();
+        scenarios.forEach(scenario -> results.put(scenario.name, new EndpointResult()));
+
+        HttpClient client = HttpClient.newBuilder()
+                                      .connectTimeout(Duration.ofSeconds(10))
+                                      .build();
+        SplittableRandom random = new SplittableRandom(42);
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[REQUESTS];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            Scenario scenario = pick(scenarios, random.nextInt(totalWeight));
+            EndpointResult result = results.get(scenario.name);
+            HttpRequest request = scenario.request.apply(random.nextInt(Integer.MAX_VALUE));
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                                 .whenComplete((response, error) -> {
+                                     result.record(System.nanoTime() - sent, (null == error) ? response.statusCode() : -1);
+                                     inFlight.release();
+                                 });
+        }
+        CompletableFuture.allOf(responses)
+                         .exceptionally(error -> null)
+                         .get(30, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+        results.values()
+               .forEach(result -> result.elapsedNanos = elapsed);
+        return results;
+    }
+
+    private static Scenario pick(List<Scenario> scenarios, int roll) {
+        for (Scenario scenario : scenarios) {
+            roll -= scenario.weight;
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private void report(Map<String, EndpointResult> results) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("profiles", PROFILES);
+        report.put("requests", REQUESTS);
+        report.put("concurrency", CONCURRENCY);
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        StringBuilder text = new StringBuilder(String.format("%d requests, concurrency %d, profiles %s%n%n", REQUESTS, CONCURRENCY, PROFILES));
+        text.append(String.format("%-40s %8s %9s %8s %8s %8s %8s  %s%n", "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms",
+                                  "max ms", "statuses"));
+        new TreeMap<>(results).forEach((name, result) -> {
+            Map<String, Object> summary = result.summary();
+            endpoints.put(name, summary);
+            text.append(String.format("%-40s %8d %9.1f %8d %8d %8d %8d  %s%n", name, summary.get("requests"), summary.get("throughput"),
+                                      summary.get("p50Millis"), summary.get("p90Millis"), summary.get("p99Millis"), summary.get("maxMillis"),
+                                      summary.get("statuses")));
+        });
+        report.put("endpoints", endpoints);
+
+        Files.createDirectories(REPORT_DIR);
+        Files.writeString(REPORT_DIR.resolve("report.txt"), text);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                          .writeValue(REPORT_DIR.resolve("report.json")
+                                                .toFile(), report);
+        System.out.print(text);
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                          .GET()
+                          .build();
+    }
+
+    private static final class Scenario {
+        private final String name;
+        private final int weight;
+        private final IntFunction<HttpRequest> request;
+
+        private Scenario(String name, int weight, IntFunction<HttpRequest> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+    }
+
+    /**
+     * Latencies and status codes for one endpoint, a status of -1 is a transport error with no response
+     */
+    private static final class EndpointResult {
+        private final List<Long> latencies = new ArrayList<>();
+        private final Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        private final AtomicInteger transportErrors = new AtomicInteger();
+        private long elapsedNanos;
+
+        synchronized void record(long latencyNanos, int status) {
+            latencies.add(latencyNanos);
+            statuses.computeIfAbsent(status, code -> new AtomicInteger())
+                    .incrementAndGet();
+            if (status < 0) {
+                transportErrors.incrementAndGet();
+            }
+        }
+
+        synchronized Map<String, Object> summary() {
+            long[] sorted = latencies.stream()
+                                     .mapToLong(Long::longValue)
+                                     .toArray();
+            Arrays.sort(sorted);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", sorted.length);
+            summary.put("throughput", sorted.length / (elapsedNanos / 1e9));
+            summary.put("p50Millis", percentile(sorted, 0.5));
+            summary.put("p90Millis", percentile(sorted, 0.9));
+            summary.put("p99Millis", percentile(sorted, 0.99));
+            summary.put("maxMillis", percentile(sorted, 1));
+            Map<String, Integer> codes = new TreeMap<>();
+            statuses.forEach((status, count) -> codes.put((status < 0) ? "error" : String.valueOf(status), count.get()));
+            summary.put("statuses", codes);
+            return summary;
+        }
+
+        private static long percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = Math.min(sorted.length - 1, Math.max(0, (int) Math.ceil(sorted.length * percentile) - 1));
+            return TimeUnit.NANOSECONDS.toMillis(sorted[index]);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.rqchallenge;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test comparing platform and virtual thread request handling against an upstream that takes 200ms per call. The
+ * upstream is a local HTTP stub called through the real RestTemplate, RestApiExampleService and pooled Apache
+ * HttpClient, so pinning anywhere on that path (the connection pool's locks included) shows up in the results. Boots
+ * the full app once per mode with a capped Tomcat pool and a connection pool four times its size, fires a fixed number
+ * of concurrent requests at GET /{id} and reports throughput and latency percentiles. Each request asks for a different
+ * id so the service can't coalesce them into one upstream call. Tagged load so it only runs with ./gradlew loadTest.
+ */
+@Tag("load")
+class VirtualThreadLoadTest {
+
+    private static final int REQUESTS = 4000;
+    private static final int CONCURRENCY = 400;
+    private static final int PLATFORM_THREADS = 50;
+    private static final long UPSTREAM_LATENCY_MILLIS = 200;
+    // the JDK's HttpServer only keeps 200 idle connections open, any more and pooled connections go stale
+    private static final int UPSTREAM_CONNECTIONS = 200;
+
+    @Test
+    void virtualThreadsAreNotBoundByPlatformThreadPool() throws Exception {
+        HttpServer upstream = startUpstream();
+        try {
+            LoadResult platform = run(false, upstream);
+            LoadResult virtual = run(true, upstream);
+
+            System.out.printf("platform threads: %s%nvirtual threads:  %s%n", platform, virtual);
+            assertThat(platform.errors).isZero();
+            assertThat(virtual.errors).isZero();
+            assertThat(virtual.throughput).isGreaterThan(platform.throughput);
+            assertThat(virtual.p99Millis).isLessThan(platform.p99Millis);
+        } finally {
+            upstream.stop(0);
+        }
+    }
+
+    private LoadResult run(boolean virtualThreads, HttpServer upstream) throws Exception {
+        // as arguments, properties() only sets defaults and application.properties would win over them
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(RqChallengeApplication.class)
+                .run("--server.port=0",
+                     "--server.tomcat.threads.max=" + PLATFORM_THREADS,
+                     "--spring.threads.virtual.enabled=" + virtualThreads,
+                     "--rq.client.uri=http://127.0.0.1:" + upstream.getAddress()
+                                                                   .getPort(),
+                     "--rq.client.cache.enabled=false",
+                     "--rq.client.http.max-connections=" + UPSTREAM_CONNECTIONS,
+                     "--rq.client.http.max-connections-per-route=" + UPSTREAM_CONNECTIONS,
+                     "--rq.client.http.compression=false",
+                     // the stub isn't rate limited, only the pool and the threads should bound the calls
+                     "--rq.client.rate-limit.max-rate=1000000",
+                     "--rq.client.rate-limit.burst=1000000")) {
+            int port = context.getEnvironment()
+                              .getRequiredProperty("local.server.port", Integer.class);
+            return fire("http://localhost:" + port + "/");
+        }
+    }
+
+    private LoadResult fire(String baseUri) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[REQUESTS];
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[REQUESTS];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            int requestNumber = i;
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUri + (i + 1)))
+                                             .GET()
+                                             .build();
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                                 .whenComplete((response, error) -> {
+                                     latencies[requestNumber] = System.nanoTime() - sent;
+                                     if (null != error || response.statusCode() != 200) {
+                                         errors.incrementAndGet();
+                                     }
+                                     inFlight.release();
+                                 });
+        }
+        CompletableFuture.allOf(responses)
+                         .exceptionally(error -> null)
+                         .get(5, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new LoadResult(REQUESTS / (elapsed / 1e9),
+                              TimeUnit.NANOSECONDS.toMillis(latencies[REQUESTS / 2]),
+                              TimeUnit.NANOSECONDS.toMillis(latencies[(int) (REQUESTS * 0.99) - 1]),
+                              errors.get());
+    }
+
+    private static final class LoadResult {
+        private final double throughput;
+        private final long p50Millis;
+        private final long p99Millis;
+        private final int errors;
+
+        private LoadResult(double throughput, long p50Millis, long p99Millis, int errors) {
+            this.throughput = throughput;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.errors = errors;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, p50 %dms, p99 %dms, %d errors", throughput, p50Millis, p99Millis, errors);
+        }
+    }
+
+    /**
+     * Stands in for the upstream over HTTP with a fixed delay per call, every id is an employee and the list is empty
+     */
+    private static HttpServer startUpstream() throws IOException {
+        HttpServer upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), CONCURRENCY * 2);
+        upstream.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        upstream.createContext("/employees", exchange -> respond(exchange, "{\"status\":\"success\",\"data\":[]}"));
+        upstream.createContext("/employee/", exchange -> {
+            String id = exchange.getRequestURI()
+                                .getPath()
+                                .substring("/employee/".length());
+            respond(exchange, "{\"status\":\"success\",\"data\":{\"id\":" + id
+                              + ",\"name\":\"Tiger Nixon\",\"salary\":320800,\"age\":61,\"profile_image\":\"\"}}");
+        });
+        upstream.start();
+        return upstream;
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        try {
+            Thread.sleep(UPSTREAM_LATENCY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders()
+                .set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+}
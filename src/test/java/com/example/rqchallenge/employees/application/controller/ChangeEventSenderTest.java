@@ -0,0 +1,85 @@
+package com.example.rqchallenge.employees.application.controller;
+
+import com.example.rqchallenge.employees.domain.model.EmployeeDelta;
+import com.example.rqchallenge.employees.domain.service.IEmployeeChangeFeed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Change event sender tests with a mocked feed and emitter, a stalled client is held on a latch. The emitter's
+ * complete methods are synchronized, so they are awaited on latches rather than verified with a timeout.
+ */
+class ChangeEventSenderTest {
+
+    private static final EmployeeDelta DELTA = new EmployeeDelta(List.of(), List.of(), List.of());
+
+    @Test
+    void stalledClientIsDroppedWithoutHoldingUpTheFeed() throws Exception {
+        IEmployeeChangeFeed feed = mock(IEmployeeChangeFeed.class);
+        SseEmitter emitter = mock(SseEmitter.class);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(emitter)
+          .send(any(SseEmitter.SseEventBuilder.class));
+        CountDownLatch completed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            completed.countDown();
+            return null;
+        }).when(emitter)
+          .complete();
+        ChangeEventSender sender = ChangeEventSender.start(feed, emitter, 2);
+
+        sender.onChange(1, DELTA);
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+        long start = System.nanoTime();
+        for (int sequence = 2; sequence <= 10; sequence++) {
+            sender.onChange(sequence, DELTA);
+        }
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+        verify(feed).unsubscribe(sender);
+        release.countDown();
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(emitter, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void failedSendEndsTheStream() throws Exception {
+        IEmployeeChangeFeed feed = mock(IEmployeeChangeFeed.class);
+        SseEmitter emitter = mock(SseEmitter.class);
+        IOException broken = new IOException("Broken pipe");
+        doAnswer(invocation -> {
+            throw broken;
+        }).when(emitter)
+          .send(any(SseEmitter.SseEventBuilder.class));
+        CountDownLatch failed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            failed.countDown();
+            return null;
+        }).when(emitter)
+          .completeWithError(broken);
+        ChangeEventSender sender = ChangeEventSender.start(feed, emitter, 2);
+
+        sender.onChange(1, DELTA);
+
+        assertThat(failed.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(feed).unsubscribe(sender);
+    }
+}
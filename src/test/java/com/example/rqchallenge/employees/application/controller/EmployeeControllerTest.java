@@ -1,30 +1,51 @@
 package com.example.rqchallenge.employees.application.controller;
 
+import com.example.rqchallenge.employees.domain.index.SortKey;
 import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeDelta;
+import com.example.rqchallenge.employees.domain.model.EmployeeLookup;
+import com.example.rqchallenge.employees.domain.model.EmployeePage;
+import com.example.rqchallenge.employees.domain.service.EmployeeChangeListener;
+import com.example.rqchallenge.employees.domain.service.IEmployeeBatchService;
+import com.example.rqchallenge.employees.domain.service.IEmployeeChangeFeed;
 import com.example.rqchallenge.employees.domain.service.IEmployeeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -40,6 +61,10 @@ class EmployeeControllerTest {
     private ObjectMapper objectMapper;
     @MockBean
     private IEmployeeService employeeService;
+    @MockBean
+    private IEmployeeBatchService employeeBatchService;
+    @MockBean
+    private IEmployeeChangeFeed employeeChangeFeed;
 
     @BeforeEach
     void setUp() {
@@ -59,8 +84,31 @@ class EmployeeControllerTest {
 
         when(employeeService.getByName("Quinn")).thenReturn(List.of(new Employee(12L, "Quinn Flynn", 342000, 22, "")));
 
+        when(employeeService.getPage(null, SortKey.SALARY, true, 0, 2)).thenReturn(new EmployeePage(List.of(
+                new Employee(4L, "Cedric Kelly", 433060, 22, ""),
+                new Employee(6L, "Brielle Williamson", 372000, 61, "")), 0, 2, 12, 5L));
+
+        doAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            employeeService.getAll()
+                           .forEach(consumer);
+            return null;
+        }).when(employeeService)
+          .streamAll(any());
+
+        doAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(1);
+            consumer.accept(new Employee(12L, "Quinn Flynn", 342000, 22, ""));
+            return null;
+        }).when(employeeService)
+          .streamByName(eq("Quinn"), any());
+
         when(employeeService.getById("6")).thenReturn(Optional.of(new Employee(6L, "Brielle Williamson", 372000, 61, "")));
 
+        when(employeeBatchService.getByIds(List.of("6", "99"))).thenReturn(List.of(
+                new EmployeeLookup("6", EmployeeLookup.Status.FOUND, new Employee(6L, "Brielle Williamson", 372000, 61, ""), null),
+                new EmployeeLookup("99", EmployeeLookup.Status.NOT_FOUND, null, null)));
+
         when(employeeService.getHighestSalary()).thenReturn(Optional.of(433060));
 
         when(employeeService.getTopTenHighestEarnersByName()).thenReturn(List.of("Cedric Kelly", "Brielle Williamson", "Quinn Flynn", "Rhona Davidson", "Tiger Nixon", "Colleen Hurst", "Garrett Winters", "Airi Satou", "Herrod Chandler", "Sonya Frost"));
@@ -86,6 +134,82 @@ class EmployeeControllerTest {
                .andExpect(jsonPath("$.[0].id").value(12));
     }
 
+    @Test
+    void testGetEmployeesPage() throws Exception {
+        mockMvc.perform(get("/").param("limit", "2")
+                                .param("sort", "salary")
+                                .param("order", "desc")
+                                .param("fields", "id,name"))
+               .andExpect(status().isOk())
+               .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+               .andExpect(jsonPath("$.data", hasSize(2)))
+               .andExpect(jsonPath("$.data[0].id").value(4))
+               .andExpect(jsonPath("$.data[0].name").value("Cedric Kelly"))
+               .andExpect(jsonPath("$.data[0].salary").doesNotExist())
+               .andExpect(jsonPath("$.total").value(12))
+               .andExpect(jsonPath("$.version").value(5))
+               .andExpect(jsonPath("$.nextOffset").value(2))
+               .andExpect(jsonPath("$.versionChanged").doesNotExist());
+    }
+
+    @Test
+    void testGetEmployeesPageFlagsAChangedVersion() throws Exception {
+        mockMvc.perform(get("/").param("limit", "2")
+                                .param("sort", "salary")
+                                .param("order", "desc")
+                                .param("version", "5"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.versionChanged").value(false));
+        mockMvc.perform(get("/").param("limit", "2")
+                                .param("sort", "salary")
+                                .param("order", "desc")
+                                .param("version", "4"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.versionChanged").value(true));
+    }
+
+    @Test
+    void testGetEmployeesPageRejectsUnknownSortAndFields() throws Exception {
+        mockMvc.perform(get("/").param("limit", "2")
+                                .param("sort", "profile_image"))
+               .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/").param("limit", "2")
+                                .param("fields", "id,password"))
+               .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testStreamAllEmployeesAsNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/").accept(MediaType.APPLICATION_NDJSON))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                             .andExpect(status().isOk())
+                             .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                             .andReturn()
+                             .getResponse()
+                             .getContentAsString();
+        List<String> lines = body.lines()
+                                 .toList();
+        assertThat(lines).hasSize(12);
+        assertThat(objectMapper.readTree(lines.get(0))
+                               .get("name")
+                               .asText()).isEqualTo("Tiger Nixon");
+    }
+
+    @Test
+    void testStreamEmployeesByNameSearchAsJsonArray() throws Exception {
+        MvcResult result = mockMvc.perform(get("/search/{searchString}", "Quinn").accept(IEmployeeController.JSON_STREAM_VALUE))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isOk())
+               .andExpect(content().contentType(IEmployeeController.JSON_STREAM_VALUE))
+               .andExpect(content().string(startsWith("[")))
+               .andExpect(jsonPath("$", hasSize(1)))
+               .andExpect(jsonPath("$.[0].id").value(12));
+    }
+
     @Test
     void testGetEmployeeById() throws Exception {
         mockMvc.perform(get("/{id}", 6))
@@ -94,6 +218,26 @@ class EmployeeControllerTest {
                .andExpect(jsonPath("$.name").value("Brielle Williamson"));
     }
 
+    @Test
+    void testGetEmployeesByIds() throws Exception {
+        mockMvc.perform(post("/batch")
+                       .content(objectMapper.writeValueAsString(List.of("6", "99")))
+                       .contentType(MediaType.APPLICATION_JSON))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$", hasSize(2)))
+               .andExpect(jsonPath("$.[0].status").value("FOUND"))
+               .andExpect(jsonPath("$.[0].employee.name").value("Brielle Williamson"))
+               .andExpect(jsonPath("$.[1].status").value("NOT_FOUND"));
+    }
+
+    @Test
+    void testGetEmployeesByIdsRejectsEmptyBatch() throws Exception {
+        mockMvc.perform(post("/batch")
+                       .content("[]")
+                       .contentType(MediaType.APPLICATION_JSON))
+               .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetHighestSalaryOfEmployees() throws Exception {
         mockMvc.perform(get("/highestSalary"))
@@ -127,4 +271,102 @@ class EmployeeControllerTest {
                .andExpect(status().isAccepted())
                .andExpect(jsonPath("$").value("success"));
     }
+
+    @Test
+    void testBulkWriteIsQueuedAndCanBePolled() throws Exception {
+        Map<String, Object> bulk = Map.of("create", List.of(Map.of("name", "Tiger Nixon", "salary", "320800", "age", "61")),
+                                          "delete", List.of("12"));
+        String body = mockMvc.perform(post("/bulk")
+                                     .content(objectMapper.writeValueAsString(bulk))
+                                     .contentType(MediaType.APPLICATION_JSON))
+                             .andExpect(status().isAccepted())
+                             .andExpect(jsonPath("$", hasSize(2)))
+                             .andExpect(jsonPath("$.[0].type").value("CREATE"))
+                             .andExpect(jsonPath("$.[0].trackingId", notNullValue()))
+                             .andExpect(jsonPath("$.[1].type").value("DELETE"))
+                             .andExpect(jsonPath("$.[1].employeeId").value("12"))
+                             .andReturn()
+                             .getResponse()
+                             .getContentAsString();
+        String trackingId = objectMapper.readTree(body)
+                                        .get(0)
+                                        .get("trackingId")
+                                        .asText();
+
+        String write = waitForWrite(trackingId);
+        assertThat(objectMapper.readTree(write)
+                               .get("status")
+                               .asText()).isEqualTo("SUCCEEDED");
+        assertThat(objectMapper.readTree(write)
+                               .get("employee")
+                               .get("name")
+                               .asText()).isEqualTo("Tiger Nixon");
+    }
+
+    @Test
+    void testBulkWriteRejectsEmptyRequestAndBadCallback() throws Exception {
+        mockMvc.perform(post("/bulk")
+                       .content("{}")
+                       .contentType(MediaType.APPLICATION_JSON))
+               .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/bulk")
+                       .content(objectMapper.writeValueAsString(Map.of("delete", List.of("12"), "callbackUrl", "file:///etc/passwd")))
+                       .contentType(MediaType.APPLICATION_JSON))
+               .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetUnknownWrite() throws Exception {
+        mockMvc.perform(get("/writes/{trackingId}", "unknown"))
+               .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testStreamChanges() throws Exception {
+        MvcResult result = mockMvc.perform(get("/changes")
+                                          .accept(MediaType.TEXT_EVENT_STREAM))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+        ArgumentCaptor<EmployeeChangeListener> listener = ArgumentCaptor.forClass(EmployeeChangeListener.class);
+        verify(employeeChangeFeed).subscribe(listener.capture());
+
+        listener.getValue()
+                .onChange(7L, new EmployeeDelta(List.of(new Employee(13L, "Zorita Serrano", 115000, 56, "")), List.of(), List.of()));
+
+        // sent from the client's own thread
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!result.getResponse()
+                      .getContentAsString()
+                      .contains("Zorita Serrano") && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(result.getResponse()
+                         .getContentAsString()).contains("id:7", "event:change", "\"name\":\"Zorita Serrano\"");
+    }
+
+    @Test
+    void testChangesWithoutEventStreamAcceptIsNotAnIdLookup() throws Exception {
+        mockMvc.perform(get("/changes")
+                       .accept(MediaType.APPLICATION_JSON))
+               .andExpect(status().isNotAcceptable());
+
+        verifyNoInteractions(employeeService, employeeChangeFeed);
+    }
+
+    private String waitForWrite(String trackingId) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            String write = mockMvc.perform(get("/writes/{trackingId}", trackingId))
+                                  .andExpect(status().isOk())
+                                  .andReturn()
+                                  .getResponse()
+                                  .getContentAsString();
+            if (objectMapper.readTree(write)
+                            .get("done")
+                            .asBoolean() || System.nanoTime() > deadline) {
+                return write;
+            }
+            Thread.sleep(10);
+        }
+    }
 }
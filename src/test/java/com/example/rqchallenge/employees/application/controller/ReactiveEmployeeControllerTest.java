@@ -0,0 +1,163 @@
+package com.example.rqchallenge.employees.application.controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reactive Employee Controller tests through the real WebClient against a local HTTP stub of the upstream, each test
+ * sets the stub's response for the paths it uses.
+ */
+@SpringBootTest(properties = {"rq.client.reactive.enabled=true", "rq.client.reactive.call-timeout=1s"})
+@AutoConfigureMockMvc
+class ReactiveEmployeeControllerTest {
+
+    private static final String EMPLOYEES = "{\"status\":\"success\",\"data\":["
+                                            + "{\"id\":1,\"name\":\"Tiger Nixon\",\"salary\":320800,\"age\":61,\"profile_image\":\"\"},"
+                                            + "{\"id\":2,\"name\":\"Garrett Winters\",\"salary\":170750,\"age\":63,\"profile_image\":\"\"},"
+                                            + "{\"id\":3,\"name\":\"Ashton Cox\",\"salary\":86000,\"age\":66,\"profile_image\":\"\"}]}";
+
+    private static final Map<String, HttpHandler> UPSTREAM = new ConcurrentHashMap<>();
+    private static final HttpServer SERVER = startUpstream();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("rq.client.uri", () -> "http://127.0.0.1:" + SERVER.getAddress()
+                                                                         .getPort());
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        SERVER.stop(0);
+    }
+
+    @Test
+    void testGetAllEmployeesAndSearch() throws Exception {
+        UPSTREAM.put("/employees", exchange -> respond(exchange, 200, EMPLOYEES));
+
+        MvcResult all = mockMvc.perform(get("/reactive"))
+                               .andExpect(request().asyncStarted())
+                               .andReturn();
+        mockMvc.perform(asyncDispatch(all))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$", hasSize(3)))
+               .andExpect(jsonPath("$[0].name").value("Tiger Nixon"));
+
+        MvcResult search = mockMvc.perform(get("/reactive/search/{searchString}", "Cox"))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+        mockMvc.perform(asyncDispatch(search))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$", hasSize(1)))
+               .andExpect(jsonPath("$[0].id").value(3));
+    }
+
+    @Test
+    void testGetEmployeeByIdUpstreamNotFound() throws Exception {
+        UPSTREAM.put("/employee/", exchange -> respond(exchange, 404, "{\"status\":\"error\"}"));
+
+        MvcResult result = mockMvc.perform(get("/reactive/{id}", "404"))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testUpstreamErrorsAndStallsEndTheRequest() throws Exception {
+        UPSTREAM.put("/employees", exchange -> respond(exchange, 503, "{\"status\":\"error\"}"));
+
+        MvcResult failed = mockMvc.perform(get("/reactive/highestSalary"))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+        assertThat(failed.getAsyncResult(5000)).isInstanceOf(WebClientResponseException.ServiceUnavailable.class);
+
+        UPSTREAM.put("/employees", exchange -> {
+            try {
+                Thread.sleep(3000);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+            }
+            respond(exchange, 200, EMPLOYEES);
+        });
+        long start = System.nanoTime();
+        MvcResult stalled = mockMvc.perform(get("/reactive/highestSalary"))
+                                   .andExpect(request().asyncStarted())
+                                   .andReturn();
+        // whichever of the call timeout and the connector's response timeout goes off first
+        assertThat(stalled.getAsyncResult(5000)).isInstanceOfAny(TimeoutException.class, WebClientRequestException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2500);
+    }
+
+    private static HttpServer startUpstream() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/", exchange -> route(exchange).handle(exchange));
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The handler for the exact path, or for a path prefix ending in a slash, or a 404
+     */
+    private static HttpHandler route(HttpExchange exchange) {
+        String path = exchange.getRequestURI()
+                              .getPath();
+        return UPSTREAM.entrySet()
+                       .stream()
+                       .filter(entry -> path.equals(entry.getKey()) || (entry.getKey()
+                                                                             .endsWith("/") && path.startsWith(entry.getKey())))
+                       .map(Map.Entry::getValue)
+                       .findFirst()
+                       .orElse(unrouted -> respond(unrouted, 404, "{\"status\":\"error\"}"));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders()
+                .set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+}
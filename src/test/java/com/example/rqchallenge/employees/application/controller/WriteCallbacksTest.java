@@ -0,0 +1,46 @@
+package com.example.rqchallenge.employees.application.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Write callback tests, callbacks may only go to allowed hosts with public addresses.
+ */
+class WriteCallbacksTest {
+
+    private final WriteCallbacks writeCallbacks = new WriteCallbacks(new ObjectMapper(),
+                                                                      List.of("93.184.216.34", " LOCALHOST ", "127.0.0.1", "169.254.169.254",
+                                                                              "10.0.0.1", "192.168.1.1", "[::1]", "[fd00::1]"));
+
+    @Test
+    void allowsPublicAddressOfAnAllowedHost() {
+        assertThat(writeCallbacks.to("https://93.184.216.34/callback")).isNotNull();
+    }
+
+    @Test
+    void rejectsHostsNotAllowed() {
+        assertThatThrownBy(() -> writeCallbacks.to("https://93.184.216.35/callback")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new WriteCallbacks(new ObjectMapper(), List.of()).to("https://93.184.216.34/callback"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsNonPublicAddressesEvenWhenAllowed() {
+        for (String url : List.of("http://localhost:8080/", "http://127.0.0.1/", "http://169.254.169.254/latest/meta-data", "http://10.0.0.1/",
+                                  "http://192.168.1.1/", "http://[::1]/", "http://[fd00::1]/")) {
+            assertThatThrownBy(() -> writeCallbacks.to(url)).as(url)
+                                                            .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void rejectsOtherSchemes() {
+        assertThatThrownBy(() -> writeCallbacks.to("file:///etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.rqchallenge.employees.application.support;
+
+import com.example.rqchallenge.employees.infrastructure.support.LogSampling;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Log sampling filter tests, the chain records the sampling decision seen by the handler.
+ */
+class LogSamplingFilterTest {
+
+    @Test
+    void unsampledRequestsAreClearedAfterwards() throws Exception {
+        AtomicBoolean sampled = new AtomicBoolean(true);
+
+        new LogSamplingFilter(0).doFilter(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse(),
+                                          (request, response) -> sampled.set(LogSampling.isSampled()));
+
+        assertThat(sampled).isFalse();
+        assertThat(LogSampling.isSampled()).isTrue();
+    }
+
+    @Test
+    void everyRequestIsSampledAtFullRate() throws Exception {
+        AtomicBoolean sampled = new AtomicBoolean();
+
+        new LogSamplingFilter(1).doFilter(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse(),
+                                          (request, response) -> sampled.set(LogSampling.isSampled()));
+
+        assertThat(sampled).isTrue();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.rqchallenge.employees.application.support;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Payload metrics filter tests, the chain stands in for a handler writing a response.
+ */
+class PayloadMetricsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PayloadMetricsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new PayloadMetricsFilter(meterRegistry);
+    }
+
+    @Test
+    void requestAndResponseSizesAreRecorded() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/");
+        request.setContent("{\"name\":\"Tiger Nixon\"}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (filteredRequest, filteredResponse) -> {
+            filteredRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/");
+            ((HttpServletResponse) filteredResponse).setStatus(201);
+            filteredResponse.getOutputStream()
+                            .write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":1}");
+        assertThat(meterRegistry.get("rq.http.server.request.size")
+                                .tag("uri", "/")
+                                .tag("method", "POST")
+                                .summary()
+                                .totalAmount()).isEqualTo(22);
+        assertThat(meterRegistry.get("rq.http.server.response.size")
+                                .tag("uri", "/")
+                                .tag("status", "201")
+                                .summary()
+                                .totalAmount()).isEqualTo(8);
+    }
+}
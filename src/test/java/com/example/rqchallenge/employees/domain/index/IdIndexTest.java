@@ -0,0 +1,67 @@
+package com.example.rqchallenge.employees.domain.index;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Id index tests, every lookup should agree with a scan of the employees.
+ */
+class IdIndexTest {
+
+    @Test
+    void findsEveryIdAndNothingElse() {
+        Random random = new Random(23);
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            employees.add(new Employee(random.nextInt(8000) - 100, "Employee " + i, 50000, 30, ""));
+        }
+
+        IdIndex idIndex = IdIndex.of(employees);
+
+        for (long id = -200; id < 8200; id++) {
+            assertThat(idIndex.indexOf(id)).as("id %d", id)
+                                           .isEqualTo(scan(employees, id));
+        }
+    }
+
+    @Test
+    void emptyIndexFindsNothing() {
+        assertThat(IdIndex.of(List.of())
+                          .indexOf(1L)).isEqualTo(-1);
+    }
+
+    @Test
+    void carriedOverAppendsReplacementsAndRemovals() {
+        Random random = new Random(24);
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(List.of(new Employee(1L, "Tiger Nixon", 320800, 61, "")));
+        snapshot.idIndex();
+        for (int i = 0; i < 2000; i++) {
+            long id = random.nextInt(300);
+            snapshot = random.nextBoolean() ? snapshot.withRemoved(id) : snapshot.withAdded(new Employee(id, "Employee " + i, 50000, 30, ""));
+
+            assertThat(snapshot.indexOfId(id)).isEqualTo(scan(snapshot, id));
+        }
+        for (long id = 0; id < 300; id++) {
+            assertThat(snapshot.indexOfId(id)).as("id %d", id)
+                                              .isEqualTo(scan(snapshot, id));
+        }
+    }
+
+    private static int scan(List<Employee> employees, long id) {
+        for (int i = 0; i < employees.size(); i++) {
+            if (employees.get(i)
+                         .getId() == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.rqchallenge.employees.domain.index;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Name index tests, results should always match a case-sensitive contains scan.
+ */
+class NameIndexTest {
+
+    private NameIndex nameIndex;
+
+    @BeforeEach
+    void setUp() {
+        nameIndex = NameIndex.of(List.of(
+                new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+                new Employee(2L, "Garrett Winters", 170750, 63, ""),
+                new Employee(3L, null, 86000, 66, ""),
+                new Employee(4L, "Cedric Kelly", 433060, 22, ""),
+                new Employee(5L, "Herrod Chandler", 137500, 59, ""),
+                new Employee(6L, "Rhona Davidson", 327900, 55, "")));
+    }
+
+    @Test
+    void searchMatchesSubstrings() {
+        assertThat(nameIndex.search("Garrett")).extracting(Employee::getId)
+                                               .containsExactly(2L);
+        assertThat(nameIndex.search("er")).extracting(Employee::getId)
+                                          .containsExactly(1L, 2L, 5L);
+        assertThat(nameIndex.search("on")).extracting(Employee::getId)
+                                          .containsExactly(1L, 6L);
+    }
+
+    @Test
+    void searchIsCaseSensitive() {
+        assertThat(nameIndex.search("garrett")).isEmpty();
+        assertThat(nameIndex.search("Kelly")).extracting(Employee::getId)
+                                             .containsExactly(4L);
+    }
+
+    @Test
+    void searchVerifiesCandidates() {
+        // every trigram of "ndlerrod" is in "Herrod Chandler" but the string itself is not
+        assertThat(nameIndex.search("ndlerrod")).isEmpty();
+    }
+
+    @Test
+    void emptySearchMatchesAllNamedEmployees() {
+        assertThat(nameIndex.search("")).hasSize(5);
+    }
+
+    @Test
+    void stats() {
+        assertThat(nameIndex.trigrams()).isPositive();
+        assertThat(nameIndex.estimatedBytes()).isPositive();
+        assertThat(nameIndex.buildNanos()).isPositive();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.rqchallenge.employees.domain.index;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Salary index tests over a small fixed set of employees.
+ */
+class SalaryIndexTest {
+
+    private static final List<Employee> EMPLOYEES = List.of(
+            new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+            new Employee(2L, "Garrett Winters", 170750, 63, ""),
+            new Employee(3L, "Ashton Cox", 86000, 66, ""),
+            new Employee(4L, "Cedric Kelly", 433060, 22, ""),
+            new Employee(5L, "Airi Satou", 170750, 33, ""),
+            new Employee(6L, "Brielle Williamson", 372000, 61, ""));
+
+    private SalaryIndex salaryIndex;
+
+    @BeforeEach
+    void setUp() {
+        salaryIndex = SalaryIndex.of(EMPLOYEES);
+    }
+
+    @Test
+    void highest() {
+        assertThat(salaryIndex.highest()).hasValue(433060);
+        assertThat(SalaryIndex.of(List.of())
+                              .highest()).isEmpty();
+    }
+
+    @Test
+    void topKeepsListOrderForEqualSalaries() {
+        assertThat(salaryIndex.top(5)).extracting(Employee::getId)
+                                      .containsExactly(4L, 6L, 1L, 2L, 5L);
+        assertThat(salaryIndex.top(10)).hasSize(6);
+    }
+
+    @Test
+    void range() {
+        assertThat(salaryIndex.range(170750, 372000)).extracting(Employee::getId)
+                                                     .containsExactly(6L, 1L, 2L, 5L);
+        assertThat(salaryIndex.range(0, 1000)).isEmpty();
+        assertThat(salaryIndex.range(Integer.MIN_VALUE, Integer.MAX_VALUE)).hasSize(6);
+    }
+
+    @Test
+    void withAppended() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(EMPLOYEES);
+        snapshot.salaryIndex();
+        EmployeeSnapshot added = snapshot.withAdded(new Employee(7L, "Herrod Chandler", 170750, 59, ""));
+
+        assertThat(added.salaryIndex()
+                        .range(170750, 170750)).extracting(Employee::getId)
+                                               .containsExactly(2L, 5L, 7L);
+        assertThat(added.withAdded(new Employee(8L, "Rhona Davidson", 500000, 55, ""))
+                        .salaryIndex()
+                        .highest()).hasValue(500000);
+        assertThat(snapshot.salaryIndex()
+                           .size()).isEqualTo(6);
+    }
+
+    @Test
+    void withReplaced() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(EMPLOYEES);
+        snapshot.salaryIndex();
+        EmployeeSnapshot replaced = snapshot.withAdded(new Employee(1L, "Tiger Nixon", 170750, 61, ""));
+
+        assertThat(replaced.salaryIndex()
+                           .range(170750, 170750)).extracting(Employee::getId)
+                                                  .containsExactly(1L, 2L, 5L);
+        assertThat(replaced.salaryIndex()
+                           .size()).isEqualTo(6);
+    }
+
+    @Test
+    void withRemoved() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(EMPLOYEES);
+        snapshot.salaryIndex();
+        EmployeeSnapshot removed = snapshot.withRemoved(2L)
+                                           .withRemoved(4L);
+
+        assertThat(removed.salaryIndex()
+                          .top(10)).extracting(Employee::getId)
+                                   .containsExactly(6L, 1L, 5L, 3L);
+        assertThat(removed.salaryIndex()
+                          .top(10)).containsExactlyElementsOf(SalaryIndex.of(List.copyOf(removed))
+                                                                         .top(10));
+        assertThat(removed.withRemoved(99L)).isSameAs(removed);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.rqchallenge.employees.domain.index;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sorted index tests over a small fixed set of employees.
+ */
+class SortedIndexTest {
+
+    private static final List<Employee> EMPLOYEES = Arrays.asList(
+            new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+            new Employee(2L, "Garrett Winters", 170750, 63, ""),
+            null,
+            new Employee(3L, "Ashton Cox", 86000, 66, ""),
+            new Employee(4L, "Cedric Kelly", 433060, 22, ""),
+            new Employee(5L, "Airi Satou", 170750, 33, ""),
+            new Employee(6L, null, 372000, 61, ""));
+
+    @Test
+    void salaryKeepsListOrderForEqualSalariesInBothDirections() {
+        assertThat(SortedIndex.of(EMPLOYEES, SortKey.SALARY, false)
+                              .page(0, 10)).extracting(Employee::getId)
+                                           .containsExactly(3L, 2L, 5L, 1L, 6L, 4L);
+        assertThat(SortedIndex.of(EMPLOYEES, SortKey.SALARY, true)
+                              .page(0, 10)).extracting(Employee::getId)
+                                           .containsExactly(4L, 6L, 1L, 2L, 5L, 3L);
+    }
+
+    @Test
+    void namesWithoutANameLast() {
+        assertThat(SortedIndex.of(EMPLOYEES, SortKey.NAME, false)
+                              .page(0, 10)).extracting(Employee::getId)
+                                           .containsExactly(5L, 3L, 4L, 2L, 1L, 6L);
+    }
+
+    @Test
+    void page() {
+        SortedIndex ageIndex = SortedIndex.of(EMPLOYEES, SortKey.AGE, false);
+        assertThat(ageIndex.size()).isEqualTo(6);
+        assertThat(ageIndex.page(1, 3)).extracting(Employee::getId)
+                                       .containsExactly(5L, 1L, 6L);
+        assertThat(ageIndex.page(5, 3)).extracting(Employee::getId)
+                                       .containsExactly(3L);
+        assertThat(ageIndex.page(10, 3)).isEmpty();
+    }
+
+    @Test
+    void sortKeyFromName() {
+        assertThat(SortKey.from("salary")).hasValue(SortKey.SALARY);
+        assertThat(SortKey.from("Name")).hasValue(SortKey.NAME);
+        assertThat(SortKey.from("profile_image")).isEmpty();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.rqchallenge.employees.domain.index;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Top earners tests, checked against the salary index for the same employees.
+ */
+class TopEarnersTest {
+
+    private static final List<Employee> EMPLOYEES = List.of(
+            new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+            new Employee(2L, "Garrett Winters", 170750, 63, ""),
+            new Employee(3L, "Ashton Cox", 86000, 66, ""),
+            new Employee(4L, "Cedric Kelly", 433060, 22, ""),
+            new Employee(5L, "Airi Satou", 170750, 33, ""),
+            new Employee(6L, "Brielle Williamson", 372000, 61, ""));
+
+    @Test
+    void topKeepsOrderSeenForEqualSalaries() {
+        TopEarners topEarners = new TopEarners(5);
+        EMPLOYEES.forEach(topEarners);
+        assertThat(topEarners.top()).extracting(Employee::getId)
+                                    .containsExactly(4L, 6L, 1L, 2L, 5L);
+    }
+
+    @Test
+    void fewerEmployeesThanRequested() {
+        TopEarners topEarners = new TopEarners(10);
+        EMPLOYEES.forEach(topEarners);
+        topEarners.accept(null);
+        assertThat(topEarners.top()).hasSize(6);
+        assertThat(new TopEarners(0).top()).isEmpty();
+    }
+
+    @Test
+    void matchesSalaryIndex() {
+        Random random = new Random(7);
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            employees.add(new Employee(i, "Employee " + i, random.nextInt(50), 30, ""));
+        }
+        TopEarners topEarners = new TopEarners(10);
+        employees.forEach(topEarners);
+        assertThat(topEarners.top()).containsExactlyElementsOf(SalaryIndex.of(employees)
+                                                                          .top(10));
+    }
+}
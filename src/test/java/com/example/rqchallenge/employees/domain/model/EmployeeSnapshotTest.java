@@ -0,0 +1,136 @@
+package com.example.rqchallenge.employees.domain.model;
+
+import com.example.rqchallenge.employees.domain.index.SortKey;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Employee snapshot tests, employees should come back out of the columns exactly as they went in.
+ */
+class EmployeeSnapshotTest {
+
+    private static final List<Employee> EMPLOYEES = Arrays.asList(
+            new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+            null,
+            new Employee(2L, null, 170750, 63, null),
+            new Employee(3L, "Zoë Ångström", 86000, 66, "https://example.com/3.png"),
+            new Employee(4L, "", 433060, 22, ""));
+
+    @Test
+    void roundTripsThroughColumnsDroppingNulls() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(EMPLOYEES);
+
+        assertThat(snapshot).containsExactly(EMPLOYEES.get(0), EMPLOYEES.get(2), EMPLOYEES.get(3), EMPLOYEES.get(4));
+        assertThat(snapshot.get(1)
+                           .getName()).isNull();
+        assertThat(snapshot.columns()
+                           .salary(2)).isEqualTo(86000);
+        assertThat(EmployeeSnapshot.of(snapshot)).isSameAs(snapshot);
+    }
+
+    @Test
+    void nameContainsComparesUtf8() {
+        EmployeeColumns columns = EmployeeSnapshot.of(EMPLOYEES)
+                                                  .columns();
+
+        assertThat(columns.nameContains(2, EmployeeColumns.utf8("ë Å"))).isTrue();
+        assertThat(columns.nameContains(2, EmployeeColumns.utf8("e A"))).isFalse();
+        assertThat(columns.nameContains(1, EmployeeColumns.utf8(""))).isFalse();
+        assertThat(columns.nameContains(3, EmployeeColumns.utf8(""))).isTrue();
+    }
+
+    @Test
+    void withAddedAndRemoved() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(EMPLOYEES);
+        Employee replacement = new Employee(3L, "Ashton Cox", 90000, 67, "");
+        Employee added = new Employee(5L, "Airi Satou", 162700, 33, "");
+
+        EmployeeSnapshot changed = snapshot.withAdded(replacement)
+                                           .withAdded(added)
+                                           .withRemoved(1L);
+
+        assertThat(changed).containsExactly(EMPLOYEES.get(2), replacement, EMPLOYEES.get(4), added);
+        assertThat(changed.indexOfId(5L)).isEqualTo(3);
+        assertThat(changed.indexOfId(1L)).isEqualTo(-1);
+        assertThat(snapshot).hasSize(4);
+    }
+
+    @Test
+    void diffFindsAddedChangedAndRemovedById() {
+        EmployeeSnapshot previous = EmployeeSnapshot.of(EMPLOYEES);
+        Employee renamed = new Employee(2L, "Garrett Winters", 170750, 63, null);
+        Employee imageCleared = new Employee(4L, "", 433060, 22, null);
+        Employee added = new Employee(5L, "Airi Satou", 162700, 33, "");
+        EmployeeSnapshot current = EmployeeSnapshot.of(Arrays.asList(added, EMPLOYEES.get(3), imageCleared, renamed));
+
+        EmployeeDelta delta = current.diff(previous);
+
+        assertThat(delta.getAdded()).containsExactly(added);
+        assertThat(delta.getChanged()).containsExactly(imageCleared, renamed);
+        assertThat(delta.getRemoved()).containsExactly(EMPLOYEES.get(0));
+        assertThat(current.diff(current)
+                          .hasChanges()).isFalse();
+        assertThat(EmployeeSnapshot.of(EMPLOYEES)
+                                   .diff(previous)
+                                   .hasChanges()).isFalse();
+    }
+
+    @Test
+    void indexesAreCarriedOverToDerivedSnapshots() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(EMPLOYEES);
+        buildIndexes(snapshot);
+
+        EmployeeSnapshot changed = snapshot.withAdded(new Employee(5L, "Airi Satou", 162700, 33, ""))
+                                           .withAdded(new Employee(3L, "Ashton Cox", 86000, 67, null))
+                                           .withRemoved(1L)
+                                           .withAdded(new Employee(6L, "Tiger Nixon", 433060, 61, ""));
+        EmployeeSnapshot rebuilt = EmployeeSnapshot.of(new ArrayList<>(changed));
+
+        assertThat(changed.indexOfId(6L)).isEqualTo(4);
+        assertThat(changed.indexOfId(1L)).isEqualTo(-1);
+        assertThat(changed.salaryIndex()
+                          .top(10)).isEqualTo(rebuilt.salaryIndex()
+                                                     .top(10));
+        for (String search : List.of("Tiger", "Cox", "Ni", "ë Å")) {
+            assertThat(changed.nameIndex()
+                              .search(search)).isEqualTo(rebuilt.nameIndex()
+                                                                .search(search));
+        }
+        for (SortKey sortKey : SortKey.values()) {
+            for (boolean descending : new boolean[]{false, true}) {
+                assertThat(changed.sortedIndex(sortKey, descending)
+                                  .page(0, 10)).isEqualTo(rebuilt.sortedIndex(sortKey, descending)
+                                                                 .page(0, 10));
+            }
+        }
+        assertThat(changed.diff(rebuilt)
+                          .hasChanges()).isFalse();
+    }
+
+    @Test
+    void everySnapshotGetsAHigherVersion() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(EMPLOYEES);
+        EmployeeSnapshot added = snapshot.withAdded(new Employee(5L, "Airi Satou", 162700, 33, ""));
+        EmployeeSnapshot reloaded = EmployeeSnapshot.of(new ArrayList<>(added));
+
+        assertThat(added.version()).isGreaterThan(snapshot.version());
+        assertThat(reloaded.version()).isGreaterThan(added.version());
+        assertThat(reloaded.buildIndexesLike(added)).isSameAs(reloaded);
+    }
+
+    private static void buildIndexes(EmployeeSnapshot snapshot) {
+        snapshot.salaryIndex();
+        snapshot.nameIndex();
+        snapshot.diff(snapshot);
+        for (SortKey sortKey : SortKey.values()) {
+            snapshot.sortedIndex(sortKey, false);
+            snapshot.sortedIndex(sortKey, true);
+        }
+    }
+}
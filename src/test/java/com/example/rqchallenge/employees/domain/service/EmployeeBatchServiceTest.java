@@ -0,0 +1,136 @@
+package com.example.rqchallenge.employees.domain.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeLookup;
+import com.example.rqchallenge.employees.infrastructure.service.EmployeeApi;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batch lookup tests with a mocked EmployeeApi.
+ */
+class EmployeeBatchServiceTest {
+
+    private EmployeeApi mockEmployeeApi;
+    private EmployeeBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        mockEmployeeApi = mock(EmployeeApi.class);
+        batchService = new EmployeeBatchService(mockEmployeeApi, 8, Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+        when(mockEmployeeApi.findLocal(anyString())).thenReturn(Optional.empty());
+        when(mockEmployeeApi.findById(anyString())).thenReturn(Optional.empty());
+        when(mockEmployeeApi.findLocal("1")).thenReturn(Optional.of(new Employee(1L, "Tiger Nixon", 320800, 61, "")));
+        when(mockEmployeeApi.findById("2")).thenReturn(Optional.of(new Employee(2L, "Garrett Winters", 170750, 63, "")));
+        when(mockEmployeeApi.findById("3")).thenThrow(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+    }
+
+    @Test
+    void idsAreDedupedAndKeepTheirOrder() {
+        List<EmployeeLookup> lookups = batchService.getByIds(List.of("2", "1", "2", "4", "1"));
+
+        assertThat(lookups).extracting(EmployeeLookup::getId)
+                           .containsExactly("2", "1", "4");
+        assertThat(lookups).extracting(EmployeeLookup::getStatus)
+                           .containsExactly(EmployeeLookup.Status.FOUND, EmployeeLookup.Status.FOUND, EmployeeLookup.Status.NOT_FOUND);
+        verify(mockEmployeeApi, times(1)).findById("2");
+    }
+
+    @Test
+    void upstreamNotFoundIsNotFoundRatherThanFailed() {
+        when(mockEmployeeApi.findById("5")).thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY,
+                                                                                     new byte[0], null));
+
+        List<EmployeeLookup> lookups = batchService.getByIds(List.of("5"));
+
+        assertThat(lookups).extracting(EmployeeLookup::getStatus)
+                           .containsExactly(EmployeeLookup.Status.NOT_FOUND);
+        assertThat(lookups.get(0)
+                          .getMessage()).isNull();
+    }
+
+    @Test
+    void localHitsDoNotGoUpstream() {
+        List<EmployeeLookup> lookups = batchService.getByIds(List.of("1"));
+
+        assertThat(lookups.get(0)
+                          .getEmployee()
+                          .getName()).isEqualTo("Tiger Nixon");
+        verify(mockEmployeeApi, never()).findById("1");
+    }
+
+    @Test
+    void failedLookupsDoNotFailTheBatch() {
+        List<EmployeeLookup> lookups = batchService.getByIds(List.of("2", "3"));
+
+        assertThat(lookups).extracting(EmployeeLookup::getStatus)
+                           .containsExactly(EmployeeLookup.Status.FOUND, EmployeeLookup.Status.FAILED);
+        assertThat(lookups.get(1)
+                          .getMessage()).contains("502");
+    }
+
+    @Test
+    void lookupsRunInParallelUpToConcurrency() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(mockEmployeeApi.findById(anyString())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(100);
+            inFlight.decrementAndGet();
+            return Optional.empty();
+        });
+        List<String> ids = new ArrayList<>();
+        for (int i = 100; i < 132; i++) {
+            ids.add(String.valueOf(i));
+        }
+
+        long start = System.nanoTime();
+        List<EmployeeLookup> lookups = batchService.getByIds(ids);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(lookups).hasSize(32)
+                           .allMatch(lookup -> lookup.getStatus() == EmployeeLookup.Status.NOT_FOUND);
+        assertThat(maxInFlight.get()).isEqualTo(8);
+        // 4 rounds of 8 rather than 32 calls back to back
+        assertThat(elapsedMillis).isLessThan(1600);
+    }
+
+    @Test
+    void lookupsStillRunningAtTheTimeoutFail() {
+        batchService = new EmployeeBatchService(mockEmployeeApi, 8, Duration.ofMillis(100), new SimpleMeterRegistry());
+        when(mockEmployeeApi.findById("5")).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return Optional.empty();
+        });
+
+        List<EmployeeLookup> lookups = batchService.getByIds(List.of("2", "5"));
+
+        assertThat(lookups).extracting(EmployeeLookup::getStatus)
+                           .containsExactly(EmployeeLookup.Status.FOUND, EmployeeLookup.Status.FAILED);
+        assertThat(lookups.get(1)
+                          .getMessage()).isEqualTo("Timed out");
+    }
+}
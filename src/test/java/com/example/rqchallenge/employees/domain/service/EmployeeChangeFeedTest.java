@@ -0,0 +1,124 @@
+package com.example.rqchallenge.employees.domain.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeDelta;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Change feed tests with a mocked EmployeeService, polled by hand rather than on the feed's schedule.
+ */
+class EmployeeChangeFeedTest {
+
+    private static final Employee TIGER = new Employee(1L, "Tiger Nixon", 320800, 61, "");
+    private static final Employee GARRETT = new Employee(2L, "Garrett Winters", 170750, 63, "");
+    private static final Employee ASHTON = new Employee(3L, "Ashton Cox", 86000, 66, "");
+
+    private IEmployeeService mockEmployeeService;
+    private EmployeeChangeFeed changeFeed;
+    private final List<String> changes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mockEmployeeService = mock(IEmployeeService.class);
+        changeFeed = new EmployeeChangeFeed(mockEmployeeService, Duration.ofHours(1), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.destroy();
+    }
+
+    @Test
+    void publishesEachChangeInSequence() {
+        EmployeeSnapshot first = EmployeeSnapshot.of(List.of(TIGER, GARRETT));
+        EmployeeSnapshot second = EmployeeSnapshot.of(List.of(TIGER, new Employee(2L, "Garrett Winters", 180000, 63, ""), ASHTON));
+        EmployeeSnapshot third = EmployeeSnapshot.of(List.of(GARRETT, ASHTON));
+        changeFeed.subscribe(this::record);
+
+        when(mockEmployeeService.getSnapshot()).thenReturn(first);
+        changeFeed.poll();
+        changeFeed.poll();
+        when(mockEmployeeService.getSnapshot()).thenReturn(second);
+        changeFeed.poll();
+        when(mockEmployeeService.getSnapshot()).thenReturn(EmployeeSnapshot.of(List.of(TIGER, new Employee(2L, "Garrett Winters", 180000, 63, ""),
+                                                                                       ASHTON)));
+        changeFeed.poll();
+        when(mockEmployeeService.getSnapshot()).thenReturn(third);
+        changeFeed.poll();
+
+        assertThat(changes).containsExactly("1 added [3] changed [2] removed []", "2 added [] changed [2] removed [1]");
+    }
+
+    @Test
+    void failingListenerDoesNotStopTheOthers() {
+        changeFeed.subscribe((sequence, delta) -> {
+            throw new IllegalStateException("listener failed");
+        });
+        changeFeed.subscribe(this::record);
+
+        when(mockEmployeeService.getSnapshot()).thenReturn(EmployeeSnapshot.of(List.of(TIGER)));
+        changeFeed.poll();
+        when(mockEmployeeService.getSnapshot()).thenReturn(EmployeeSnapshot.of(List.of(TIGER, GARRETT)));
+        changeFeed.poll();
+
+        assertThat(changes).containsExactly("1 added [2] changed [] removed []");
+    }
+
+    @Test
+    void failedPollKeepsTheBaseline() {
+        changeFeed.subscribe(this::record);
+
+        when(mockEmployeeService.getSnapshot()).thenReturn(EmployeeSnapshot.of(List.of(TIGER)))
+                                               .thenThrow(new IllegalStateException("upstream down"))
+                                               .thenReturn(EmployeeSnapshot.of(List.of(GARRETT)));
+        changeFeed.poll();
+        changeFeed.poll();
+        changeFeed.poll();
+
+        assertThat(changes).containsExactly("1 added [2] changed [] removed [1]");
+    }
+
+    @Test
+    void onlyPollsWhileSubscribed() {
+        EmployeeChangeListener listener = this::record;
+        changeFeed.poll();
+        verify(mockEmployeeService, never()).getSnapshot();
+
+        changeFeed.subscribe(listener);
+        when(mockEmployeeService.getSnapshot()).thenReturn(EmployeeSnapshot.of(List.of(TIGER)));
+        changeFeed.poll();
+        changeFeed.unsubscribe(listener);
+        changeFeed.poll();
+        changeFeed.subscribe(listener);
+        when(mockEmployeeService.getSnapshot()).thenReturn(EmployeeSnapshot.of(List.of(TIGER, GARRETT)));
+        changeFeed.poll();
+
+        assertThat(changes).isEmpty();
+    }
+
+    private void record(long sequence, EmployeeDelta delta) {
+        changes.add(sequence + " added " + ids(delta.getAdded()) + " changed " + ids(delta.getChanged()) + " removed " + ids(delta.getRemoved()));
+    }
+
+    private static List<Long> ids(List<Employee> employees) {
+        return employees.stream()
+                        .map(Employee::getId)
+                        .toList();
+    }
+}
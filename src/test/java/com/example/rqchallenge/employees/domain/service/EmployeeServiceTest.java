@@ -1,6 +1,8 @@
 package com.example.rqchallenge.employees.domain.service;
 
+import com.example.rqchallenge.employees.domain.index.SortKey;
 import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeePage;
 import com.example.rqchallenge.employees.infrastructure.service.EmployeeApi;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +14,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -27,6 +32,8 @@ class EmployeeServiceTest {
     private EmployeeApi mockEmployeeApi;
     @Autowired
     private IEmployeeService employeeService;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
@@ -72,6 +79,34 @@ class EmployeeServiceTest {
                                .getId()).isEqualTo(2);
     }
 
+    @Test
+    void getPage() {
+        EmployeePage page = employeeService.getPage(null, SortKey.SALARY, true, 1, 3);
+        assertThat(page.getTotal()).isEqualTo(12);
+        assertThat(page.getEmployees()
+                       .stream()
+                       .map(Employee::getName)
+                       .collect(Collectors.toList())).isEqualTo(List.of("Brielle Williamson", "Quinn Flynn", "Rhona Davidson"));
+
+        EmployeePage searchPage = employeeService.getPage("on", SortKey.AGE, false, 0, 2);
+        assertThat(searchPage.getTotal()).isEqualTo(5);
+        assertThat(searchPage.getEmployees()
+                             .stream()
+                             .map(Employee::getName)
+                             .collect(Collectors.toList())).isEqualTo(List.of("Sonya Frost", "Rhona Davidson"));
+        // uncached, each page is cut from a snapshot of its own
+        assertThat(searchPage.getVersion()).isGreaterThan(page.getVersion());
+    }
+
+    @Test
+    void nameIndexGaugesAreBound() {
+        employeeService.getByName("Garrett");
+
+        assertThat(meterRegistry.get("rq.index.name.trigrams")
+                                .gauge()
+                                .value()).isGreaterThan(0.0);
+    }
+
     @Test
     void getById() {
         Optional<Employee> employeeOptional = employeeService.getById("1");
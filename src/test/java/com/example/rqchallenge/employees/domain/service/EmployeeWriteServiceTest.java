@@ -0,0 +1,190 @@
+package com.example.rqchallenge.employees.domain.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeWrite;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Write queue tests with a mocked EmployeeService, slow writes are held open on a latch.
+ */
+class EmployeeWriteServiceTest {
+
+    private static final Map<String, Object> TIGER = Map.of("name", "Tiger Nixon", "salary", "320800", "age", "61");
+
+    private IEmployeeService mockEmployeeService;
+    private EmployeeWriteService writeService;
+
+    @BeforeEach
+    void setUp() {
+        mockEmployeeService = mock(IEmployeeService.class);
+        when(mockEmployeeService.create(TIGER)).thenReturn(Optional.of(new Employee(1L, "Tiger Nixon", 320800, 61, "")));
+        when(mockEmployeeService.delete("1")).thenReturn(Optional.of("success"));
+        when(mockEmployeeService.delete("2")).thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeService.destroy();
+    }
+
+    @Test
+    void writesAreRunAndCalledBack() throws Exception {
+        writeService = new EmployeeWriteService(mockEmployeeService, 10, 2, 10, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        List<EmployeeWrite> callbacks = new CopyOnWriteArrayList<>();
+
+        EmployeeWrite create = writeService.submitCreate(TIGER, callbacks::add);
+        EmployeeWrite deleted = writeService.submitDelete("1", callbacks::add);
+        EmployeeWrite notDeleted = writeService.submitDelete("2", callbacks::add);
+
+        assertThat(create.getStatus()).isEqualTo(EmployeeWrite.Status.QUEUED);
+        assertThat(waitForDone(create.getTrackingId()).getEmployee()
+                                                      .getName()).isEqualTo("Tiger Nixon");
+        assertThat(waitForDone(deleted.getTrackingId()).getStatus()).isEqualTo(EmployeeWrite.Status.SUCCEEDED);
+        assertThat(waitForDone(notDeleted.getTrackingId()).getStatus()).isEqualTo(EmployeeWrite.Status.FAILED);
+        waitFor(() -> callbacks.size() == 3);
+        assertThat(callbacks).extracting(EmployeeWrite::getTrackingId)
+                             .containsExactlyInAnyOrder(create.getTrackingId(), deleted.getTrackingId(), notDeleted.getTrackingId());
+    }
+
+    @Test
+    void inFlightWritesAreCappedAtConcurrency() throws Exception {
+        writeService = new EmployeeWriteService(mockEmployeeService, 100, 3, 100, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(mockEmployeeService.delete(anyString())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            inFlight.decrementAndGet();
+            return Optional.of("success");
+        });
+
+        List<EmployeeWrite> writes = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            writes.add(writeService.submitDelete(String.valueOf(i), null));
+        }
+        for (EmployeeWrite write : writes) {
+            assertThat(waitForDone(write.getTrackingId()).getStatus()).isEqualTo(EmployeeWrite.Status.SUCCEEDED);
+        }
+        assertThat(maxInFlight.get()).isBetween(1, 3);
+    }
+
+    @Test
+    void fullQueueRejects() throws Exception {
+        writeService = new EmployeeWriteService(mockEmployeeService, 1, 1, 10, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        when(mockEmployeeService.delete("3")).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of("success");
+        });
+
+        EmployeeWrite running = writeService.submitDelete("3", null);
+        waitFor(() -> writeService.get(running.getTrackingId())
+                                  .map(EmployeeWrite::getStatus)
+                                  .filter(EmployeeWrite.Status.RUNNING::equals)
+                                  .isPresent());
+        EmployeeWrite queued = writeService.submitDelete("1", null);
+        EmployeeWrite rejected = writeService.submitDelete("1", null);
+        release.countDown();
+
+        assertThat(queued.getStatus()).isEqualTo(EmployeeWrite.Status.QUEUED);
+        assertThat(rejected.getStatus()).isEqualTo(EmployeeWrite.Status.REJECTED);
+        assertThat(waitForDone(queued.getTrackingId()).getStatus()).isEqualTo(EmployeeWrite.Status.SUCCEEDED);
+    }
+
+    @Test
+    void onlyTheMostRecentFinishedWritesAreRetained() throws Exception {
+        writeService = new EmployeeWriteService(mockEmployeeService, 10, 1, 2, Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+        EmployeeWrite first = writeService.submitDelete("1", null);
+        waitForDone(first.getTrackingId());
+        EmployeeWrite second = writeService.submitDelete("1", null);
+        waitForDone(second.getTrackingId());
+        EmployeeWrite third = writeService.submitDelete("1", null);
+        waitForDone(third.getTrackingId());
+
+        assertThat(writeService.get(first.getTrackingId())).isEmpty();
+        assertThat(writeService.get(second.getTrackingId())).isPresent();
+        assertThat(writeService.get(third.getTrackingId())).isPresent();
+    }
+
+    @Test
+    void shutdownFailsWritesItCannotDrain() throws Exception {
+        writeService = new EmployeeWriteService(mockEmployeeService, 10, 1, 10, Duration.ofMillis(100), new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        when(mockEmployeeService.delete("3")).thenAnswer(invocation -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+            }
+            return Optional.of("success");
+        });
+        List<EmployeeWrite> callbacks = new CopyOnWriteArrayList<>();
+
+        EmployeeWrite running = writeService.submitDelete("3", null);
+        waitFor(() -> writeService.get(running.getTrackingId())
+                                  .map(EmployeeWrite::getStatus)
+                                  .filter(EmployeeWrite.Status.RUNNING::equals)
+                                  .isPresent());
+        EmployeeWrite queued = writeService.submitDelete("1", callbacks::add);
+        writeService.destroy();
+
+        assertThat(writeService.get(queued.getTrackingId())
+                               .map(EmployeeWrite::getStatus)).contains(EmployeeWrite.Status.FAILED);
+        assertThat(callbacks).extracting(EmployeeWrite::getTrackingId)
+                             .containsExactly(queued.getTrackingId());
+        assertThat(writeService.submitDelete("1", null)
+                               .getStatus()).isEqualTo(EmployeeWrite.Status.REJECTED);
+        assertThat(waitForDone(running.getTrackingId()).getStatus()).isEqualTo(EmployeeWrite.Status.SUCCEEDED);
+    }
+
+    @Test
+    void shutdownDrainsQueuedWrites() throws Exception {
+        writeService = new EmployeeWriteService(mockEmployeeService, 10, 1, 10, Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+        EmployeeWrite first = writeService.submitDelete("1", null);
+        EmployeeWrite second = writeService.submitDelete("1", null);
+        writeService.destroy();
+
+        assertThat(writeService.get(first.getTrackingId())
+                               .map(EmployeeWrite::getStatus)).contains(EmployeeWrite.Status.SUCCEEDED);
+        assertThat(writeService.get(second.getTrackingId())
+                               .map(EmployeeWrite::getStatus)).contains(EmployeeWrite.Status.SUCCEEDED);
+    }
+
+    private EmployeeWrite waitForDone(String trackingId) throws InterruptedException {
+        waitFor(() -> writeService.get(trackingId)
+                                  .filter(EmployeeWrite::isDone)
+                                  .isPresent());
+        return writeService.get(trackingId)
+                           .orElseThrow();
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
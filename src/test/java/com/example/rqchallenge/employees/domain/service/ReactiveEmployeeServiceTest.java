@@ -0,0 +1,119 @@
+package com.example.rqchallenge.employees.domain.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.infrastructure.service.ReactiveEmployeeApi;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.List;
+import java.util.Map;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reactive Employee Service tests with a mocked ReactiveEmployeeApi.
+ */
+@SpringBootTest(properties = "rq.client.reactive.enabled=true")
+class ReactiveEmployeeServiceTest {
+
+    @MockBean
+    private ReactiveEmployeeApi mockEmployeeApi;
+    @Autowired
+    private IReactiveEmployeeService employeeService;
+
+    @BeforeEach
+    void setUp() {
+        when(mockEmployeeApi.findAll()).thenReturn(Flux.just(
+                new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+                new Employee(2L, "Garrett Winters", 170750, 63, ""),
+                new Employee(3L, "Ashton Cox", 86000, 66, ""),
+                new Employee(4L, "Cedric Kelly", 433060, 22, ""),
+                new Employee(5L, "Airi Satou", 162700, 33, ""),
+                new Employee(6L, "Brielle Williamson", 372000, 61, ""),
+                new Employee(7L, "Herrod Chandler", 137500, 59, ""),
+                new Employee(8L, "Rhona Davidson", 327900, 55, ""),
+                new Employee(9L, "Colleen Hurst", 205500, 39, ""),
+                new Employee(10L, "Sonya Frost", 103600, 23, ""),
+                new Employee(11L, "Jena Gaines", 90560, 30, ""),
+                new Employee(12L, "Quinn Flynn", 342000, 22, "")));
+
+        when(mockEmployeeApi.findById("1")).thenReturn(Mono.just(new Employee(1L, "Tiger Nixon", 320800, 61, "")));
+
+        when(mockEmployeeApi.create("Tiger Nixon", "320800", "61")).thenReturn(Mono.just(new Employee(1L, "Tiger Nixon", 320800, 61, "")));
+
+        when(mockEmployeeApi.delete(anyString())).thenReturn(Mono.just("success"));
+    }
+
+    @Test
+    void getAll() {
+        assertThat(employeeService.getAll()
+                                  .collectList()
+                                  .block()).hasSize(12);
+    }
+
+    @Test
+    void getByName() {
+        List<Employee> employeeList = employeeService.getByName("Garrett")
+                                                     .collectList()
+                                                     .block();
+        assertThat(employeeList).extracting(Employee::getId)
+                                .containsExactly(2L);
+    }
+
+    @Test
+    void getById() {
+        assertThat(employeeService.getById("1")
+                                  .map(Employee::getName)
+                                  .block()).isEqualTo("Tiger Nixon");
+    }
+
+    @Test
+    void getHighestSalary() {
+        assertThat(employeeService.getHighestSalary()
+                                  .block()).isEqualTo(433060);
+    }
+
+    @Test
+    void getHighestSalaryOfNoEmployees() {
+        when(mockEmployeeApi.findAll()).thenReturn(Flux.empty());
+
+        assertThat(employeeService.getHighestSalary()
+                                  .blockOptional()).isEmpty();
+        assertThat(employeeService.getTopTenHighestEarnersByName()
+                                  .block()).isEmpty();
+    }
+
+    @Test
+    void getTopTenHighestEarnersByName() {
+        List<String> topEarnerList = employeeService.getTopTenHighestEarnersByName()
+                                                    .block();
+        assertThat(topEarnerList).hasSize(10)
+                                 .startsWith("Cedric Kelly")
+                                 .doesNotContain("Ashton Cox");
+    }
+
+    @Test
+    void create() {
+        Map<String, Object> map = Map.of("name", "Tiger Nixon", "salary", "320800", "age", "61");
+        assertThat(employeeService.create(map)
+                                  .map(Employee::getName)
+                                  .block()).isEqualTo("Tiger Nixon");
+        assertThat(employeeService.create(Map.of("name", "Tiger Nixon"))
+                                  .blockOptional()).isEmpty();
+    }
+
+    @Test
+    void delete() {
+        assertThat(employeeService.delete("1")
+                                  .block()).isEqualTo("success");
+    }
+}
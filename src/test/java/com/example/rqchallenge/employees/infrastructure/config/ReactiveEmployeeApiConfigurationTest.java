@@ -0,0 +1,138 @@
+package com.example.rqchallenge.employees.infrastructure.config;
+
+import com.example.rqchallenge.employees.infrastructure.service.ReactiveEmployeeApi;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import reactor.netty.resources.ConnectionProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Reactive EmployeeApi configuration tests, the configured client is run against a local HTTP stub of the upstream
+ * that holds each request on a latch.
+ */
+class ReactiveEmployeeApiConfigurationTest {
+
+    private static final String TIGER = "{\"status\":\"success\",\"data\":"
+                                        + "{\"id\":1,\"name\":\"Tiger Nixon\",\"salary\":320800,\"age\":61,\"profile_image\":\"\"}}";
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private HttpServer server;
+    private ApplicationContextRunner contextRunner;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/employee/", this::heldResponse);
+        server.start();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                                                               .build();
+        // Boot's conversion service reads the Duration properties, as it does in the application
+        contextRunner = new ApplicationContextRunner().withInitializer(context -> context.getBeanFactory()
+                                                                                         .setConversionService(ApplicationConversionService.getSharedInstance()))
+                                                      .withUserConfiguration(ReactiveEmployeeApiConfiguration.class)
+                                                      .withBean(WebClient.Builder.class, WebClient::builder)
+                                                      .withBean(ObjectMapper.class, () -> objectMapper)
+                                                      .withPropertyValues("rq.client.reactive.enabled=true",
+                                                                          "rq.client.uri=http://127.0.0.1:" + server.getAddress()
+                                                                                                                   .getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void onlyEnabledByTheProperty() {
+        new ApplicationContextRunner().withUserConfiguration(ReactiveEmployeeApiConfiguration.class)
+                                      .run(context -> assertThat(context).doesNotHaveBean(ReactiveEmployeeApi.class));
+    }
+
+    @Test
+    void callersQueueForAPooledConnectionUpToThePendingLimit() {
+        contextRunner.withPropertyValues("rq.client.reactive.max-connections=1", "rq.client.reactive.max-pending=1")
+                     .run(context -> {
+                         assertThat(context.getBean(ConnectionProvider.class)
+                                           .maxConnections()).isEqualTo(1);
+                         ReactiveEmployeeApi api = context.getBean(ReactiveEmployeeApi.class);
+
+                         CompletableFuture<?> first = api.findById("1")
+                                                         .toFuture();
+                         CompletableFuture<?> second = api.findById("1")
+                                                          .toFuture();
+                         // the first holds the only connection and the second is queued for it, so the third is turned away
+                         assertThatThrownBy(() -> api.findById("1")
+                                                     .block(Duration.ofSeconds(5))).isInstanceOf(WebClientRequestException.class)
+                                                                                   .hasStackTraceContaining("Pending acquire queue has reached its maximum size");
+
+                         release.countDown();
+                         assertThat(first.get(5, TimeUnit.SECONDS)).isNotNull();
+                         assertThat(second.get(5, TimeUnit.SECONDS)).isNotNull();
+                         assertThat(maxInFlight).hasValue(1);
+                     });
+    }
+
+    @Test
+    void aStalledResponseIsGivenUpOnAfterTheCallTimeout() {
+        contextRunner.withPropertyValues("rq.client.reactive.call-timeout=500ms")
+                     .run(context -> {
+                         ReactiveEmployeeApi api = context.getBean(ReactiveEmployeeApi.class);
+
+                         long start = System.nanoTime();
+                         // whichever of the connector's response timeout and the call timeout goes off first
+                         assertThatThrownBy(() -> api.findById("1")
+                                                     .block()).satisfiesAnyOf(
+                                 error -> assertThat(error).isInstanceOf(WebClientRequestException.class),
+                                 error -> assertThat(error).hasCauseInstanceOf(TimeoutException.class));
+                         assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+                     });
+    }
+
+    private void heldResponse(HttpExchange exchange) throws IOException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+        byte[] bytes = TIGER.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders()
+                .set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+}
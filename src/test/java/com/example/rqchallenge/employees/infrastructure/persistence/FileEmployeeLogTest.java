@@ -0,0 +1,88 @@
+package com.example.rqchallenge.employees.infrastructure.persistence;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * File employee log tests, appends to a real file and replays it into lists.
+ */
+class FileEmployeeLogTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private List<Employee> created;
+    private List<Long> deleted;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("employees.log");
+        created = new ArrayList<>();
+        deleted = new ArrayList<>();
+    }
+
+    @Test
+    void appendedRecordsAreReplayedInOrder() {
+        List<Employee> employees = List.of(
+                new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+                new Employee(2L, "Zoë Ångström", 170750, 63, null),
+                new Employee(3L, null, 86000, 66, "https://example.com/3.png"));
+        try (FileEmployeeLog employeeLog = new FileEmployeeLog(file)) {
+            assertThat(employeeLog.replay(created::add, deleted::add)).isZero();
+            employeeLog.created(employees);
+            employeeLog.deleted(2L);
+        }
+
+        assertThat(replay()).isEqualTo(4);
+        assertThat(created).containsExactlyElementsOf(employees);
+        assertThat(deleted).containsExactly(2L);
+    }
+
+    @Test
+    void tornTailIsCutOffAndAppendedAfter() throws IOException {
+        try (FileEmployeeLog employeeLog = new FileEmployeeLog(file)) {
+            employeeLog.replay(created::add, deleted::add);
+            employeeLog.created(List.of(new Employee(1L, "Tiger Nixon", 320800, 61, "")));
+        }
+        Files.write(file, new byte[]{1, 0, 0, 0}, StandardOpenOption.APPEND);
+
+        try (FileEmployeeLog employeeLog = new FileEmployeeLog(file)) {
+            assertThat(employeeLog.replay(created::add, deleted::add)).isEqualTo(1);
+            employeeLog.deleted(1L);
+        }
+        created.clear();
+
+        assertThat(replay()).isEqualTo(2);
+        assertThat(created).extracting(Employee::getId)
+                           .containsExactly(1L);
+        assertThat(deleted).containsExactly(1L);
+    }
+
+    @Test
+    void appendingBeforeReplayIsRefused() {
+        try (FileEmployeeLog employeeLog = new FileEmployeeLog(file)) {
+            assertThatThrownBy(() -> employeeLog.deleted(1L)).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    private int replay() {
+        deleted.clear();
+        try (FileEmployeeLog employeeLog = new FileEmployeeLog(file)) {
+            return employeeLog.replay(created::add, deleted::add);
+        }
+    }
+}
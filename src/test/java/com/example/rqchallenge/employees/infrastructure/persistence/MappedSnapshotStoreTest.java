@@ -0,0 +1,112 @@
+package com.example.rqchallenge.employees.infrastructure.persistence;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mapped snapshot store tests, round trips through a real file and checks damaged files are ignored.
+ */
+class MappedSnapshotStoreTest {
+
+    private static final Instant NOW = Instant.parse("2021-12-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private MappedSnapshotStore store;
+    private EmployeeSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("employees.snapshot");
+        store = new MappedSnapshotStore(file, Clock.fixed(NOW, ZoneOffset.UTC));
+        snapshot = EmployeeSnapshot.of(List.of(
+                new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+                new Employee(2L, "Zoë Ångström", 170750, 63, null),
+                new Employee(3L, null, 86000, 66, "https://example.com/3.png")));
+    }
+
+    @Test
+    void savedSnapshotIsLoaded() {
+        store.save(snapshot);
+
+        SnapshotStore.StoredSnapshot stored = store.load()
+                                                   .orElseThrow();
+        assertThat(stored.employees()).containsExactlyElementsOf(snapshot);
+        assertThat(stored.savedAt()).isEqualTo(NOW);
+    }
+
+    @Test
+    void saveReplacesPreviousSnapshot() {
+        store.save(snapshot);
+        store.save(snapshot.withRemoved(1L));
+
+        assertThat(store.load()
+                        .orElseThrow()
+                        .employees()).extracting(Employee::getId)
+                                     .containsExactly(2L, 3L);
+    }
+
+    @Test
+    void emptySnapshotIsLoaded() {
+        store.save(EmployeeSnapshot.of(List.of()));
+
+        assertThat(store.load()
+                        .orElseThrow()
+                        .employees()).isEmpty();
+    }
+
+    @Test
+    void missingFileIsNoSnapshot() {
+        assertThat(store.load()).isEmpty();
+    }
+
+    @Test
+    void corruptFileIsNoSnapshot() throws IOException {
+        store.save(snapshot);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+
+        assertThat(store.load()).isEmpty();
+    }
+
+    @Test
+    void truncatedFileIsNoSnapshot() throws IOException {
+        store.save(snapshot);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 10));
+
+        assertThat(store.load()).isEmpty();
+    }
+
+    @Test
+    void otherVersionIsNoSnapshot() throws IOException {
+        store.save(snapshot);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes)
+                  .order(ByteOrder.LITTLE_ENDIAN)
+                  .putInt(4, 2);
+        Files.write(file, bytes);
+
+        assertThat(store.load()).isEmpty();
+    }
+}
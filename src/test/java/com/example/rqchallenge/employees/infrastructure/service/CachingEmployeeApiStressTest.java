@@ -0,0 +1,221 @@
+package com.example.rqchallenge.employees.infrastructure.service;
+
+import com.example.rqchallenge.employees.domain.index.SortKey;
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
+import com.example.rqchallenge.employees.infrastructure.persistence.EmployeeLog;
+import com.example.rqchallenge.employees.infrastructure.persistence.SnapshotStore;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Stress test for snapshot publication, readers hammer the cached snapshot and its indexes while a writer creates and
+ * deletes through the cache and the refresher keeps swapping in reloaded snapshots. Every snapshot a reader gets has
+ * to have indexes that agree with it, the writer has to be able to read back each of its writes, and with nothing to
+ * lock on read throughput has to scale with the threads reading. Tagged load so it only runs with ./gradlew loadTest.
+ */
+@Tag("load")
+class CachingEmployeeApiStressTest {
+
+    private static final int EMPLOYEES = 20_000;
+    private static final Duration RUN_TIME = Duration.ofSeconds(3);
+    private static final Duration MEASURE_TIME = Duration.ofSeconds(2);
+
+    private LocalEmployeeApi localApi;
+    private ExecutorService refreshExecutor;
+    private CachingEmployeeApi cachingApi;
+
+    @BeforeEach
+    void setUp() {
+        localApi = new LocalEmployeeApi(EmployeeLog.NONE);
+        localApi.open(EMPLOYEES, 25);
+        refreshExecutor = Executors.newSingleThreadExecutor();
+        // refreshed every 50ms so new snapshots are published the whole time the readers run
+        cachingApi = new CachingEmployeeApi(localApi, Duration.ofSeconds(60), Duration.ofMillis(59_950), refreshExecutor,
+                                            Clock.systemUTC(), SnapshotStore.NONE);
+        buildIndexes((EmployeeSnapshot) cachingApi.findAll());
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshExecutor.shutdownNow();
+        localApi.close();
+    }
+
+    @Test
+    void readersOnlyEverSeeWholeSnapshots() throws Exception {
+        int readers = Math.max(2, Runtime.getRuntime()
+                                         .availableProcessors() - 1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+        AtomicInteger reads = new AtomicInteger();
+        ExecutorService threads = Executors.newFixedThreadPool(readers + 1);
+        try {
+            Future<Integer> writes = threads.submit(() -> write(running, failures));
+            for (int i = 0; i < readers; i++) {
+                long seed = i;
+                threads.execute(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    while (running.get()) {
+                        String failure = check((EmployeeSnapshot) cachingApi.findAll(), random);
+                        if (null != failure) {
+                            failures.add(failure);
+                        }
+                        reads.incrementAndGet();
+                    }
+                });
+            }
+            TimeUnit.MILLISECONDS.sleep(RUN_TIME.toMillis());
+            running.set(false);
+            System.out.printf("%d readers made %d reads while %d writes were patched in%n", readers, reads.get(), writes.get());
+
+            assertThat(writes.get()).isPositive();
+        } finally {
+            threads.shutdownNow();
+            threads.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        assertThat(failures).isEmpty();
+        assertThat(reads.get()).isPositive();
+    }
+
+    @Test
+    void readThroughputScalesWithThreads() throws Exception {
+        int cores = Math.min(8, Runtime.getRuntime()
+                                       .availableProcessors());
+        assumeTrue(cores >= 2, "Needs at least two cores to scale across");
+
+        double single = readsPerSecond(1);
+        double parallel = readsPerSecond(cores);
+        double efficiency = parallel / (single * cores);
+        System.out.printf("1 reader: %.0f reads/s, %d readers: %.0f reads/s, %.0f%% of linear%n", single, cores, parallel, efficiency * 100);
+
+        assertThat(efficiency).isGreaterThan(0.5);
+    }
+
+    /**
+     * Creates and deletes through the cache until told to stop, checking each write can be read straight back
+     *
+     * @return the number of writes made
+     */
+    private int write(AtomicBoolean running, ConcurrentLinkedQueue<String> failures) {
+        SplittableRandom random = new SplittableRandom(-1);
+        int writes = 0;
+        while (running.get()) {
+            if (random.nextBoolean()) {
+                Employee created = cachingApi.create("Stress Test " + writes, Integer.toString(random.nextInt(20_000, 500_000)), "30")
+                                             .orElseThrow();
+                if (((EmployeeSnapshot) cachingApi.findAll()).indexOfId(created.getId()) < 0) {
+                    failures.add("created employee " + created.getId() + " can't be read back");
+                }
+            } else {
+                int id = random.nextInt(1, EMPLOYEES);
+                cachingApi.delete(Integer.toString(id));
+                if (((EmployeeSnapshot) cachingApi.findAll()).indexOfId(id) >= 0) {
+                    failures.add("deleted employee " + id + " can still be read");
+                }
+            }
+            writes++;
+        }
+        return writes;
+    }
+
+    /**
+     * Checks a snapshot's indexes against the snapshot itself
+     *
+     * @return what was wrong or null if nothing was
+     */
+    private static String check(EmployeeSnapshot snapshot, SplittableRandom random) {
+        int size = snapshot.size();
+        if (snapshot.salaryIndex()
+                    .size() != size || snapshot.sortedIndex(SortKey.AGE, false)
+                                               .size() != size) {
+            return "version " + snapshot.version() + " has indexes of a different size to its " + size + " employees";
+        }
+        Employee highest = snapshot.sortedIndex(SortKey.SALARY, true)
+                                   .page(0, 1)
+                                   .get(0);
+        if (snapshot.salaryIndex()
+                    .highest()
+                    .getAsInt() != highest.getSalary()) {
+            return "version " + snapshot.version() + " has salary and sorted indexes that disagree on the highest salary";
+        }
+        int position = random.nextInt(size);
+        Employee employee = snapshot.get(position);
+        if (snapshot.indexOfId(employee.getId()) != position) {
+            return "version " + snapshot.version() + " has employee " + employee.getId() + " at " + position + " but indexed elsewhere";
+        }
+        if (!snapshot.nameIndex()
+                     .search(employee.getName())
+                     .contains(employee)) {
+            return "version " + snapshot.version() + " has no name index entry for employee " + employee.getId();
+        }
+        return null;
+    }
+
+    private double readsPerSecond(int threads) throws Exception {
+        ExecutorService readers = Executors.newFixedThreadPool(threads);
+        CountDownLatch started = new CountDownLatch(threads);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger reads = new AtomicInteger();
+        try {
+            for (int i = 0; i < threads; i++) {
+                long seed = i;
+                readers.execute(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    started.countDown();
+                    int count = 0;
+                    while (running.get()) {
+                        EmployeeSnapshot snapshot = (EmployeeSnapshot) cachingApi.findAll();
+                        snapshot.salaryIndex()
+                                .top(10);
+                        snapshot.sortedIndex(SortKey.NAME, false)
+                                .page(random.nextInt(snapshot.size()), 10);
+                        snapshot.indexOfId(random.nextInt(1, EMPLOYEES));
+                        count++;
+                    }
+                    reads.addAndGet(count);
+                });
+            }
+            started.await();
+            // warm up, then count over the measured window only
+            TimeUnit.MILLISECONDS.sleep(200);
+            int before = reads.get();
+            long start = System.nanoTime();
+            TimeUnit.MILLISECONDS.sleep(MEASURE_TIME.toMillis());
+            running.set(false);
+            readers.shutdown();
+            readers.awaitTermination(10, TimeUnit.SECONDS);
+            return (reads.get() - before) / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    private static void buildIndexes(EmployeeSnapshot snapshot) {
+        snapshot.salaryIndex();
+        snapshot.nameIndex();
+        snapshot.idIndex();
+        for (SortKey sortKey : SortKey.values()) {
+            snapshot.sortedIndex(sortKey, false);
+            snapshot.sortedIndex(sortKey, true);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.rqchallenge.employees.infrastructure.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
+import com.example.rqchallenge.employees.infrastructure.persistence.SnapshotStore;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Caching EmployeeApi tests with a mocked delegate, a manually advanced clock and an executor that only runs
+ * refreshes when told to.
+ */
+class CachingEmployeeApiTest {
+
+    private EmployeeApi mockDelegate;
+    private MutableClock clock;
+    private List<Runnable> pendingRefreshes;
+    private CachingEmployeeApi cachingApi;
+
+    @BeforeEach
+    void setUp() {
+        mockDelegate = mock(EmployeeApi.class);
+        clock = new MutableClock();
+        pendingRefreshes = new ArrayList<>();
+        cachingApi = new CachingEmployeeApi(mockDelegate, Duration.ofSeconds(60), Duration.ofSeconds(15), pendingRefreshes::add, clock,
+                                            SnapshotStore.NONE);
+
+        when(mockDelegate.findAll()).thenReturn(List.of(
+                new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+                new Employee(2L, "Garrett Winters", 170750, 63, "")));
+    }
+
+    @Test
+    void findAllIsServedFromSnapshot() {
+        cachingApi.findAll();
+        clock.advance(Duration.ofSeconds(30));
+        List<Employee> employeeList = cachingApi.findAll();
+
+        assertThat(employeeList).hasSize(2);
+        assertThat(pendingRefreshes).isEmpty();
+        verify(mockDelegate, times(1)).findAll();
+    }
+
+    @Test
+    void findAllRefreshesAheadOfExpiryInBackground() {
+        cachingApi.findAll();
+        clock.advance(Duration.ofSeconds(50));
+        when(mockDelegate.findAll()).thenReturn(List.of(new Employee(3L, "Ashton Cox", 86000, 66, "")));
+
+        assertThat(cachingApi.findAll()).hasSize(2);
+        assertThat(cachingApi.findAll()).hasSize(2);
+        assertThat(pendingRefreshes).hasSize(1);
+
+        pendingRefreshes.get(0)
+                        .run();
+        assertThat(cachingApi.findAll()).extracting(Employee::getName)
+                                        .containsExactly("Ashton Cox");
+    }
+
+    @Test
+    void findAllServesStaleWhileRefreshIsInFlight() {
+        cachingApi.findAll();
+        clock.advance(Duration.ofSeconds(50));
+        cachingApi.findAll();
+        clock.advance(Duration.ofSeconds(20));
+
+        assertThat(cachingApi.findAll()).hasSize(2);
+        verify(mockDelegate, times(1)).findAll();
+    }
+
+    @Test
+    void findAllReloadsOnceExpired() {
+        cachingApi.findAll();
+        clock.advance(Duration.ofSeconds(61));
+        cachingApi.findAll();
+
+        verify(mockDelegate, times(2)).findAll();
+    }
+
+    @Test
+    void findByIdIsServedFromSnapshot() {
+        cachingApi.findAll();
+        Optional<Employee> employeeOptional = cachingApi.findById("2");
+
+        assertThat(employeeOptional.map(Employee::getName)).contains("Garrett Winters");
+        verify(mockDelegate, never()).findById("2");
+    }
+
+    @Test
+    void createPatchesSnapshot() {
+        when(mockDelegate.create("Ashton Cox", "86000", "66")).thenReturn(Optional.of(new Employee(3L, "Ashton Cox", 86000, 66, "")));
+        cachingApi.findAll();
+        cachingApi.create("Ashton Cox", "86000", "66");
+
+        assertThat(cachingApi.findAll()).extracting(Employee::getId)
+                                        .containsExactly(1L, 2L, 3L);
+        verify(mockDelegate, times(1)).findAll();
+    }
+
+    @Test
+    void deleteEvictsFromSnapshot() {
+        when(mockDelegate.delete("1")).thenReturn(Optional.of("success"));
+        cachingApi.findAll();
+        cachingApi.delete("1");
+
+        assertThat(cachingApi.findAll()).extracting(Employee::getId)
+                                        .containsExactly(2L);
+        verify(mockDelegate, times(1)).findAll();
+    }
+
+    @Test
+    void failedDeleteLeavesSnapshot() {
+        when(mockDelegate.delete("1")).thenReturn(Optional.of("failure"));
+        cachingApi.findAll();
+        cachingApi.delete("1");
+
+        assertThat(cachingApi.findAll()).hasSize(2);
+    }
+
+    @Test
+    void warmStartServesStoredSnapshotWhileRefreshing() {
+        MemoryStore store = new MemoryStore();
+        store.save(EmployeeSnapshot.of(List.of(new Employee(3L, "Ashton Cox", 86000, 66, ""))));
+        clock.advance(Duration.ofHours(1));
+        cachingApi = new CachingEmployeeApi(mockDelegate, Duration.ofSeconds(60), Duration.ofSeconds(15), pendingRefreshes::add, clock,
+                                            store);
+        cachingApi.warmStart();
+
+        assertThat(cachingApi.findAll()).extracting(Employee::getName)
+                                        .containsExactly("Ashton Cox");
+        verify(mockDelegate, never()).findAll();
+        assertThat(pendingRefreshes).hasSize(1);
+
+        pendingRefreshes.get(0)
+                        .run();
+        assertThat(cachingApi.findAll()).hasSize(2);
+        assertThat(store.load()
+                        .map(stored -> stored.employees()
+                                             .size())).contains(2);
+    }
+
+    @Test
+    void unchangedRefreshKeepsSnapshot() {
+        when(mockDelegate.isStreaming()).thenReturn(true);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Employee>>getArgument(0)
+                      .accept(new Employee(1L, "Tiger Nixon", 320800, 61, ""));
+            return null;
+        }).when(mockDelegate)
+          .streamAll(any());
+        when(mockDelegate.streamAllIfChanged(any())).thenReturn(false);
+
+        List<Employee> loaded = cachingApi.findAll();
+        clock.advance(Duration.ofSeconds(50));
+        cachingApi.findAll();
+        pendingRefreshes.get(0)
+                        .run();
+        clock.advance(Duration.ofSeconds(30));
+
+        assertThat(cachingApi.findAll()).isSameAs(loaded);
+        assertThat(pendingRefreshes).hasSize(1);
+        verify(mockDelegate, times(1)).streamAll(any());
+    }
+
+    @Test
+    void writesDuringRefreshAreNotUndone() {
+        when(mockDelegate.isStreaming()).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            consumer.accept(new Employee(1L, "Tiger Nixon", 320800, 61, ""));
+            consumer.accept(new Employee(2L, "Garrett Winters", 170750, 63, ""));
+            return null;
+        }).when(mockDelegate)
+          .streamAll(any());
+        when(mockDelegate.create("Ashton Cox", "86000", "66")).thenReturn(Optional.of(new Employee(3L, "Ashton Cox", 86000, 66, "")));
+        when(mockDelegate.delete("1")).thenReturn(Optional.of("success"));
+        // the writes land while the refresh is waiting on an unchanged answer from the upstream
+        when(mockDelegate.streamAllIfChanged(any())).thenAnswer(invocation -> {
+            cachingApi.create("Ashton Cox", "86000", "66");
+            cachingApi.delete("1");
+            return false;
+        });
+
+        cachingApi.findAll();
+        clock.advance(Duration.ofSeconds(50));
+        cachingApi.findAll();
+        pendingRefreshes.get(0)
+                        .run();
+
+        assertThat(cachingApi.findAll()).extracting(Employee::getName)
+                                        .containsExactly("Garrett Winters", "Ashton Cox");
+        clock.advance(Duration.ofSeconds(30));
+        assertThat(cachingApi.findAll()).hasSize(2);
+    }
+
+    private class MemoryStore implements SnapshotStore {
+        private StoredSnapshot stored;
+
+        @Override
+        public Optional<StoredSnapshot> load() {
+            return Optional.ofNullable(stored);
+        }
+
+        @Override
+        public void save(EmployeeSnapshot snapshot) {
+            stored = new StoredSnapshot(snapshot, clock.instant());
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2021-12-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.rqchallenge.employees.infrastructure.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.domain.model.EmployeeSnapshot;
+import com.example.rqchallenge.employees.infrastructure.support.CallNotPermittedException;
+import com.example.rqchallenge.employees.infrastructure.support.CircuitBreaker;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Circuit breaking EmployeeApi tests with a mocked delegate. The circuit opens once half of the last two calls failed.
+ */
+class CircuitBreakingEmployeeApiTest {
+
+    private EmployeeApi mockDelegate;
+    private CircuitBreaker circuitBreaker;
+    private CircuitBreakingEmployeeApi circuitBreakingApi;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        mockDelegate = mock(EmployeeApi.class);
+        circuitBreaker = new CircuitBreaker("test", 50, 100, Duration.ofSeconds(5), 2, 2, Duration.ofMinutes(1), 1, System::nanoTime,
+                                            meterRegistry);
+        circuitBreakingApi = new CircuitBreakingEmployeeApi(mockDelegate, circuitBreaker, meterRegistry);
+    }
+
+    @Test
+    void openCircuitServesLastGoodEmployees() {
+        when(mockDelegate.findAll()).thenReturn(List.of(
+                new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+                new Employee(2L, "Garrett Winters", 170750, 63, "")));
+        circuitBreakingApi.findAll();
+        openCircuit();
+
+        assertThat(circuitBreakingApi.findAll()).hasSize(2);
+        assertThat(circuitBreakingApi.findById("2")
+                                     .map(Employee::getName)).contains("Garrett Winters");
+        assertThat(circuitBreakingApi.findById("3")).isEmpty();
+    }
+
+    @Test
+    void successfulWritesArePatchedIntoLastGoodEmployees() {
+        when(mockDelegate.findAll()).thenReturn(List.of(
+                new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+                new Employee(2L, "Garrett Winters", 170750, 63, "")));
+        when(mockDelegate.create("Ashton Cox", "86000", "66")).thenReturn(Optional.of(new Employee(3L, "Ashton Cox", 86000, 66, "")));
+        when(mockDelegate.delete("1")).thenReturn(Optional.of("success"));
+        circuitBreakingApi.findAll();
+        circuitBreakingApi.create("Ashton Cox", "86000", "66");
+        circuitBreakingApi.delete("1");
+        openCircuit();
+
+        assertThat(circuitBreakingApi.findAll()).extracting(Employee::getId)
+                                                .containsExactly(2L, 3L);
+    }
+
+    @Test
+    void openCircuitWithoutLastGoodFailsFast() {
+        openCircuit();
+
+        assertThatThrownBy(() -> circuitBreakingApi.findAll()).isInstanceOf(CallNotPermittedException.class);
+    }
+
+    @Test
+    void streamingPassesEmployeesThroughWithoutKeepingThem() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<Employee>>getArgument(0)
+                      .accept(new Employee(1L, "Tiger Nixon", 320800, 61, ""));
+            return null;
+        }).when(mockDelegate)
+          .streamAll(any());
+        List<Employee> streamed = new ArrayList<>();
+        circuitBreakingApi.streamAll(streamed::add);
+        openCircuit();
+
+        assertThat(streamed).extracting(Employee::getId)
+                            .containsExactly(1L);
+        assertThatThrownBy(() -> circuitBreakingApi.findAll()).isInstanceOf(CallNotPermittedException.class);
+    }
+
+    @Test
+    void changedSnapshotStreamIsSharedAsLastGoodEmployees() {
+        when(mockDelegate.streamAllIfChanged(any())).thenAnswer(invocation -> {
+            invocation.<Consumer<Employee>>getArgument(0)
+                      .accept(new Employee(1L, "Tiger Nixon", 320800, 61, ""));
+            return true;
+        });
+        EmployeeSnapshot.Builder builder = EmployeeSnapshot.builder();
+        assertThat(circuitBreakingApi.streamAllIfChanged(builder)).isTrue();
+        openCircuit();
+
+        assertThat(circuitBreakingApi.findAll()).isSameAs(builder.build());
+    }
+
+    @Test
+    void openCircuitFailsConditionalStreamsRatherThanServingLastGood() {
+        when(mockDelegate.findAll()).thenReturn(List.of(new Employee(1L, "Tiger Nixon", 320800, 61, "")));
+        circuitBreakingApi.findAll();
+        openCircuit();
+        List<Employee> streamed = new ArrayList<>();
+
+        assertThatThrownBy(() -> circuitBreakingApi.streamAllIfChanged(streamed::add)).isInstanceOf(CallNotPermittedException.class);
+        assertThat(streamed).isEmpty();
+    }
+
+    @Test
+    void openCircuitFailsWritesFast() {
+        openCircuit();
+
+        assertThatThrownBy(() -> circuitBreakingApi.create("Tiger Nixon", "320800", "61")).isInstanceOf(CallNotPermittedException.class);
+        assertThatThrownBy(() -> circuitBreakingApi.delete("1")).isInstanceOf(CallNotPermittedException.class);
+    }
+
+    @Test
+    void clientErrorsDoNotOpenCircuit() {
+        when(mockDelegate.findById("x")).thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> circuitBreakingApi.findById("x")).isInstanceOf(HttpClientErrorException.class);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private void openCircuit() {
+        when(mockDelegate.findById("1")).thenThrow(new ResourceAccessException("Connection refused"));
+        while (circuitBreaker.getState() == CircuitBreaker.State.CLOSED) {
+            assertThatThrownBy(() -> circuitBreakingApi.findById("1")).isInstanceOf(ResourceAccessException.class);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.rqchallenge.employees.infrastructure.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.infrastructure.persistence.EmployeeLog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Fault injecting EmployeeApi tests over a small local EmployeeApi, with the rates set to always or never so the
+ * outcome doesn't depend on the dice.
+ */
+class FaultInjectingEmployeeApiTest {
+
+    private LocalEmployeeApi localApi;
+
+    @BeforeEach
+    void setUp() {
+        localApi = new LocalEmployeeApi(EmployeeLog.NONE);
+        localApi.open(100, 42L);
+    }
+
+    @Test
+    void noFaultsPassesCallsThrough() {
+        EmployeeApi api = simulator(Duration.ZERO, 0, 0, 0, 0);
+
+        assertThat(api.findAll()).hasSize(100);
+        assertThat(api.findById("1")).isEqualTo(localApi.findById("1"));
+        assertThat(api.delete("1")).contains("success");
+    }
+
+    @Test
+    void throttledCallsFailWith429() {
+        EmployeeApi api = simulator(Duration.ZERO, 1, 0, 0, 0);
+
+        assertThatThrownBy(() -> api.findById("1")).isInstanceOf(HttpClientErrorException.TooManyRequests.class);
+    }
+
+    @Test
+    void failedCallsFailWith500() {
+        EmployeeApi api = simulator(Duration.ZERO, 0, 1, 0, 0);
+
+        assertThatThrownBy(() -> api.create("Ashton Cox", "86000", "66")).isInstanceOf(HttpServerErrorException.InternalServerError.class);
+        assertThat(localApi.size()).isEqualTo(100);
+    }
+
+    @Test
+    void truncatedStreamsStopPartWay() {
+        EmployeeApi api = simulator(Duration.ZERO, 0, 0, 1, 0);
+        List<Employee> streamed = new ArrayList<>();
+
+        assertThatThrownBy(() -> api.streamAll(streamed::add)).isInstanceOf(ResourceAccessException.class);
+        assertThat(streamed).hasSizeLessThan(100);
+    }
+
+    @Test
+    void employeesArePaddedToPayloadSize() {
+        EmployeeApi api = simulator(Duration.ZERO, 0, 0, 0, 512);
+
+        assertThat(api.findById("1")
+                      .map(Employee::getProfile_image)).hasValueSatisfying(image -> assertThat(image).hasSize(512));
+    }
+
+    @Test
+    void callsWaitForTheirLatency() {
+        EmployeeApi api = simulator(Duration.ofMillis(20), 0, 0, 0, 0);
+
+        long start = System.nanoTime();
+        api.findById("1");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(20));
+    }
+
+    @Test
+    void seededSimulatorsRepeatTheirFaults() {
+        assertThat(outcomes(7L)).isEqualTo(outcomes(7L))
+                                .contains(true, false);
+        assertThat(outcomes(0L)).hasSize(50);
+    }
+
+    /**
+     * Makes 50 calls to a simulator throttling half of them
+     *
+     * @return whether each call was throttled
+     */
+    private List<Boolean> outcomes(long seed) {
+        EmployeeApi api = new FaultInjectingEmployeeApi(localApi, Duration.ZERO, Duration.ZERO, 1, 0.5, 0, 0, 0, seed);
+        List<Boolean> throttled = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            try {
+                api.findById("1");
+                throttled.add(false);
+            } catch (HttpClientErrorException.TooManyRequests e) {
+                throttled.add(true);
+            }
+        }
+        return throttled;
+    }
+
+    /**
+     * A simulator whose p99 is its median, so every call waits for exactly the median
+     */
+    private EmployeeApi simulator(Duration latency, double throttleRate, double errorRate, double truncateRate, int payloadBytes) {
+        return new FaultInjectingEmployeeApi(localApi, latency, latency, 1, throttleRate, errorRate, truncateRate, payloadBytes, 7L);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.rqchallenge.employees.infrastructure.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.example.rqchallenge.employees.infrastructure.persistence.EmployeeLog;
+import com.example.rqchallenge.employees.infrastructure.persistence.FileEmployeeLog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Local EmployeeApi tests, in memory and persisted to a log in a temporary directory.
+ */
+class LocalEmployeeApiTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void emptyStoreIsSeeded() {
+        LocalEmployeeApi api = new LocalEmployeeApi(EmployeeLog.NONE);
+        api.open(1000, 42L);
+
+        List<Employee> streamed = new ArrayList<>();
+        api.streamAll(streamed::add);
+        assertThat(api.findAll()).hasSize(1000)
+                                 .containsExactlyElementsOf(streamed);
+        assertThat(api.findById("1000")).isPresent();
+        assertThat(api.create("Ashton Cox", "86000", "66")
+                      .map(Employee::getId)).contains(1001L);
+    }
+
+    @Test
+    void createAndDeleteWork() {
+        LocalEmployeeApi api = new LocalEmployeeApi(EmployeeLog.NONE);
+        api.open(0, 42L);
+
+        Employee created = api.create("Ashton Cox", "86000", "66")
+                              .orElseThrow();
+        assertThat(api.findById(String.valueOf(created.getId()))).contains(created);
+        assertThat(api.create("Ashton Cox", "lots", "66")).isEmpty();
+        assertThat(api.delete(String.valueOf(created.getId()))).contains("success");
+        assertThat(api.delete(String.valueOf(created.getId()))).isEmpty();
+        assertThat(api.findAll()).isEmpty();
+    }
+
+    @Test
+    void changesSurviveRestart() {
+        Path file = directory.resolve("employees.log");
+        try (LocalEmployeeApi api = new LocalEmployeeApi(new FileEmployeeLog(file))) {
+            api.open(10, 42L);
+            api.delete("1");
+            api.create("Ashton Cox", "86000", "66");
+        }
+
+        try (LocalEmployeeApi api = new LocalEmployeeApi(new FileEmployeeLog(file))) {
+            api.open(10, 7L);
+
+            assertThat(api.size()).isEqualTo(10);
+            assertThat(api.findById("1")).isEmpty();
+            assertThat(api.findById("11")
+                          .map(Employee::getName)).contains("Ashton Cox");
+        }
+    }
+}
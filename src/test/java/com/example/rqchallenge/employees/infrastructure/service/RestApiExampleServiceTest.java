@@ -1,26 +1,38 @@
 package com.example.rqchallenge.employees.infrastructure.service;
 
 import com.example.rqchallenge.employees.domain.model.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import java.util.Optional;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 /**
  * Rest API Example test. Due to rate limiting this test fails almost always. Really should be an integration test.
- * Disabled until rate limiting can be handled. Couldn't test reliably
+ * Disabled until rate limiting can be handled. Couldn't test reliably. Tests that don't need the real upstream bind
+ * their own service to a MockRestServiceServer.
  */
 @SpringBootTest
 class RestApiExampleServiceTest {
 
     @Autowired
     private EmployeeApi apiService;
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @BeforeEach
     void setUp() {
@@ -42,6 +54,20 @@ class RestApiExampleServiceTest {
                                    .get()).isEqualTo("Tiger Nixon");
     }
 
+    @Test
+    void testFindByIdWithNoData() {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.setUriTemplateHandler(new DefaultUriBuilderFactory("http://upstream"));
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate)
+                                                            .build();
+        server.expect(requestTo("http://upstream/employee/404"))
+              .andRespond(withSuccess("{\"status\":\"success\",\"data\":null}", MediaType.APPLICATION_JSON));
+        RestApiExampleService stubbedService = new RestApiExampleService(restTemplate, objectMapper, new SimpleMeterRegistry(), 16);
+
+        assertThat(stubbedService.findById("404")).isEmpty();
+        server.verify();
+    }
+
     @Disabled
     @Test
     void testCreate() {
@@ -0,0 +1,122 @@
+package com.example.rqchallenge.employees.infrastructure.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Timed EmployeeApi tests with a mocked delegate, checking what ends up on the registry.
+ */
+class TimedEmployeeApiTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmployeeApi mockDelegate;
+    private TimedEmployeeApi timedApi;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        mockDelegate = mock(EmployeeApi.class);
+        timedApi = new TimedEmployeeApi(mockDelegate, meterRegistry);
+    }
+
+    @Test
+    void callsAreTimedByOutcome() {
+        when(mockDelegate.findById("1")).thenReturn(Optional.of(new Employee(1L, "Tiger Nixon", 320800, 61, "")));
+        when(mockDelegate.findById("2")).thenReturn(Optional.empty());
+
+        timedApi.findById("1");
+        timedApi.findById("1");
+        timedApi.findById("2");
+
+        assertThat(calls("findById", "success")).isEqualTo(2);
+        assertThat(calls("findById", "empty")).isEqualTo(1);
+    }
+
+    @Test
+    void errorsAreTimedByStatus() {
+        when(mockDelegate.delete("1")).thenThrow(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS));
+
+        assertThatThrownBy(() -> timedApi.delete("1")).isInstanceOf(HttpClientErrorException.class);
+        assertThat(calls("delete", "429")).isEqualTo(1);
+    }
+
+    @Test
+    void listSizesAreRecorded() {
+        when(mockDelegate.findAll()).thenReturn(List.of(
+                new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+                new Employee(2L, "Garrett Winters", 170750, 63, "")));
+        doAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            consumer.accept(new Employee(3L, "Ashton Cox", 86000, 66, ""));
+            return null;
+        }).when(mockDelegate)
+          .streamAll(any());
+
+        timedApi.findAll();
+        timedApi.streamAll(employee -> {
+        });
+
+        assertThat(employees("findAll")).isEqualTo(2);
+        assertThat(employees("streamAll")).isEqualTo(1);
+        assertThat(calls("streamAll", "success")).isEqualTo(1);
+    }
+
+    @Test
+    void streamedCallsAreTimedWithoutTheConsumer() {
+        doAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            consumer.accept(new Employee(1L, "Tiger Nixon", 320800, 61, ""));
+            consumer.accept(new Employee(2L, "Garrett Winters", 170750, 63, ""));
+            return true;
+        }).when(mockDelegate)
+          .streamAllIfChanged(any());
+
+        assertThat(timedApi.streamAllIfChanged(employee -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+            }
+        })).isTrue();
+
+        assertThat(meterRegistry.get("rq.client.calls")
+                                .tag("operation", "streamAll")
+                                .timer()
+                                .totalTime(TimeUnit.MILLISECONDS)).isLessThan(100);
+        assertThat(employees("streamAll")).isEqualTo(2);
+    }
+
+    private long calls(String operation, String outcome) {
+        return meterRegistry.get("rq.client.calls")
+                            .tag("operation", operation)
+                            .tag("outcome", outcome)
+                            .timer()
+                            .count();
+    }
+
+    private double employees(String operation) {
+        return meterRegistry.get("rq.client.employees")
+                            .tag("operation", operation)
+                            .summary()
+                            .totalAmount();
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.rqchallenge.employees.infrastructure.service;
+
+import com.example.rqchallenge.employees.domain.model.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * WebClient EmployeeApi tests against a local HTTP stub of the upstream, bodies are written in small flushed chunks so
+ * the list is parsed across chunk boundaries.
+ */
+class WebClientEmployeeApiTest {
+
+    private static final String TIGER = "{\"id\":1,\"name\":\"Tiger Nixon\",\"salary\":320800,\"age\":61,\"profile_image\":\"\"}";
+    private static final String GARRETT = "{\"id\":2,\"name\":\"Garrett Winters\",\"salary\":170750,\"age\":63,\"profile_image\":\"\"}";
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                                                                         .build();
+    private HttpServer server;
+    private WebClientEmployeeApi api;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        WebClient webClient = WebClient.builder()
+                                       .baseUrl("http://127.0.0.1:" + server.getAddress()
+                                                                           .getPort())
+                                       .build();
+        api = new WebClientEmployeeApi(webClient, objectMapper, Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void findAllReadsTheDataArrayAcrossChunks() {
+        server.createContext("/employees", exchange -> respond(exchange, 200, "{\"status\":\"success\",\"meta\":{\"data\":[{\"id\":9}]},"
+                                                                             + "\"data\":[" + TIGER + "," + GARRETT + "],"
+                                                                             + "\"message\":\"Successfully! All records has been fetched.\"}"));
+
+        assertThat(api.findAll()
+                      .collectList()
+                      .block()).extracting(Employee::getName)
+                               .containsExactly("Tiger Nixon", "Garrett Winters");
+    }
+
+    @Test
+    void findAllEmitsEmployeesBeforeTheBodyEnds() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        server.createContext("/employees", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(("{\"data\":[" + TIGER + ",").getBytes(StandardCharsets.UTF_8));
+                body.flush();
+                release.await(5, TimeUnit.SECONDS);
+                body.write((GARRETT + "]}").getBytes(StandardCharsets.UTF_8));
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+            }
+        });
+
+        try {
+            assertThat(api.findAll()
+                          .blockFirst(Duration.ofSeconds(5))).extracting(Employee::getName)
+                                                             .isEqualTo("Tiger Nixon");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void findAllOfAnEmptyBodyIsEmpty() {
+        server.createContext("/employees", exchange -> respond(exchange, 200, ""));
+
+        assertThat(api.findAll()
+                      .collectList()
+                      .block()).isEmpty();
+    }
+
+    @Test
+    void findAllFailsOnATruncatedOrUnexpectedBody() {
+        server.createContext("/employees", exchange -> respond(exchange, 200, "{\"data\":[" + TIGER + ",{\"id\":2"));
+
+        assertThatThrownBy(() -> api.findAll()
+                                    .collectList()
+                                    .block()).isInstanceOf(DecodingException.class);
+
+        server.removeContext("/employees");
+        server.createContext("/employees", exchange -> respond(exchange, 200, "[" + TIGER + "]"));
+        assertThatThrownBy(() -> api.findAll()
+                                    .collectList()
+                                    .block()).isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void callsAreGivenUpOnAfterTheCallTimeoutEvenWhileEmployeesArrive() {
+        server.createContext("/employees", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write("{\"data\":[".getBytes(StandardCharsets.UTF_8));
+                for (int i = 0; i < 30; i++) {
+                    body.write((TIGER + ",").getBytes(StandardCharsets.UTF_8));
+                    body.flush();
+                    Thread.sleep(100);
+                }
+                body.write((GARRETT + "]}").getBytes(StandardCharsets.UTF_8));
+            } catch (IOException | InterruptedException e) {
+                // the client gave up
+            }
+        });
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> api.findAll()
+                                    .collectList()
+                                    .block()).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2500);
+    }
+
+    @Test
+    void upstreamErrorsAreMappedByStatusAndAMissingEmployeeIsEmpty() {
+        server.createContext("/employees", exchange -> respond(exchange, 500, "{\"status\":\"error\"}"));
+        server.createContext("/employee/", exchange -> respond(exchange, 404, "{\"status\":\"error\"}"));
+
+        assertThatThrownBy(() -> api.findAll()
+                                    .collectList()
+                                    .block()).isInstanceOf(WebClientResponseException.InternalServerError.class);
+        assertThat(api.findById("404")
+                      .blockOptional()).isEmpty();
+    }
+
+    @Test
+    void findByIdCreateAndDeleteReadTheirResponses() {
+        server.createContext("/employee/", exchange -> respond(exchange, 200, "{\"status\":\"success\",\"data\":" + TIGER + "}"));
+        server.createContext("/create", exchange -> respond(exchange, 200, "{\"status\":\"success\",\"data\":" + GARRETT + "}"));
+        server.createContext("/delete/", exchange -> respond(exchange, 200, "{\"status\":\"success\",\"message\":\"deleted\"}"));
+
+        assertThat(api.findById("1")
+                      .block()).extracting(Employee::getName)
+                               .isEqualTo("Tiger Nixon");
+        assertThat(api.create("Garrett Winters", "170750", "63")
+                      .block()).extracting(Employee::getId)
+                               .isEqualTo(2L);
+        assertThat(api.delete("2")
+                      .block()).isEqualTo("success");
+    }
+
+    /**
+     * Writes the body 16 bytes at a time, flushing each, so it reaches the client in many chunks
+     */
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders()
+                .set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, 0 == bytes.length ? -1 : 0);
+        try (OutputStream body = exchange.getResponseBody()) {
+            for (int offset = 0; offset < bytes.length; offset += 16) {
+                body.write(bytes, offset, Math.min(16, bytes.length - offset));
+                body.flush();
+            }
+        }
+    }
+}
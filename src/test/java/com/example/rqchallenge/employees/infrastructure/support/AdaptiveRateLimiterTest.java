@@ -0,0 +1,84 @@
+package com.example.rqchallenge.employees.infrastructure.support;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Adaptive rate limiter tests driven by a fake clock, reserve is used directly so nothing actually sleeps.
+ */
+class AdaptiveRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private long now;
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        now = 0;
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new AdaptiveRateLimiter(10, 1, 2, () -> now, meterRegistry);
+    }
+
+    @Test
+    void burstIsAvailableImmediatelyThenPacedAtRate() {
+        assertThat(rateLimiter.reserve(Long.MAX_VALUE)).isZero();
+        assertThat(rateLimiter.reserve(Long.MAX_VALUE)).isZero();
+        assertThat(rateLimiter.reserve(Long.MAX_VALUE)).isEqualTo(SECOND / 10);
+        assertThat(rateLimiter.reserve(Long.MAX_VALUE)).isEqualTo(2 * SECOND / 10);
+    }
+
+    @Test
+    void tokensRefillOverTime() {
+        rateLimiter.reserve(Long.MAX_VALUE);
+        rateLimiter.reserve(Long.MAX_VALUE);
+        now += SECOND;
+
+        assertThat(rateLimiter.reserve(Long.MAX_VALUE)).isZero();
+        assertThat(rateLimiter.reserve(Long.MAX_VALUE)).isZero();
+    }
+
+    @Test
+    void throttlingHalvesRateAndHonoursRetryAfter() {
+        rateLimiter.onThrottled(Duration.ofSeconds(3));
+
+        assertThat(rateLimiter.rate()).isEqualTo(5);
+        assertThat(rateLimiter.isBlocked()).isTrue();
+        assertThat(rateLimiter.reserve(Long.MAX_VALUE)).isEqualTo(3 * SECOND + SECOND / 5);
+        assertThat(meterRegistry.get("rq.client.ratelimit.throttled")
+                                .counter()
+                                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void rateNeverDropsBelowMinimumAndRecoversOnSuccess() {
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.onThrottled(Duration.ZERO);
+        }
+        assertThat(rateLimiter.rate()).isEqualTo(1);
+
+        for (int i = 0; i < 100; i++) {
+            rateLimiter.onSuccess();
+        }
+        assertThat(rateLimiter.rate()).isEqualTo(10);
+    }
+
+    @Test
+    void acquireGivesUpPastMaxWait() {
+        rateLimiter.onThrottled(Duration.ofMinutes(1));
+
+        assertThatThrownBy(() -> rateLimiter.acquire(Duration.ofSeconds(1))).isInstanceOf(UpstreamThrottledException.class);
+        assertThat(meterRegistry.get("rq.client.ratelimit.rejected")
+                                .counter()
+                                .count()).isEqualTo(1);
+    }
+}
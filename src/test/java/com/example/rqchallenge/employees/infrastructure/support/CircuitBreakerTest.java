@@ -0,0 +1,173 @@
+package com.example.rqchallenge.employees.infrastructure.support;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Circuit breaker tests driven by a fake clock. Window of 4 calls, opens at 50% failures or 50% slow calls.
+ */
+class CircuitBreakerTest {
+
+    private long now;
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        now = 0;
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new CircuitBreaker("test", 50, 50, Duration.ofSeconds(1), 4, 4, Duration.ofSeconds(30), 2, () -> now,
+                                            meterRegistry);
+    }
+
+    @Test
+    void opensOnFailureRate() {
+        succeed();
+        succeed();
+        fail();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        fail();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(this::succeed).isInstanceOf(CallNotPermittedException.class);
+        assertThat(meterRegistry.get("rq.client.circuitbreaker.not.permitted")
+                                .counter()
+                                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void opensOnSlowCallRate() {
+        succeed();
+        succeed();
+        circuitBreaker.execute(() -> now += TimeUnit.SECONDS.toNanos(2), e -> true);
+        circuitBreaker.execute(() -> now += TimeUnit.SECONDS.toNanos(2), e -> true);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void slowConsumerIsNotASlowCall() {
+        for (int i = 0; i < 4; i++) {
+            int streamed = circuitBreaker.executeStreaming(consumer -> {
+                consumer.accept("employee");
+                return 1;
+            }, employee -> now += TimeUnit.SECONDS.toNanos(2), e -> true);
+            assertThat(streamed).isEqualTo(1);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        circuitBreaker.executeStreaming(consumer -> now += TimeUnit.SECONDS.toNanos(2), employee -> {
+        }, e -> true);
+        circuitBreaker.executeStreaming(consumer -> now += TimeUnit.SECONDS.toNanos(2), employee -> {
+        }, e -> true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void ignoredExceptionsDoNotCount() {
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> circuitBreaker.execute(() -> {
+                throw new IllegalArgumentException("bad request");
+            }, e -> false)).isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void halfOpenProbesCloseCircuit() {
+        open();
+        now += TimeUnit.SECONDS.toNanos(30);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        succeed();
+        succeed();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(meterRegistry.get("rq.client.circuitbreaker.transitions")
+                                .tag("to", "CLOSED")
+                                .counter()
+                                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedHalfOpenProbeReopensCircuit() {
+        open();
+        now += TimeUnit.SECONDS.toNanos(30);
+
+        succeed();
+        fail();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void halfOpenOnlyLetsProbesThrough() {
+        open();
+        now += TimeUnit.SECONDS.toNanos(30);
+
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void errorInHalfOpenProbeHandsBackItsPermit() {
+        open();
+        now += TimeUnit.SECONDS.toNanos(30);
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> circuitBreaker.execute(() -> {
+                throw new StackOverflowError();
+            }, e -> true)).isInstanceOf(StackOverflowError.class);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        succeed();
+        succeed();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void moreHalfOpenCallsThanTheWindowStillClose() {
+        CircuitBreaker smallWindow = new CircuitBreaker("small", 50, 50, Duration.ofSeconds(1), 2, 2, Duration.ofSeconds(30), 5, () -> now,
+                                                        meterRegistry);
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> smallWindow.execute(() -> {
+                throw new IllegalStateException("upstream down");
+            }, e -> true)).isInstanceOf(IllegalStateException.class);
+        }
+        now += TimeUnit.SECONDS.toNanos(30);
+
+        smallWindow.execute(() -> "ok", e -> true);
+        smallWindow.execute(() -> "ok", e -> true);
+        assertThat(smallWindow.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void emptyWindowIsRejected() {
+        assertThatThrownBy(() -> new CircuitBreaker("empty", 50, 50, Duration.ofSeconds(1), 0, 1, Duration.ofSeconds(30), 1, () -> now,
+                                                    meterRegistry)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private void succeed() {
+        circuitBreaker.execute(() -> "ok", e -> true);
+    }
+
+    private void fail() {
+        assertThatThrownBy(() -> circuitBreaker.execute(() -> {
+            throw new IllegalStateException("upstream down");
+        }, e -> true)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.rqchallenge.employees.infrastructure.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Log sampling tests, the request thread's decision has to reach work that runs on other threads.
+ */
+class LogSamplingTest {
+
+    @AfterEach
+    void tearDown() {
+        LogSampling.clear();
+    }
+
+    @Test
+    void reactiveChainsSeeTheDecisionWrittenIntoTheirContext() {
+        LogSampling.sample(false);
+        Mono<Boolean> sampled = Mono.deferContextual(context -> Mono.just(LogSampling.isSampled(context)))
+                                    .subscribeOn(Schedulers.parallel());
+
+        assertThat(sampled.contextWrite(LogSampling.context())
+                          .block()).isFalse();
+        assertThat(sampled.block()).isTrue();
+    }
+
+    @Test
+    void handedOffWorkRunsWithTheCapturedDecision() throws Exception {
+        LogSampling.sample(false);
+        boolean captured = LogSampling.isSampled();
+        AtomicBoolean sampled = new AtomicBoolean(true);
+
+        CompletableFuture.runAsync(() -> LogSampling.run(captured, () -> sampled.set(LogSampling.isSampled())))
+                         .get();
+
+        assertThat(sampled).isFalse();
+    }
+
+    @Test
+    void runPutsBackThePreviousDecision() {
+        LogSampling.run(false, () -> LogSampling.run(true, () -> {
+        }));
+        assertThat(LogSampling.isSampled()).isTrue();
+
+        LogSampling.sample(false);
+        LogSampling.run(true, () -> assertThat(LogSampling.isSampled()).isTrue());
+        assertThat(LogSampling.isSampled()).isFalse();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.rqchallenge.employees.infrastructure.support;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Rate limiting interceptor tests against a mock upstream, with millisecond backoffs.
+ */
+class RateLimitingInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveRateLimiter rateLimiter;
+    private RestTemplate restTemplate;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new AdaptiveRateLimiter(1000, 100, 100, System::nanoTime, meterRegistry);
+        restTemplate = new RestTemplate();
+        restTemplate.setInterceptors(List.of(new RateLimitingInterceptor(rateLimiter, Duration.ofSeconds(1), 3, Duration.ofMillis(1),
+                                                                         Duration.ofMillis(5), meterRegistry)));
+        server = MockRestServiceServer.bindTo(restTemplate)
+                                      .build();
+    }
+
+    @Test
+    void throttledGetIsRetried() {
+        server.expect(ExpectedCount.once(), requestTo("http://upstream/employees"))
+              .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "0"));
+        server.expect(ExpectedCount.once(), requestTo("http://upstream/employees"))
+              .andRespond(withSuccess("{\"status\":\"success\"}", MediaType.APPLICATION_JSON));
+
+        assertThat(restTemplate.getForObject("http://upstream/employees", String.class)).contains("success");
+        assertThat(rateLimiter.rate()).isLessThan(1000);
+        assertThat(retries()).isEqualTo(1);
+        server.verify();
+    }
+
+    @Test
+    void retryAfterLongerThanMaxWaitFailsStraightAway() {
+        server.expect(ExpectedCount.once(), requestTo("http://upstream/employees"))
+              .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "3600"));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> restTemplate.getForObject("http://upstream/employees", String.class))
+                .isInstanceOf(UpstreamThrottledException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(retries()).isZero();
+        server.verify();
+    }
+
+    @Test
+    void getGivesUpAfterMaxAttempts() {
+        server.expect(ExpectedCount.times(3), requestTo("http://upstream/employees"))
+              .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertThatThrownBy(() -> restTemplate.getForObject("http://upstream/employees", String.class))
+                .isInstanceOf(HttpServerErrorException.class);
+        assertThat(retries()).isEqualTo(2);
+        server.verify();
+    }
+
+    @Test
+    void postIsNotRetried() {
+        server.expect(ExpectedCount.once(), requestTo("http://upstream/create"))
+              .andExpect(method(HttpMethod.POST))
+              .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS));
+
+        assertThatThrownBy(() -> restTemplate.postForObject("http://upstream/create", "{}", String.class))
+                .isInstanceOf(HttpClientErrorException.TooManyRequests.class);
+        assertThat(retries()).isZero();
+        server.verify();
+    }
+
+    @Test
+    void retryAfterParsing() {
+        assertThat(RateLimitingInterceptor.retryAfter("120")).isEqualTo(Duration.ofSeconds(120));
+        assertThat(RateLimitingInterceptor.retryAfter("Wed, 21 Oct 2015 07:28:00 GMT")).isZero();
+        assertThat(RateLimitingInterceptor.retryAfter("soon")).isZero();
+        assertThat(RateLimitingInterceptor.retryAfter(null)).isZero();
+    }
+
+    private double retries() {
+        return meterRegistry.get("rq.client.retries")
+                            .counter()
+                            .count();
+    }
+}
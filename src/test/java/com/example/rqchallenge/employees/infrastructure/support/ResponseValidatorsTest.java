@@ -0,0 +1,53 @@
+package com.example.rqchallenge.employees.infrastructure.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Response validators tests.
+ */
+class ResponseValidatorsTest {
+
+    private static final String LAST_MODIFIED = "Wed, 01 Dec 2021 00:00:00 GMT";
+
+    @Test
+    void validatorsAreSentBackAsReceived() {
+        HttpHeaders response = new HttpHeaders();
+        response.setETag("\"v1\"");
+        response.set(HttpHeaders.LAST_MODIFIED, LAST_MODIFIED);
+        HttpHeaders request = new HttpHeaders();
+
+        ResponseValidators.of(response, digest("[]"))
+                          .addTo(request);
+
+        assertThat(request.getFirst(HttpHeaders.IF_NONE_MATCH)).isEqualTo("\"v1\"");
+        assertThat(request.getFirst(HttpHeaders.IF_MODIFIED_SINCE)).isEqualTo(LAST_MODIFIED);
+    }
+
+    @Test
+    void missingValidatorsAreNotSent() {
+        HttpHeaders request = new HttpHeaders();
+
+        ResponseValidators.of(new HttpHeaders(), digest("[]"))
+                          .addTo(request);
+
+        assertThat(request).isEmpty();
+    }
+
+    @Test
+    void bodiesAreComparedByDigest() {
+        ResponseValidators first = ResponseValidators.of(new HttpHeaders(), digest("{\"data\":[]}"));
+
+        assertThat(first.hasSameBody(ResponseValidators.of(new HttpHeaders(), digest("{\"data\":[]}")))).isTrue();
+        assertThat(first.hasSameBody(ResponseValidators.of(new HttpHeaders(), digest("{\"data\":[1]}")))).isFalse();
+    }
+
+    private static byte[] digest(String body) {
+        return ResponseValidators.newDigest()
+                                 .digest(body.getBytes(StandardCharsets.UTF_8));
+    }
+}